@@ -0,0 +1,47 @@
+package com.helpdesk.strategy;
+
+import com.helpdesk.entity.Category;
+
+import java.util.List;
+
+/**
+ * CategoryStrategy that forwards to the strategy selected by the active PaymentDecisionTable
+ * Switching strategies on the settings page takes effect with the next call.
+ */
+public class ActiveCategoryStrategy implements CategoryStrategy {
+
+    private final PaymentRulesEngine rulesEngine;
+    private final CategoryStrategy strictStrategy;
+    private final CategoryStrategy lenientStrategy;
+
+    public ActiveCategoryStrategy(PaymentRulesEngine rulesEngine, CategoryStrategy strictStrategy,
+                                  CategoryStrategy lenientStrategy) {
+        this.rulesEngine = rulesEngine;
+        this.strictStrategy = strictStrategy;
+        this.lenientStrategy = lenientStrategy;
+    }
+
+    private CategoryStrategy delegate() {
+        return rulesEngine.current().isStrictCategories() ? strictStrategy : lenientStrategy;
+    }
+
+    @Override
+    public String validateCategory(String categoryName) {
+        return delegate().validateCategory(categoryName);
+    }
+
+    @Override
+    public boolean validateCategory(Category category) {
+        return delegate().validateCategory(category);
+    }
+
+    @Override
+    public void updateCategory(String oldName, String newName, List<String> existingNames) {
+        delegate().updateCategory(oldName, newName, existingNames);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return delegate().getStrategyName();
+    }
+}
@@ -0,0 +1,41 @@
+package com.helpdesk.strategy;
+
+import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.entity.Ticket;
+
+/**
+ * PaymentStrategy that forwards to the strategy selected by the active PaymentDecisionTable
+ * Switching strategies on the settings page takes effect with the next call.
+ */
+public class ActivePaymentStrategy implements PaymentStrategy {
+
+    private final PaymentRulesEngine rulesEngine;
+    private final PaymentStrategy manualStrategy;
+    private final PaymentStrategy automatedStrategy;
+
+    public ActivePaymentStrategy(PaymentRulesEngine rulesEngine, PaymentStrategy manualStrategy,
+                                 PaymentStrategy automatedStrategy) {
+        this.rulesEngine = rulesEngine;
+        this.manualStrategy = manualStrategy;
+        this.automatedStrategy = automatedStrategy;
+    }
+
+    private PaymentStrategy delegate() {
+        return rulesEngine.current().isAutomated() ? automatedStrategy : manualStrategy;
+    }
+
+    @Override
+    public boolean verifyPayment(PaymentTransaction transaction) {
+        return delegate().verifyPayment(transaction);
+    }
+
+    @Override
+    public String updateStatus(Ticket ticket, String status) {
+        return delegate().updateStatus(ticket, status);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return delegate().getStrategyName();
+    }
+}
@@ -0,0 +1,120 @@
+package com.helpdesk.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind view and feedback counters for support articles
+ * Increments go to per-article LongAdders (no lock, no database write on the request path) and are
+ * flushed periodically as one JDBC batch of relative updates (count = count + delta), so
+ * concurrent increments are never lost and an article save cannot overwrite them - the counter
+ * columns are not updatable through the entity. The flush also runs on shutdown. Counts shown
+ * on pages lag by at most one flush interval.
+ */
+@Component
+public class ArticleCounterBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleCounterBuffer.class);
+
+    private static final String FLUSH_SQL = "UPDATE support_articles SET " +
+            "view_count = COALESCE(view_count, 0) + ?, " +
+            "helpful_count = COALESCE(helpful_count, 0) + ?, " +
+            "not_helpful_count = COALESCE(not_helpful_count, 0) + ? " +
+            "WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // One entry per article that has been viewed or rated; entries are kept (bounded by the article count)
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    public void recordView(Long articleId) {
+        countersOf(articleId).views.increment();
+    }
+
+    public void recordFeedback(Long articleId, boolean helpful) {
+        Counters articleCounters = countersOf(articleId);
+        if (helpful) {
+            articleCounters.helpful.increment();
+        } else {
+            articleCounters.notHelpful.increment();
+        }
+    }
+
+    /**
+     * Drop the pending increments of a deleted article
+     */
+    public void forget(Long articleId) {
+        counters.remove(articleId);
+    }
+
+    @Scheduled(fixedDelayString = "${support.articles.counter-flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, Counters> entry : counters.entrySet()) {
+            Counters articleCounters = entry.getValue();
+            // take() subtracts what it read, so increments racing with the flush stay for the next one
+            long views = take(articleCounters.views);
+            long helpful = take(articleCounters.helpful);
+            long notHelpful = take(articleCounters.notHelpful);
+            if (views != 0 || helpful != 0 || notHelpful != 0) {
+                batch.add(new Object[]{views, helpful, notHelpful, entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            logger.debug("Flushed view/feedback counters of {} articles", batch.size());
+        } catch (RuntimeException e) {
+            // Put the deltas back and retry with the next flush
+            for (Object[] row : batch) {
+                Counters articleCounters = countersOf((Long) row[3]);
+                articleCounters.views.add((Long) row[0]);
+                articleCounters.helpful.add((Long) row[1]);
+                articleCounters.notHelpful.add((Long) row[2]);
+            }
+            logger.warn("Could not flush article counters ({} articles pending): {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Counters countersOf(Long articleId) {
+        return counters.computeIfAbsent(articleId, id -> new Counters());
+    }
+
+    private static long take(LongAdder adder) {
+        long value = adder.sum();
+        if (value != 0) {
+            adder.add(-value);
+        }
+        return value;
+    }
+
+    private static final class Counters {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder helpful = new LongAdder();
+        private final LongAdder notHelpful = new LongAdder();
+    }
+}
@@ -0,0 +1,407 @@
+package com.helpdesk.service;
+
+import com.helpdesk.entity.SupportArticle;
+import com.helpdesk.repository.SupportArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory full-text index of the published knowledge base articles
+ * Title, keywords and content are analyzed (lower case, stop words removed, light suffix
+ * stemming) into an inverted index of term -> article -> term frequency per field. Queries are
+ * ranked with BM25 per field (length-normalized against the field's average length) and the
+ * field scores are combined with boosts title > keywords > content. Snippets show the part of
+ * the content with the most query terms, with the matches highlighted. The index is built at
+ * startup and updated after commit whenever an article is created, edited, published, archived
+ * or deleted; only Published articles are indexed.
+ */
+@Component
+public class ArticleSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleSearchIndex.class);
+
+    private static final String PENDING_CHANGES_KEY = ArticleSearchIndex.class.getName() + ".pendingChanges";
+
+    // Fields by index: title, keywords, content
+    private static final double[] FIELD_BOOSTS = {3.0, 2.0, 1.0};
+
+    // BM25 term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int SNIPPET_LENGTH = 220;
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for", "from", "how",
+            "i", "if", "in", "into", "is", "it", "its", "my", "no", "not", "of", "on", "or", "our", "so",
+            "such", "that", "the", "their", "then", "there", "these", "they", "this", "to", "was", "we",
+            "what", "when", "where", "which", "who", "will", "with", "you", "your");
+
+    @Autowired
+    private SupportArticleRepository supportArticleRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<String, Map<Long, int[]>> postings = new HashMap<>(); // term -> article -> tf per field
+    private final Map<Long, IndexedArticle> articles = new HashMap<>();
+    private final long[] totalFieldLengths = new long[FIELD_BOOSTS.length];
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<SupportArticle> published = supportArticleRepository.findByStatus("Published");
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            articles.clear();
+            Arrays.fill(totalFieldLengths, 0);
+            for (SupportArticle article : published) {
+                add(article.getId(), article.getTitle(), article.getKeywords(), article.getContent());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Knowledge base search index built with {} articles and {} terms", published.size(), postings.size());
+    }
+
+    /**
+     * Add, replace or remove (when not Published) an article - applied after commit inside a transaction
+     */
+    public void update(SupportArticle article) {
+        Long id = article.getId();
+        boolean published = "Published".equals(article.getStatus());
+        String title = article.getTitle();
+        String keywords = article.getKeywords();
+        String content = article.getContent();
+        afterCommit(() -> {
+            removeArticle(id);
+            if (published) {
+                add(id, title, keywords, content);
+            }
+        });
+    }
+
+    /**
+     * Remove an article - applied after commit inside a transaction
+     */
+    public void remove(Long articleId) {
+        afterCommit(() -> removeArticle(articleId));
+    }
+
+    /**
+     * Rank the published articles for a query and return one page (page numbers start at 0)
+     */
+    public SearchPage search(String query, int page, int size) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(analyze(query)));
+        if (terms.isEmpty()) {
+            return new SearchPage(0, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = articles.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, int[]> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                for (Map.Entry<Long, int[]> posting : termPostings.entrySet()) {
+                    int[] lengths = articles.get(posting.getKey()).fieldLengths;
+                    double score = 0;
+                    for (int field = 0; field < FIELD_BOOSTS.length; field++) {
+                        int tf = posting.getValue()[field];
+                        if (tf == 0) {
+                            continue;
+                        }
+                        double averageLength = Math.max(1.0, (double) totalFieldLengths[field] / documentCount);
+                        double norm = K1 * (1 - B + B * lengths[field] / averageLength);
+                        score += FIELD_BOOSTS[field] * idf * tf * (K1 + 1) / (tf + norm);
+                    }
+                    scores.merge(posting.getKey(), score, Double::sum);
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.<Long, Double>comparingByKey()));
+
+            Set<String> querySet = Set.copyOf(terms);
+            List<Hit> hits = new ArrayList<>();
+            // page and size come from the request - a long offset cannot overflow into a negative index
+            int from = (int) Math.min((long) Math.max(page, 0) * Math.max(size, 0), ranked.size());
+            int to = (int) Math.min((long) from + Math.max(size, 0), ranked.size());
+            for (Map.Entry<Long, Double> entry : ranked.subList(from, to)) {
+                IndexedArticle article = articles.get(entry.getKey());
+                hits.add(new Hit(entry.getKey(), entry.getValue(),
+                        highlight(article.title, 0, article.title.length(), querySet),
+                        snippet(article.content, querySet)));
+            }
+            return new SearchPage(ranked.size(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void add(Long id, String title, String keywords, String content) {
+        IndexedArticle article = new IndexedArticle(title != null ? title : "", plainText(content));
+        String[] fields = {article.title, keywords, article.content};
+        for (int field = 0; field < fields.length; field++) {
+            List<String> terms = analyze(fields[field]);
+            article.fieldLengths[field] = terms.size();
+            totalFieldLengths[field] += terms.size();
+            for (String term : terms) {
+                postings.computeIfAbsent(term, key -> new HashMap<>())
+                        .computeIfAbsent(id, key -> new int[FIELD_BOOSTS.length])[field]++;
+                article.terms.add(term);
+            }
+        }
+        articles.put(id, article);
+    }
+
+    // Caller holds the write lock
+    private void removeArticle(Long id) {
+        IndexedArticle article = articles.remove(id);
+        if (article == null) {
+            return;
+        }
+        for (int field = 0; field < totalFieldLengths.length; field++) {
+            totalFieldLengths[field] -= article.fieldLengths[field];
+        }
+        for (String term : article.terms) {
+            Map<Long, int[]> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(id);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Analyzer shared by documents and queries: tokens, lower case, stop words removed, stemmed
+     */
+    private static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            String term = normalize(matcher.group());
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // Index term of one token, or null for a stop word
+    private static String normalize(String token) {
+        String lower = token.toLowerCase(Locale.ROOT);
+        return STOP_WORDS.contains(lower) ? null : stem(lower);
+    }
+
+    // Light English suffix stripping: "passwords" / "resetting" / "configured" -> "password" / "reset" / "configur"
+    private static String stem(String term) {
+        if (term.length() <= 3 || !Character.isLetter(term.charAt(0))) {
+            return term;
+        }
+        if (term.endsWith("ies") && term.length() > 4) {
+            term = term.substring(0, term.length() - 3) + "y";
+        } else if (term.endsWith("sses")) {
+            term = term.substring(0, term.length() - 2);
+        } else if (term.endsWith("s") && !term.endsWith("ss") && !term.endsWith("us") && !term.endsWith("is")) {
+            term = term.substring(0, term.length() - 1);
+        }
+
+        if (term.endsWith("ing") && term.length() >= 6) {
+            term = undouble(term.substring(0, term.length() - 3));
+        } else if (term.endsWith("ed") && term.length() >= 5) {
+            term = undouble(term.substring(0, term.length() - 2));
+        } else if (term.endsWith("ly") && term.length() >= 6) {
+            term = term.substring(0, term.length() - 2);
+        }
+
+        if (term.endsWith("e") && term.length() >= 5) {
+            term = term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+
+    private static String undouble(String term) {
+        int length = term.length();
+        if (length >= 4 && term.charAt(length - 1) == term.charAt(length - 2)
+                && "lsz".indexOf(term.charAt(length - 1)) < 0 && "aeiou".indexOf(term.charAt(length - 1)) < 0) {
+            return term.substring(0, length - 1);
+        }
+        return term;
+    }
+
+    // Part of the content with the most query terms
+    private static String snippet(String content, Set<String> queryTerms) {
+        List<int[]> matches = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(content);
+        while (matcher.find()) {
+            String term = normalize(matcher.group());
+            if (term != null && queryTerms.contains(term)) {
+                matches.add(new int[]{matcher.start(), matcher.end()});
+            }
+        }
+
+        int start = 0;
+        if (!matches.isEmpty()) {
+            int best = 0;
+            int bestCount = 0;
+            for (int i = 0, j = 0; i < matches.size(); i++) {
+                while (j < matches.size() && matches.get(j)[1] - matches.get(i)[0] <= SNIPPET_LENGTH) {
+                    j++;
+                }
+                if (j - i > bestCount) {
+                    bestCount = j - i;
+                    best = i;
+                }
+            }
+            start = Math.max(0, matches.get(best)[0] - 30);
+            while (start > 0 && !Character.isWhitespace(content.charAt(start - 1))) {
+                start--;
+            }
+        }
+        int end = Math.min(content.length(), start + SNIPPET_LENGTH);
+        while (end < content.length() && end < start + SNIPPET_LENGTH + 20 && !Character.isWhitespace(content.charAt(end))) {
+            end++;
+        }
+
+        return (start > 0 ? "&hellip; " : "") + highlight(content, start, end, queryTerms)
+                + (end < content.length() ? " &hellip;" : "");
+    }
+
+    // HTML-escaped text with the tokens matching the query in mark tags
+    private static String highlight(String text, int start, int end, Set<String> queryTerms) {
+        StringBuilder html = new StringBuilder(end - start + 32);
+        Matcher matcher = TOKEN.matcher(text).region(start, end);
+        int position = start;
+        while (matcher.find()) {
+            String term = normalize(matcher.group());
+            if (term != null && queryTerms.contains(term)) {
+                html.append(HtmlUtils.htmlEscape(text.substring(position, matcher.start())))
+                        .append("<mark>").append(HtmlUtils.htmlEscape(matcher.group())).append("</mark>");
+                position = matcher.end();
+            }
+        }
+        html.append(HtmlUtils.htmlEscape(text.substring(position, end)));
+        return html.toString();
+    }
+
+    // Content is stored with escaped line breaks (rendered with unescapeJava); snippets are one line
+    private static String plainText(String content) {
+        if (content == null) {
+            return "";
+        }
+        return content.replace("\\r", " ").replace("\\n", " ").replace("\\t", " ").replaceAll("\\s+", " ").trim();
+    }
+
+    // All index changes of one transaction are applied together after commit
+    private void afterCommit(Runnable change) {
+        TransactionChangeBuffer.afterCommit(PENDING_CHANGES_KEY, Collections.singletonList(change), this::apply);
+    }
+
+    private void apply(List<Runnable> changes) {
+        lock.writeLock().lock();
+        try {
+            changes.forEach(Runnable::run);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Total number of matching articles and the hits of the requested page
+     */
+    public static final class SearchPage {
+        private final long totalHits;
+        private final List<Hit> hits;
+
+        SearchPage(long totalHits, List<Hit> hits) {
+            this.totalHits = totalHits;
+            this.hits = hits;
+        }
+
+        public long getTotalHits() {
+            return totalHits;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+    }
+
+    public static final class Hit {
+        private final Long articleId;
+        private final double score;
+        private final String titleHtml;
+        private final String snippetHtml;
+
+        Hit(Long articleId, double score, String titleHtml, String snippetHtml) {
+            this.articleId = articleId;
+            this.score = score;
+            this.titleHtml = titleHtml;
+            this.snippetHtml = snippetHtml;
+        }
+
+        public Long getArticleId() {
+            return articleId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public String getTitleHtml() {
+            return titleHtml;
+        }
+
+        public String getSnippetHtml() {
+            return snippetHtml;
+        }
+    }
+
+    private static final class IndexedArticle {
+        private final String title;
+        private final String content;
+        private final int[] fieldLengths = new int[FIELD_BOOSTS.length];
+        private final Set<String> terms = new HashSet<>();
+
+        IndexedArticle(String title, String content) {
+            this.title = title;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.helpdesk.dto;
+
+import com.helpdesk.entity.SupportArticle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of ranked knowledge base search results
+ */
+public class ArticleSearchResultDTO {
+
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    private List<Hit> hits = new ArrayList<>();
+
+    /**
+     * One matching article with its score and highlighted (HTML-escaped, matches in mark tags) title and snippet
+     */
+    public static class Hit {
+        private SupportArticle article;
+        private double score;
+        private String titleHtml;
+        private String snippetHtml;
+
+        public Hit() {}
+
+        public Hit(SupportArticle article, double score, String titleHtml, String snippetHtml) {
+            this.article = article;
+            this.score = score;
+            this.titleHtml = titleHtml;
+            this.snippetHtml = snippetHtml;
+        }
+
+        public SupportArticle getArticle() {
+            return article;
+        }
+
+        public void setArticle(SupportArticle article) {
+            this.article = article;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public void setScore(double score) {
+            this.score = score;
+        }
+
+        public String getTitleHtml() {
+            return titleHtml;
+        }
+
+        public void setTitleHtml(String titleHtml) {
+            this.titleHtml = titleHtml;
+        }
+
+        public String getSnippetHtml() {
+            return snippetHtml;
+        }
+
+        public void setSnippetHtml(String snippetHtml) {
+            this.snippetHtml = snippetHtml;
+        }
+    }
+
+    // Constructors
+    public ArticleSearchResultDTO() {}
+
+    public ArticleSearchResultDTO(String query, int page, int size, long totalHits) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+        this.totalHits = totalHits;
+    }
+
+    public int getTotalPages() {
+        return size > 0 ? (int) ((totalHits + size - 1) / size) : 0;
+    }
+
+    // Getters and Setters
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+
+    public List<Hit> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<Hit> hits) {
+        this.hits = hits;
+    }
+}
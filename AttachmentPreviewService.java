@@ -0,0 +1,284 @@
+package com.helpdesk.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thumbnails and previews of image attachments
+ * After an upload is stored, a small worker pool renders a thumbnail and a first-page preview
+ * (multi-page TIFF scans) as JPEG next to the original. Large images are subsampled while they
+ * are decoded, so a full-resolution scan is never held in memory. Pages request the derivatives
+ * by key; one that is not rendered yet (queue was full, upload from before the pipeline) is
+ * queued on that request, and concurrent requests for it share the same render. Renders only
+ * ever run on the pool - while it is saturated, requests are refused instead of rendering inline.
+ */
+@Service
+public class AttachmentPreviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentPreviewService.class);
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "tif", "tiff");
+
+    public enum Size {
+        THUMBNAIL(".thumb.jpg"),
+        PREVIEW(".preview.jpg");
+
+        private final String suffix;
+
+        Size(String suffix) {
+            this.suffix = suffix;
+        }
+
+        public String getSuffix() {
+            return suffix;
+        }
+    }
+
+    @Autowired
+    private AttachmentStore attachmentStore;
+
+    @Value("${payment.attachments.preview.threads:2}")
+    private int threads;
+
+    @Value("${payment.attachments.preview.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${payment.attachments.preview.thumbnail-size:240}")
+    private int thumbnailSize;
+
+    @Value("${payment.attachments.preview.preview-size:1280}")
+    private int previewSize;
+
+    @Value("${payment.attachments.preview.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    // How long a page request waits for a render it triggered (or joined)
+    @Value("${payment.attachments.preview.wait-ms:5000}")
+    private long waitMillis;
+
+    private ThreadPoolExecutor renderPool;
+
+    // Attachment key -> render in progress
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        renderPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "attachment-preview-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * Whether thumbnails can be rendered for an attachment key
+     */
+    public boolean isPreviewable(String key) {
+        if (key == null || key.lastIndexOf('.') < 0) {
+            return false;
+        }
+        return IMAGE_EXTENSIONS.contains(key.substring(key.lastIndexOf('.') + 1).toLowerCase());
+    }
+
+    /**
+     * Queue rendering of the derivatives of a newly stored attachment (skipped when the queue is full)
+     */
+    public void schedule(String key) {
+        if (isPreviewable(key)) {
+            submit(key);
+        }
+    }
+
+    /**
+     * Derivative file of an attachment, rendering it first if needed
+     * @throws RejectedExecutionException when the render queue is full or the render did not finish within wait-ms
+     */
+    public Optional<Path> getDerivative(String key, Size size) {
+        if (!isPreviewable(key)) {
+            return Optional.empty();
+        }
+        Optional<Path> path = attachmentStore.derivativePath(key, size.getSuffix());
+        if (path.isEmpty() || Files.exists(path.get())) {
+            return path;
+        }
+
+        CompletableFuture<Void> render = submit(key);
+        if (render == null) {
+            throw new RejectedExecutionException("Preview queue is full");
+        }
+        try {
+            render.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (TimeoutException e) {
+            // Keeps rendering in the background; a later request finds the file
+            throw new RejectedExecutionException("Preview of attachment " + key + " is still rendering");
+        } catch (ExecutionException | RuntimeException e) {
+            logger.warn("Could not render {} of attachment {}: {}", size, key, e.toString());
+            return Optional.empty();
+        }
+        return path.filter(Files::exists);
+    }
+
+    private CompletableFuture<Void> submit(String key) {
+        CompletableFuture<Void> existing = inFlight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Void> render = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, render);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            renderPool.execute(() -> {
+                try {
+                    render(key);
+                    render.complete(null);
+                } catch (Throwable e) {
+                    logger.warn("Could not render previews of attachment {}: {}", key, e.toString());
+                    render.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, render);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, render);
+            logger.debug("Preview queue full - attachment {} will be rendered on a later view", key);
+            return null;
+        }
+        return render;
+    }
+
+    // Renders every missing size from one decode of the source image
+    private void render(String key) throws IOException {
+        Optional<Path> source = attachmentStore.resolve(key);
+        if (source.isEmpty()) {
+            return;
+        }
+        Path thumbnail = attachmentStore.derivativePath(key, Size.THUMBNAIL.getSuffix()).orElseThrow();
+        Path preview = attachmentStore.derivativePath(key, Size.PREVIEW.getSuffix()).orElseThrow();
+        if (Files.exists(thumbnail) && Files.exists(preview)) {
+            return;
+        }
+
+        BufferedImage image = readFirstPage(source.get(), previewSize);
+        if (image == null) {
+            throw new IOException("Unsupported image format");
+        }
+        if (!Files.exists(preview)) {
+            writeJpeg(scale(image, previewSize), preview);
+        }
+        if (!Files.exists(thumbnail)) {
+            writeJpeg(scale(image, thumbnailSize), thumbnail);
+        }
+    }
+
+    // First image of the file, subsampled while decoding to roughly the requested size
+    private BufferedImage readFirstPage(Path source, int maxSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longestSide / maxSize);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fit into maxSize x maxSize on a white background (JPEG has no alpha)
+    private BufferedImage scale(BufferedImage image, int maxSize) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    // Written to a uniquely named temp file and moved, so a half-written derivative is never served
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path partial = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(partial.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DISABLED);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+}
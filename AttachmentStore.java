@@ -0,0 +1,325 @@
+package com.helpdesk.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed attachment storage
+ * Files are stored once per SHA-256 hash under {dir}/ab/cd/abcd..., so identical receipts are
+ * deduplicated and no directory grows beyond a few thousand entries. The stored key is
+ * "{sha256}.{extension}". Only PNG, JPEG, GIF, WebP and PDF content is accepted, recognized by
+ * its leading bytes rather than the uploaded name; the extension is that of the detected type.
+ * Downloads take their content type from the same check, and anything outside the list (files
+ * from before the check) is sent as an application/octet-stream download. Keys from before the
+ * store (random UUID names in the flat directory) still resolve.
+ * Downloads go through the servlet container's sendfile support when available, otherwise
+ * through FileChannel.transferTo, with an ETag, single-range requests and long-lived cache
+ * headers (content under a hash key never changes).
+ */
+@Component
+public class AttachmentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentStore.class);
+
+    private static final Pattern HASH_KEY = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]{1,10})?");
+    private static final Pattern LEGACY_KEY = Pattern.compile("[A-Za-z0-9-]{1,64}(\\.[A-Za-z0-9]{1,10})?");
+    private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    // Tomcat sendfile request attributes (NIO/NIO2 connectors)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${payment.attachments.dir:uploads/payment-attachments/}")
+    private String attachmentDir;
+
+    @Value("${payment.attachments.cache-max-age-seconds:31536000}")
+    private long cacheMaxAgeSeconds;
+
+    /**
+     * Store an upload, hashing it while it is written to a temp file
+     * @return the attachment key
+     * @throws IllegalArgumentException when the content is not one of the accepted types
+     */
+    public String store(InputStream content) throws IOException {
+        Path temp = createTempFile();
+        try {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.TRUNCATE_EXISTING)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            return commit(temp, HexFormat.of().formatHex(digest.digest()));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * New empty temp file on the same file system as the store (so commit() is an atomic rename)
+     */
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(Files.createDirectories(root().resolve("tmp")), "upload-", ".part");
+    }
+
+    /**
+     * Move an already hashed temp file into the store (deleted instead if the content is already stored)
+     * @return the attachment key
+     * @throws IllegalArgumentException when the content is not one of the accepted types (the temp file is kept)
+     */
+    public String commit(Path temp, String sha256) throws IOException {
+        AttachmentType type = AttachmentType.detect(temp);
+        if (type == null) {
+            throw new IllegalArgumentException("Unsupported attachment type - upload a PNG, JPEG, GIF, WebP or PDF file");
+        }
+        Path target = contentPath(sha256);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(temp);
+            logger.debug("Attachment {} already stored - deduplicated", sha256);
+        } else {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(temp); // stored concurrently
+            }
+        }
+        return sha256 + type.extension;
+    }
+
+    /**
+     * File of an attachment key, if the key is valid and the file exists
+     */
+    public Optional<Path> resolve(String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        Path path;
+        Matcher matcher = HASH_KEY.matcher(key);
+        if (matcher.matches()) {
+            path = contentPath(matcher.group(1));
+        } else if (LEGACY_KEY.matcher(key).matches()) {
+            path = root().resolve(key);
+        } else {
+            return Optional.empty();
+        }
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * File of a derived artifact (thumbnail, preview) kept next to the original - it may not exist yet
+     */
+    public Optional<Path> derivativePath(String key, String suffix) {
+        return resolve(key).map(path -> path.resolveSibling(path.getFileName() + suffix));
+    }
+
+    /**
+     * Content hash of a key (null for legacy keys)
+     */
+    public String hashOf(String key) {
+        Matcher matcher = key != null ? HASH_KEY.matcher(key) : null;
+        return matcher != null && matcher.matches() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Write an attachment to the response, honouring If-None-Match and Range
+     */
+    public void serve(String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> file = resolve(key);
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // The type comes from the content, never from the key's extension
+        AttachmentType type = AttachmentType.detect(file.get());
+        if (type == null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(key).build().toString());
+        }
+        serveFile(file.get(), hashOf(key), type != null ? type.contentType : "application/octet-stream", request, response);
+    }
+
+    /**
+     * Write a file to the response; contentHash (when known) makes the ETag and allows immutable caching
+     */
+    public void serveFile(Path file, String contentHash, String contentType, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        long length = Files.size(file);
+        String etag = contentHash != null
+                ? "\"" + contentHash + "\""
+                : "W/\"" + length + "-" + Files.getLastModifiedTime(file).toMillis() + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // Session-protected content: browser cache only
+        response.setHeader(HttpHeaders.CACHE_CONTROL, contentHash != null
+                ? "private, max-age=" + cacheMaxAgeSeconds + ", immutable"
+                : "private, no-cache");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(etag))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            // Multi-range requests get the whole file
+            if (matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                if (matcher.group(1).isEmpty()) {
+                    start = Math.max(0, length - Long.parseLong(matcher.group(2))); // suffix range
+                } else {
+                    start = Long.parseLong(matcher.group(1));
+                    if (!matcher.group(2).isEmpty()) {
+                        end = Math.min(end, Long.parseLong(matcher.group(2)));
+                    }
+                }
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The connector sends the file itself (sendfile) once the request returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private Path root() {
+        return Paths.get(attachmentDir);
+    }
+
+    // {dir}/ab/cd/abcd...
+    private Path contentPath(String sha256) {
+        return root().resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Attachment types that are accepted and displayed inline, recognized by their leading bytes
+     */
+    private enum AttachmentType {
+        PNG("image/png", ".png"),
+        JPEG("image/jpeg", ".jpg"),
+        GIF("image/gif", ".gif"),
+        WEBP("image/webp", ".webp"),
+        PDF("application/pdf", ".pdf");
+
+        private final String contentType;
+        private final String extension;
+
+        AttachmentType(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        // Null for anything else (SVG, HTML, ...)
+        static AttachmentType detect(Path file) throws IOException {
+            byte[] head = new byte[12];
+            int length;
+            try (InputStream in = Files.newInputStream(file)) {
+                length = in.readNBytes(head, 0, head.length);
+            }
+            if (startsWith(head, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+                return PNG;
+            }
+            if (startsWith(head, length, 0, 0xFF, 0xD8, 0xFF)) {
+                return JPEG;
+            }
+            if (startsWith(head, length, 0, 'G', 'I', 'F', '8')) {
+                return GIF;
+            }
+            if (startsWith(head, length, 0, 'R', 'I', 'F', 'F') && startsWith(head, length, 8, 'W', 'E', 'B', 'P')) {
+                return WEBP;
+            }
+            if (startsWith(head, length, 0, '%', 'P', 'D', 'F', '-')) {
+                return PDF;
+            }
+            return null;
+        }
+
+        private static boolean startsWith(byte[] head, int length, int offset, int... expected) {
+            if (offset + expected.length > length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if ((head[offset + i] & 0xFF) != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.helpdesk.dto;
+
+/**
+ * Outcome of one transaction in a batch verification
+ */
+public class BatchVerifyResultDTO {
+
+    public enum Outcome {
+        VERIFIED, REJECTED, NOT_FOUND,
+        NOT_PENDING, // auto-verify only: already processed
+        DECLINED     // auto-verify only: the payment strategy did not approve it
+    }
+
+    private Long transactionId;
+    private String transactionNumber;
+    private Outcome outcome;
+    private Boolean strategyRecommendation;
+
+    // Constructors
+    public BatchVerifyResultDTO() {}
+
+    public BatchVerifyResultDTO(Long transactionId, String transactionNumber, Outcome outcome,
+                                Boolean strategyRecommendation) {
+        this.transactionId = transactionId;
+        this.transactionNumber = transactionNumber;
+        this.outcome = outcome;
+        this.strategyRecommendation = strategyRecommendation;
+    }
+
+    // Getters and Setters
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getTransactionNumber() {
+        return transactionNumber;
+    }
+
+    public void setTransactionNumber(String transactionNumber) {
+        this.transactionNumber = transactionNumber;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    /**
+     * What the active payment strategy would have decided (null when the transaction was not found)
+     */
+    public Boolean getStrategyRecommendation() {
+        return strategyRecommendation;
+    }
+
+    public void setStrategyRecommendation(Boolean strategyRecommendation) {
+        this.strategyRecommendation = strategyRecommendation;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "categories")
+@EntityListeners(TableChangeTracker.class)
 public class Category extends BaseEntity {
 
     @NotBlank(message = "Category name is required")
@@ -0,0 +1,291 @@
+package com.helpdesk.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable chunked uploads straight into the attachment store
+ * Chunks are read from the raw request body and written to a temp file at the session's
+ * offset while the SHA-256 is updated, so every byte is handled once and nothing is buffered
+ * in memory. The declared size is the quota: a chunk that would exceed it is rejected as soon
+ * as the excess is read. A failed or interrupted chunk is rolled back (file truncated, digest
+ * restored), so the client resumes from the offset reported by the server. On completion the
+ * temp file is committed to the store by hash; the form then claims the key with the upload id.
+ * Sessions live in memory and expire when idle.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private AttachmentStore attachmentStore;
+
+    @Autowired
+    private AttachmentPreviewService attachmentPreviewService;
+
+    @Value("${payment.uploads.max-size-bytes:524288000}")
+    private long maxSizeBytes;
+
+    @Value("${payment.uploads.chunk-size-bytes:8388608}")
+    private int chunkSizeBytes;
+
+    // Files up to this size are posted with the form as before
+    @Value("${payment.uploads.direct-max-bytes:5242880}")
+    private long directUploadMaxBytes;
+
+    @Value("${payment.uploads.max-active-per-user:5}")
+    private int maxActivePerUser;
+
+    @Value("${payment.uploads.expire-after-minutes:60}")
+    private long expireAfterMinutes;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Start an upload of a file of the given size
+     */
+    public UploadSession start(String owner, String filename, long size) throws IOException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        if (size > maxSizeBytes) {
+            throw new IllegalArgumentException("The file exceeds the upload limit of " + (maxSizeBytes / (1024 * 1024)) + " MB");
+        }
+        long active = sessions.values().stream().filter(session -> session.owner.equals(owner) && !session.complete).count();
+        if (active >= maxActivePerUser) {
+            throw new IllegalArgumentException("Too many unfinished uploads - finish or cancel one first");
+        }
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), owner, filename, size,
+                attachmentStore.createTempFile(), AttachmentStore.sha256());
+        sessions.put(session.uploadId, session);
+        return session;
+    }
+
+    /**
+     * Upload session of the owner
+     */
+    public UploadSession get(String uploadId, String owner) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null || !session.owner.equals(owner)) {
+            throw new RuntimeException("Upload not found: " + uploadId);
+        }
+        return session;
+    }
+
+    /**
+     * Append one chunk at the given offset
+     * @return the new offset
+     * @throws IllegalStateException when offset is not the current offset (nothing is written)
+     * @throws IllegalArgumentException when the chunk goes past the declared size (the chunk is discarded)
+     */
+    public long append(String uploadId, String owner, long offset, InputStream body) throws IOException {
+        UploadSession session = get(uploadId, owner);
+        synchronized (session) {
+            if (session.complete) {
+                throw new IllegalStateException("Upload is already complete");
+            }
+            if (offset != session.received) {
+                throw new IllegalStateException("Expected offset " + session.received);
+            }
+
+            long start = session.received;
+            MessageDigest rollbackDigest = cloneDigest(session.digest);
+            boolean written = false;
+            try (FileChannel channel = FileChannel.open(session.tempFile, StandardOpenOption.WRITE)) {
+                channel.position(start);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long position = start;
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    if (position + read > session.size) {
+                        throw new IllegalArgumentException("Chunk goes past the declared file size of " + session.size + " bytes");
+                    }
+                    session.digest.update(buffer, 0, read);
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining()) {
+                        channel.write(byteBuffer);
+                    }
+                    position += read;
+                }
+                session.received = position;
+                written = true;
+            } finally {
+                if (!written) {
+                    session.digest = rollbackDigest;
+                    try (FileChannel channel = FileChannel.open(session.tempFile, StandardOpenOption.WRITE)) {
+                        channel.truncate(start);
+                    }
+                }
+                session.lastActivity = Instant.now();
+            }
+            return session.received;
+        }
+    }
+
+    /**
+     * Finish an upload and commit it to the attachment store
+     * @param expectedSha256 optional checksum computed by the client
+     */
+    public UploadSession complete(String uploadId, String owner, String expectedSha256) throws IOException {
+        UploadSession session = get(uploadId, owner);
+        synchronized (session) {
+            if (session.complete) {
+                return session;
+            }
+            if (session.received != session.size) {
+                throw new IllegalStateException("Upload is incomplete: " + session.received + " of " + session.size + " bytes");
+            }
+            String sha256 = HexFormat.of().formatHex(session.digest.digest());
+            if (expectedSha256 != null && !expectedSha256.isBlank() && !expectedSha256.trim().equalsIgnoreCase(sha256)) {
+                discard(session);
+                throw new IllegalArgumentException("Checksum mismatch - the upload was discarded");
+            }
+            try {
+                session.key = attachmentStore.commit(session.tempFile, sha256);
+            } catch (IllegalArgumentException e) {
+                discard(session); // not an accepted file type
+                throw e;
+            }
+            session.sha256 = sha256;
+            session.complete = true;
+            session.lastActivity = Instant.now();
+            attachmentPreviewService.schedule(session.key);
+            logger.debug("Chunked upload {} of {} bytes stored as {}", uploadId, session.size, session.key);
+            return session;
+        }
+    }
+
+    /**
+     * Attachment key of a completed upload; the session ends here
+     */
+    public String claim(String uploadId, String owner) {
+        UploadSession session = get(uploadId, owner);
+        if (!session.complete) {
+            throw new RuntimeException("Upload is not complete");
+        }
+        sessions.remove(uploadId, session);
+        return session.key;
+    }
+
+    /**
+     * Cancel an upload and delete what was received
+     */
+    public void cancel(String uploadId, String owner) throws IOException {
+        UploadSession session = get(uploadId, owner);
+        synchronized (session) {
+            discard(session);
+        }
+    }
+
+    public long getDirectUploadMaxBytes() {
+        return directUploadMaxBytes;
+    }
+
+    public int getChunkSizeBytes() {
+        return chunkSizeBytes;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.uploads.cleanup-interval-ms:600000}")
+    public void expireIdleUploads() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(expireAfterMinutes));
+        for (UploadSession session : sessions.values()) {
+            if (session.lastActivity.isBefore(cutoff)) {
+                synchronized (session) {
+                    try {
+                        discard(session);
+                    } catch (IOException e) {
+                        logger.warn("Could not delete expired upload {}: {}", session.uploadId, e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private void discard(UploadSession session) throws IOException {
+        sessions.remove(session.uploadId, session);
+        if (!session.complete) {
+            Files.deleteIfExists(session.tempFile);
+        }
+    }
+
+    private static MessageDigest cloneDigest(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException("SHA-256 digest cannot be cloned", e);
+        }
+    }
+
+    /**
+     * State of one upload
+     */
+    public static class UploadSession {
+        private final String uploadId;
+        private final String owner;
+        private final String filename;
+        private final long size;
+        private final Path tempFile;
+        private MessageDigest digest;
+        private volatile long received;
+        private volatile boolean complete;
+        private volatile String key;
+        private volatile String sha256;
+        private volatile Instant lastActivity = Instant.now();
+
+        UploadSession(String uploadId, String owner, String filename, long size, Path tempFile, MessageDigest digest) {
+            this.uploadId = uploadId;
+            this.owner = owner;
+            this.filename = filename;
+            this.size = size;
+            this.tempFile = tempFile;
+            this.digest = digest;
+        }
+
+        public String getUploadId() {
+            return uploadId;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getReceived() {
+            return received;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.helpdesk.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a deleted ticket or reply
+ * Delta exports emit these as delete operations so downstream copies can drop the rows
+ */
+@Entity
+@Table(name = "deleted_records", indexes = {
+        @Index(name = "idx_deleted_records_deleted_at", columnList = "deleted_at")
+})
+public class DeletedRecord {
+
+    public enum RecordType {
+        TICKET, REPLY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "record_type", nullable = false, length = 20)
+    private RecordType recordType;
+
+    @Column(name = "record_id", nullable = false)
+    private Long recordId;
+
+    // Owning ticket (the ticket itself for TICKET tombstones)
+    @Column(name = "ticket_id")
+    private Long ticketId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public DeletedRecord() {}
+
+    public DeletedRecord(RecordType recordType, Long recordId, Long ticketId) {
+        this.recordType = recordType;
+        this.recordId = recordId;
+        this.ticketId = ticketId;
+        this.deletedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public RecordType getRecordType() {
+        return recordType;
+    }
+
+    public void setRecordType(RecordType recordType) {
+        this.recordType = recordType;
+    }
+
+    public Long getRecordId() {
+        return recordId;
+    }
+
+    public void setRecordId(Long recordId) {
+        this.recordId = recordId;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(Long ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
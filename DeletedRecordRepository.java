@@ -0,0 +1,16 @@
+package com.helpdesk.repository;
+
+import com.helpdesk.entity.DeletedRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeletedRecordRepository extends JpaRepository<DeletedRecord, Long> {
+
+    // Tombstones inside a delta export window [since, until)
+    List<DeletedRecord> findByDeletedAtGreaterThanEqualAndDeletedAtLessThanOrderByDeletedAt(
+            LocalDateTime since, LocalDateTime until);
+}
@@ -0,0 +1,292 @@
+package com.helpdesk.service;
+
+import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.repository.PaymentTransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sliding-window index of recent payment submissions
+ * A submission is a probable duplicate when the same student submitted the same amount with the
+ * same reference number within the window (the category is ignored - resubmissions often pick a
+ * different one). Payments without a reference number are not checked - equal cash or instalment
+ * payments from one student are normal. Submissions are kept in time order and in a hash index by
+ * fingerprint; entries older than the window are evicted as new ones arrive, so memory is bounded
+ * by the number of submissions per window (and by max-entries). Edits re-key the entry after
+ * commit; rejected and deleted transactions leave the index. The index is rebuilt from the last
+ * window of transactions at startup.
+ */
+@Component
+public class DuplicatePaymentDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicatePaymentDetector.class);
+
+    private static final String PENDING_CHANGES_KEY = DuplicatePaymentDetector.class.getName() + ".pendingChanges";
+
+    public enum Mode {
+        OFF, FLAG, BLOCK
+    }
+
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    // flag = create and warn, block = refuse the submission, off = no checks
+    @Value("${payment.duplicates.mode:flag}")
+    private String mode;
+
+    @Value("${payment.duplicates.window-days:3}")
+    private int windowDays;
+
+    @Value("${payment.duplicates.max-entries:100000}")
+    private int maxEntries;
+
+    // Guarded by this
+    private final ArrayDeque<Submission> byTime = new ArrayDeque<>();
+    private final Map<String, ArrayDeque<Submission>> byFingerprint = new HashMap<>();
+    private final Map<Long, Submission> byId = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (getMode() == Mode.OFF) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+        synchronized (this) {
+            byTime.clear();
+            byFingerprint.clear();
+            byId.clear();
+            for (Object[] row : paymentTransactionRepository.getSubmissionsSince(since, PaymentTransaction.Status.REJECTED)) {
+                String fingerprint = fingerprint((String) row[2], (BigDecimal) row[3], (String) row[4]);
+                if (fingerprint != null) {
+                    add(new Submission((Long) row[0], (String) row[1], fingerprint, (LocalDateTime) row[5]));
+                }
+            }
+            logger.info("Duplicate payment index rebuilt with {} submissions from the last {} days", byTime.size(), windowDays);
+        }
+    }
+
+    /**
+     * Check a newly saved transaction against the window and add it to the index
+     * Runs inside the create transaction: on rollback the submission leaves the index again.
+     * @return the earlier submission it duplicates, or null (always null without a reference number)
+     * @throws RuntimeException in block mode when it is a probable duplicate
+     */
+    public Match register(PaymentTransaction transaction) {
+        Mode currentMode = getMode();
+        if (currentMode == Mode.OFF || transaction.getId() == null) {
+            return null;
+        }
+
+        String fingerprint = fingerprint(transaction.getStudentId(), transaction.getAmount(), transaction.getReferenceNumber());
+        if (fingerprint == null) {
+            return null;
+        }
+        LocalDateTime createdAt = transaction.getCreatedAt() != null ? transaction.getCreatedAt() : LocalDateTime.now();
+        Submission submission = new Submission(transaction.getId(), transaction.getTransactionNumber(), fingerprint, createdAt);
+
+        Match match = null;
+        synchronized (this) {
+            LocalDateTime cutoff = createdAt.minusDays(windowDays);
+            evict(cutoff);
+            ArrayDeque<Submission> earlier = byFingerprint.get(fingerprint);
+            if (earlier != null) {
+                // Newest first; re-keyed entries may sit behind newer ones and be older than the window
+                for (Iterator<Submission> it = earlier.descendingIterator(); it.hasNext() && match == null; ) {
+                    Submission candidate = it.next();
+                    if (!candidate.createdAt.isBefore(cutoff)) {
+                        match = new Match(candidate.transactionId, candidate.transactionNumber, candidate.createdAt);
+                    }
+                }
+            }
+            if (match == null || currentMode == Mode.FLAG) {
+                add(submission);
+            }
+        }
+
+        if (match != null && currentMode == Mode.BLOCK) {
+            throw new RuntimeException("Probable duplicate of transaction " + match.getTransactionNumber()
+                    + " (same student, amount and reference number, submitted " + match.getCreatedAt().toLocalDate() + ")");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(submission.transactionId);
+                    }
+                }
+            });
+        }
+        if (match != null) {
+            logger.warn("Transaction {} is a probable duplicate of {}", submission.transactionNumber, match.getTransactionNumber());
+        }
+        return match;
+    }
+
+    /**
+     * Follow a change of a transaction (before = null for inserts, after = null for deletes)
+     * Inserts are indexed by register(); updates and deletes are applied after commit.
+     */
+    public void recordChange(PaymentStatsSnapshot.Facts before, PaymentStatsSnapshot.Facts after) {
+        if (before == null || getMode() == Mode.OFF) {
+            return;
+        }
+        TransactionChangeBuffer.afterCommit(PENDING_CHANGES_KEY,
+                Collections.singletonList(new PaymentStatsSnapshot.Facts[]{before, after}), this::apply);
+    }
+
+    public Mode getMode() {
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Mode.FLAG;
+        }
+    }
+
+    private synchronized void apply(List<PaymentStatsSnapshot.Facts[]> changes) {
+        for (PaymentStatsSnapshot.Facts[] change : changes) {
+            PaymentStatsSnapshot.Facts after = change[1];
+            if (after == null || after.getStatus() == PaymentTransaction.Status.REJECTED) {
+                // A rejected or deleted payment may be submitted again
+                remove(change[0].getTransactionId());
+            } else {
+                rekey(after);
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void rekey(PaymentStatsSnapshot.Facts after) {
+        String fingerprint = fingerprint(after.getStudentId(), after.getAmount(), after.getReferenceNumber());
+        Submission existing = byId.get(after.getTransactionId());
+        if (existing != null && existing.fingerprint.equals(fingerprint)) {
+            return;
+        }
+        remove(after.getTransactionId());
+        // Student, amount or reference changed: index it under the new fingerprint while still within the window
+        LocalDateTime createdAt = existing != null ? existing.createdAt : after.getCreatedAt();
+        if (fingerprint != null && createdAt != null && !createdAt.isBefore(LocalDateTime.now().minusDays(windowDays))) {
+            add(new Submission(after.getTransactionId(), after.getTransactionNumber(), fingerprint, createdAt));
+        }
+    }
+
+    private synchronized void remove(Long transactionId) {
+        Submission submission = byId.remove(transactionId);
+        if (submission == null) {
+            return;
+        }
+        // Stays in byTime until it is evicted; removed from the hash index now
+        ArrayDeque<Submission> sameFingerprint = byFingerprint.get(submission.fingerprint);
+        if (sameFingerprint != null) {
+            sameFingerprint.remove(submission);
+            if (sameFingerprint.isEmpty()) {
+                byFingerprint.remove(submission.fingerprint);
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void add(Submission submission) {
+        byTime.addLast(submission);
+        byFingerprint.computeIfAbsent(submission.fingerprint, key -> new ArrayDeque<>(2)).addLast(submission);
+        byId.put(submission.transactionId, submission);
+        while (byTime.size() > maxEntries) {
+            evictFirst();
+        }
+    }
+
+    // Caller holds the lock
+    private void evict(LocalDateTime cutoff) {
+        while (!byTime.isEmpty() && byTime.peekFirst().createdAt.isBefore(cutoff)) {
+            evictFirst();
+        }
+    }
+
+    private void evictFirst() {
+        Submission oldest = byTime.pollFirst();
+        if (byId.remove(oldest.transactionId, oldest)) {
+            ArrayDeque<Submission> sameFingerprint = byFingerprint.get(oldest.fingerprint);
+            sameFingerprint.remove(oldest);
+            if (sameFingerprint.isEmpty()) {
+                byFingerprint.remove(oldest.fingerprint);
+            }
+        }
+    }
+
+    // Null when there is no reference number to compare
+    private static String fingerprint(String studentId, BigDecimal amount, String referenceNumber) {
+        StringBuilder key = new StringBuilder(48);
+        key.append(studentId != null ? studentId.trim().toUpperCase(Locale.ROOT) : "").append('|');
+        key.append(amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue() : "").append('|');
+        int prefixLength = key.length();
+        if (referenceNumber != null) {
+            // "ref 00-123/A" and "REF00123A" are the same receipt
+            for (int i = 0; i < referenceNumber.length(); i++) {
+                char c = referenceNumber.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    key.append(Character.toUpperCase(c));
+                }
+            }
+        }
+        return key.length() > prefixLength ? key.toString() : null;
+    }
+
+    /**
+     * Earlier submission a transaction duplicates
+     */
+    public static final class Match {
+        private final Long transactionId;
+        private final String transactionNumber;
+        private final LocalDateTime createdAt;
+
+        Match(Long transactionId, String transactionNumber, LocalDateTime createdAt) {
+            this.transactionId = transactionId;
+            this.transactionNumber = transactionNumber;
+            this.createdAt = createdAt;
+        }
+
+        public Long getTransactionId() {
+            return transactionId;
+        }
+
+        public String getTransactionNumber() {
+            return transactionNumber;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+
+    private static final class Submission {
+        private final Long transactionId;
+        private final String transactionNumber;
+        private final String fingerprint;
+        private final LocalDateTime createdAt;
+
+        Submission(Long transactionId, String transactionNumber, String fingerprint, LocalDateTime createdAt) {
+            this.transactionId = transactionId;
+            this.transactionNumber = transactionNumber;
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.helpdesk.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Server-side watermark of a delta export consumer (e.g. the nightly BI sync)
+ * The next delta export for the consumer starts where the last successful one ended
+ */
+@Entity
+@Table(name = "export_watermarks")
+public class ExportWatermark {
+
+    @Id
+    @Column(name = "consumer", length = 100)
+    private String consumer;
+
+    @Column(name = "watermark", nullable = false)
+    private LocalDateTime watermark;
+
+    @Column(name = "last_export_at")
+    private LocalDateTime lastExportAt;
+
+    // Constructors
+    public ExportWatermark() {}
+
+    public ExportWatermark(String consumer) {
+        this.consumer = consumer;
+    }
+
+    // Getters and Setters
+    public String getConsumer() {
+        return consumer;
+    }
+
+    public void setConsumer(String consumer) {
+        this.consumer = consumer;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(LocalDateTime watermark) {
+        this.watermark = watermark;
+    }
+
+    public LocalDateTime getLastExportAt() {
+        return lastExportAt;
+    }
+
+    public void setLastExportAt(LocalDateTime lastExportAt) {
+        this.lastExportAt = lastExportAt;
+    }
+}
@@ -0,0 +1,174 @@
+package com.helpdesk.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Idempotency keys for create forms
+ * Every create form carries a key issued when the form is rendered. The first submission with a
+ * key runs the create; repeated submissions (double clicks, re-posted forms) wait for it and get
+ * the id of the same row instead of inserting another one. Keys are remembered in a bounded map
+ * evicted after a TTL; after eviction or a restart the key column of the created row (unique in
+ * the database) answers the lookup, and also catches submissions racing on another instance.
+ */
+@Component
+public class IdempotencyKeyRegistry {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9-]{16,64}");
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${idempotency.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    // How long a repeated submission waits for the first one to finish
+    @Value("${idempotency.wait-ms:30000}")
+    private long waitMs;
+
+    // Insertion order = expiry order; guarded by this
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * New key for a form
+     */
+    public String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Create once per key
+     * @param scope     keeps keys of different forms/users apart, e.g. "payment:" + username
+     * @param key       key submitted with the form; without a (valid) key the create just runs
+     * @param lookup    id of the row already created with this key, or null
+     * @param create    creates the row with the given key (to store on it; null without a key) and returns its id
+     */
+    public Outcome execute(String scope, String key, Supplier<Long> lookup, Function<String, Long> create) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            return new Outcome(create.apply(null), false);
+        }
+
+        String mapKey = scope + ":" + key;
+        Entry entry;
+        boolean first = false;
+        synchronized (this) {
+            evictExpired();
+            entry = entries.get(mapKey);
+            if (entry == null) {
+                entry = new Entry(Instant.now().plusSeconds(ttlMinutes * 60));
+                entries.put(mapKey, entry);
+                first = true;
+                if (entries.size() > maxEntries) {
+                    Iterator<Entry> oldest = entries.values().iterator();
+                    oldest.next();
+                    oldest.remove();
+                }
+            }
+        }
+
+        if (!first) {
+            return new Outcome(await(entry.result), true);
+        }
+
+        try {
+            Long existing = lookup.get();
+            if (existing != null) {
+                entry.result.complete(existing);
+                return new Outcome(existing, true);
+            }
+            Long id = create.apply(key);
+            entry.result.complete(id);
+            return new Outcome(id, false);
+        } catch (DataIntegrityViolationException e) {
+            // Unique key: the same key was committed by a concurrent request elsewhere
+            Long existing = lookup.get();
+            if (existing != null) {
+                entry.result.complete(existing);
+                return new Outcome(existing, true);
+            }
+            fail(mapKey, entry, e);
+            throw e;
+        } catch (RuntimeException e) {
+            fail(mapKey, entry, e);
+            throw e;
+        }
+    }
+
+    private void fail(String mapKey, Entry entry, RuntimeException e) {
+        // Forget the key so that the form can be submitted again
+        synchronized (this) {
+            entries.remove(mapKey, entry);
+        }
+        entry.result.completeExceptionally(e);
+    }
+
+    private Long await(CompletableFuture<Long> result) {
+        try {
+            return result.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("The original submission failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("The original submission is still being processed - please check again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the original submission", e);
+        }
+    }
+
+    // Caller holds the lock
+    private void evictExpired() {
+        Instant now = Instant.now();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.expiresAt.isAfter(now)) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Id of the created row and whether it came from an earlier submission
+     */
+    public static final class Outcome {
+        private final Long id;
+        private final boolean replayed;
+
+        Outcome(Long id, boolean replayed) {
+            this.id = id;
+            this.replayed = replayed;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    private static final class Entry {
+        private final Instant expiresAt;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        Entry(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
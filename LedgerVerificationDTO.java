@@ -0,0 +1,79 @@
+package com.helpdesk.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of one payment ledger verification run
+ */
+public class LedgerVerificationDTO {
+
+    private LocalDateTime verifiedAt;
+    private long balancesChecked;
+    private long driftCount;
+    private List<String> driftedStudentIds; // first few only
+    private boolean repaired;
+    private long elapsedMillis;
+
+    // Constructors
+    public LedgerVerificationDTO() {}
+
+    public LedgerVerificationDTO(LocalDateTime verifiedAt, long balancesChecked, long driftCount,
+                                 List<String> driftedStudentIds, boolean repaired, long elapsedMillis) {
+        this.verifiedAt = verifiedAt;
+        this.balancesChecked = balancesChecked;
+        this.driftCount = driftCount;
+        this.driftedStudentIds = driftedStudentIds;
+        this.repaired = repaired;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getVerifiedAt() {
+        return verifiedAt;
+    }
+
+    public void setVerifiedAt(LocalDateTime verifiedAt) {
+        this.verifiedAt = verifiedAt;
+    }
+
+    public long getBalancesChecked() {
+        return balancesChecked;
+    }
+
+    public void setBalancesChecked(long balancesChecked) {
+        this.balancesChecked = balancesChecked;
+    }
+
+    public long getDriftCount() {
+        return driftCount;
+    }
+
+    public void setDriftCount(long driftCount) {
+        this.driftCount = driftCount;
+    }
+
+    public List<String> getDriftedStudentIds() {
+        return driftedStudentIds;
+    }
+
+    public void setDriftedStudentIds(List<String> driftedStudentIds) {
+        this.driftedStudentIds = driftedStudentIds;
+    }
+
+    public boolean isRepaired() {
+        return repaired;
+    }
+
+    public void setRepaired(boolean repaired) {
+        this.repaired = repaired;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -1,5 +1,6 @@
 package com.helpdesk.strategy;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -11,12 +12,19 @@ import java.util.List;
 @Component("lenientCategoryStrategy")
 public class LenientCategoryStrategy implements CategoryStrategy {
     
+    @Autowired
+    private StrategyAuditLog auditLog;
+    
     @Override
     public String validateCategory(String categoryName) {
+        long start = System.nanoTime();
+        
         // Only check if not empty
-        return (categoryName == null || categoryName.trim().isEmpty()) 
+        String error = (categoryName == null || categoryName.trim().isEmpty()) 
             ? "Category name cannot be empty" 
             : null;
+        auditLog.record("Lenient category", "name=" + categoryName, error == null ? "PASSED" : "FAILED", error, start);
+        return error;
     }
     
     @Override
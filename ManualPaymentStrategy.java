@@ -1,35 +1,37 @@
 package com.helpdesk.strategy;
 
+import com.helpdesk.entity.PaymentTransaction;
 import com.helpdesk.entity.Ticket;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
  * Manual payment verification strategy
- * Requires staff to manually verify payments (accepts any valid amount)
+ * Requires staff to manually verify payments (accepts any valid amount that no rule rejects)
  */
 @Component("manualPaymentStrategy")
 public class ManualPaymentStrategy implements PaymentStrategy {
     
+    @Autowired
+    private StrategyAuditLog auditLog;
+    
+    @Autowired
+    private PaymentRulesEngine rulesEngine;
+    
     @Override
-    public boolean verifyPayment(Ticket ticket) {
-        System.out.println("\n  ┌" + "─".repeat(76) + "┐");
-        System.out.println("  │ 📋 MANUAL PAYMENT STRATEGY - Verification Process" + " ".repeat(24) + "│");
-        System.out.println("  ├" + "─".repeat(76) + "┤");
-        System.out.println("  │ Strategy Type: Manual Verification (Requires Staff Approval)" + " ".repeat(15) + "│");
-        System.out.println("  │ Amount: Rs. " + (ticket.getAmount() != null ? String.format("%-62s", ticket.getAmount()) : "N/A" + " ".repeat(59)) + "│");
-        System.out.println("  ├" + "─".repeat(76) + "┤");
+    public boolean verifyPayment(PaymentTransaction transaction) {
+        long start = System.nanoTime();
+        PaymentDecisionTable.Decision decision = rulesEngine.current().decide(transaction);
         
-        // Manual strategy accepts any valid amount (staff will verify)
-        if (ticket.getAmount() != null && ticket.getAmount().doubleValue() > 0) {
-            System.out.println("  │ ✅ Decision: ACCEPTED FOR MANUAL REVIEW" + " ".repeat(35) + "│");
-            System.out.println("  │ 📝 Note: Payment requires staff verification before final approval" + " ".repeat(9) + "│");
-            System.out.println("  └" + "─".repeat(76) + "┘\n");
+        // Manual strategy accepts everything that is not rejected (staff will verify)
+        if (decision.getAction() != PaymentDecisionTable.Action.REJECT) {
+            auditLog.record("Manual payment", "amount=" + transaction.getAmount(), "ACCEPTED_FOR_REVIEW",
+                    "Requires staff verification", start);
             return true;
         }
         
-        System.out.println("  │ ❌ Decision: REJECTED (Invalid Amount)" + " ".repeat(37) + "│");
-        System.out.println("  │ 📝 Reason: Amount must be greater than Rs. 0" + " ".repeat(31) + "│");
-        System.out.println("  └" + "─".repeat(76) + "┘\n");
+        auditLog.record("Manual payment", "amount=" + transaction.getAmount(), "REJECTED",
+                decision.getReason(), start);
         return false;
     }
     
@@ -44,4 +46,3 @@ public class ManualPaymentStrategy implements PaymentStrategy {
         return "Manual";
     }
 }
-
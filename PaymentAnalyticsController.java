@@ -0,0 +1,68 @@
+package com.helpdesk.controller;
+
+import com.helpdesk.dto.PaymentTimeSeriesDTO;
+import com.helpdesk.service.PaymentTimeSeries;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Payment Analytics Controller - Daily/weekly payment trends served from the in-memory time series
+ */
+@Controller
+@RequestMapping("/payment/analytics")
+public class PaymentAnalyticsController {
+
+    private static final int MAX_DAYS = 731;
+
+    @Autowired
+    private PaymentTimeSeries paymentTimeSeries;
+
+    /**
+     * Show the analytics page
+     */
+    @GetMapping
+    public String showAnalytics(HttpSession session,
+                                @RequestParam(defaultValue = "CATEGORY") PaymentTimeSeries.Dimension dimension,
+                                @RequestParam(defaultValue = "DAY") PaymentTimeSeries.Granularity granularity,
+                                @RequestParam(defaultValue = "365") int days,
+                                Model model) {
+        // Check if user is logged in
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return "redirect:/payment/login";
+        }
+
+        days = Math.max(7, Math.min(days, MAX_DAYS));
+        LocalDate to = LocalDate.now();
+        model.addAttribute("timeSeries", paymentTimeSeries.query(dimension, granularity, to.minusDays(days - 1L), to));
+        model.addAttribute("dimensions", PaymentTimeSeries.Dimension.values());
+        model.addAttribute("granularities", PaymentTimeSeries.Granularity.values());
+        model.addAttribute("days", days);
+        model.addAttribute("paymentUser", paymentUser);
+        return "payment/analytics";
+    }
+
+    /**
+     * Time series as JSON for a date range
+     */
+    @GetMapping("/series")
+    public ResponseEntity<PaymentTimeSeriesDTO> getSeries(HttpSession session,
+                                                          @RequestParam(defaultValue = "CATEGORY") PaymentTimeSeries.Dimension dimension,
+                                                          @RequestParam(defaultValue = "DAY") PaymentTimeSeries.Granularity granularity,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(paymentTimeSeries.query(dimension, granularity, from, to));
+    }
+}
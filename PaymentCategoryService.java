@@ -49,9 +49,6 @@ public class PaymentCategoryService {
             throw new RuntimeException(e.getMessage());
         }
         
-        System.out.println("[PaymentCategoryService] Category validated using " + 
-                         categoryStrategy.getStrategyName() + " strategy");
-        
         return categoryRepository.save(category);
     }
 
@@ -0,0 +1,76 @@
+package com.helpdesk.dto;
+
+/**
+ * Payment transaction totals of one category (dashboard)
+ */
+public class PaymentCategoryStatsDTO {
+
+    private Long categoryId;
+    private String categoryName;
+    private Long transactionCount = 0L;
+    private Long verifiedCount = 0L;
+    private Double totalAmount = 0.0;
+    private Double verifiedAmount = 0.0;
+
+    // Constructors
+    public PaymentCategoryStatsDTO() {}
+
+    public PaymentCategoryStatsDTO(Long categoryId, String categoryName, Long transactionCount, Long verifiedCount,
+                                   Double totalAmount, Double verifiedAmount) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.transactionCount = transactionCount;
+        this.verifiedCount = verifiedCount;
+        this.totalAmount = totalAmount;
+        this.verifiedAmount = verifiedAmount;
+    }
+
+    // Getters and Setters
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public Long getVerifiedCount() {
+        return verifiedCount;
+    }
+
+    public void setVerifiedCount(Long verifiedCount) {
+        this.verifiedCount = verifiedCount;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Double getVerifiedAmount() {
+        return verifiedAmount;
+    }
+
+    public void setVerifiedAmount(Double verifiedAmount) {
+        this.verifiedAmount = verifiedAmount;
+    }
+}
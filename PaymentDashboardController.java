@@ -10,8 +10,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.math.BigDecimal;
-
 @Controller
 @RequestMapping("/payment")
 public class PaymentDashboardController {
@@ -43,33 +41,13 @@ public class PaymentDashboardController {
     }
 
     private PaymentStatsDTO getPaymentStats() {
-        PaymentStatsDTO stats = new PaymentStatsDTO();
-
         try {
-            // Get transaction counts from PaymentTransactionService
-            stats.setPendingTickets(paymentTransactionService.getPendingCount());
-            stats.setResolvedTickets(paymentTransactionService.getVerifiedCount()); // Verified = Resolved
-            stats.setEscalatedTickets(paymentTransactionService.getEscalatedCount());
-
-            Long total = (stats.getPendingTickets() != null ? stats.getPendingTickets() : 0) +
-                    (stats.getResolvedTickets() != null ? stats.getResolvedTickets() : 0) +
-                    (stats.getEscalatedTickets() != null ? stats.getEscalatedTickets() : 0);
-            stats.setTotalTickets(total);
-
-            // Get total verified amount from PaymentTransactionService
-            BigDecimal verifiedAmount = paymentTransactionService.getTotalVerifiedAmount();
-            stats.setTotalVerifiedAmount(verifiedAmount != null ? verifiedAmount.doubleValue() : 0.0);
-
+            // Served from the in-memory snapshot - no queries once it is loaded
+            return paymentTransactionService.getPaymentStats();
         } catch (Exception e) {
-            // Set default values if there's an error
-            stats.setPendingTickets(0L);
-            stats.setResolvedTickets(0L);
-            stats.setEscalatedTickets(0L);
-            stats.setTotalTickets(0L);
-            stats.setTotalVerifiedAmount(0.0);
+            // Default values if there's an error
+            return new PaymentStatsDTO();
         }
-
-        return stats;
     }
 
     @GetMapping("")
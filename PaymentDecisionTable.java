@@ -0,0 +1,211 @@
+package com.helpdesk.strategy;
+
+import com.helpdesk.entity.PaymentTransaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiled, immutable form of PaymentRules
+ * Method rules are an array indexed by PaymentMethod ordinal, amount bands and category thresholds
+ * are sorted arrays searched by bisection. decide() only reads these arrays and returns one of the
+ * Decision constants, so evaluating a payment allocates nothing. A new table is compiled for every
+ * rules change and published by PaymentRulesEngine.
+ */
+public final class PaymentDecisionTable {
+
+    public enum Action {
+        APPROVE, REVIEW, REJECT
+    }
+
+    /**
+     * Result of evaluating a payment, with the rule that decided it
+     */
+    public enum Decision {
+        REJECTED_INVALID_AMOUNT(Action.REJECT, "Amount must be greater than Rs. 0"),
+        REJECTED_BY_METHOD(Action.REJECT, "Payment method is rejected"),
+        REJECTED_BY_AMOUNT_BAND(Action.REJECT, "Amount band is rejected"),
+        REVIEW_BY_METHOD(Action.REVIEW, "Payment method requires review"),
+        REVIEW_BY_AMOUNT_BAND(Action.REVIEW, "Amount band requires review"),
+        REVIEW_BELOW_THRESHOLD(Action.REVIEW, "Amount not above auto-approve threshold"),
+        APPROVED_ABOVE_THRESHOLD(Action.APPROVE, "Amount above auto-approve threshold");
+
+        private final Action action;
+        private final String reason;
+
+        Decision(Action action, String reason) {
+            this.action = action;
+            this.reason = reason;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    private static final PaymentRules.RuleAction[] NO_METHOD_RULES = new PaymentRules.RuleAction[0];
+
+    private final PaymentRules rules;
+    private final boolean automated;
+    private final boolean strictCategories;
+    private final BigDecimal defaultThreshold;
+    private final long[] categoryIds;
+    private final BigDecimal[] categoryThresholds;
+    private final PaymentRules.RuleAction[] methodActions;
+    private final BigDecimal[] bandFrom;
+    private final BigDecimal[] bandTo;
+    private final PaymentRules.RuleAction[] bandActions;
+
+    private PaymentDecisionTable(PaymentRules rules) {
+        this.rules = rules;
+        this.automated = "automated".equalsIgnoreCase(rules.getPaymentStrategy());
+        this.strictCategories = !"lenient".equalsIgnoreCase(rules.getCategoryStrategy());
+
+        if (rules.getAutoApproveThreshold() == null || rules.getAutoApproveThreshold().signum() < 0) {
+            throw new IllegalArgumentException("Auto-approve threshold must be zero or more");
+        }
+        this.defaultThreshold = rules.getAutoApproveThreshold();
+
+        TreeMap<Long, BigDecimal> thresholds = new TreeMap<>(rules.getCategoryThresholds());
+        this.categoryIds = new long[thresholds.size()];
+        this.categoryThresholds = new BigDecimal[thresholds.size()];
+        int i = 0;
+        for (Map.Entry<Long, BigDecimal> entry : thresholds.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().signum() < 0) {
+                throw new IllegalArgumentException("Threshold of category " + entry.getKey() + " must be zero or more");
+            }
+            categoryIds[i] = entry.getKey();
+            categoryThresholds[i++] = entry.getValue();
+        }
+
+        if (rules.getMethodRules().isEmpty()) {
+            this.methodActions = NO_METHOD_RULES;
+        } else {
+            this.methodActions = new PaymentRules.RuleAction[PaymentTransaction.PaymentMethod.values().length];
+            rules.getMethodRules().forEach((method, action) -> methodActions[method.ordinal()] = action);
+        }
+
+        List<PaymentRules.AmountBand> bands = new ArrayList<>(rules.getAmountBands());
+        bands.sort(Comparator.comparing(PaymentRules.AmountBand::getFrom));
+        this.bandFrom = new BigDecimal[bands.size()];
+        this.bandTo = new BigDecimal[bands.size()];
+        this.bandActions = new PaymentRules.RuleAction[bands.size()];
+        for (i = 0; i < bands.size(); i++) {
+            PaymentRules.AmountBand band = bands.get(i);
+            if (band.getTo() != null && band.getTo().compareTo(band.getFrom()) <= 0) {
+                throw new IllegalArgumentException("Amount band " + band + " is empty");
+            }
+            if (i > 0 && (bandTo[i - 1] == null || bandTo[i - 1].compareTo(band.getFrom()) > 0)) {
+                throw new IllegalArgumentException("Amount band " + band + " overlaps " + bands.get(i - 1));
+            }
+            bandFrom[i] = band.getFrom();
+            bandTo[i] = band.getTo();
+            bandActions[i] = band.getAction();
+        }
+    }
+
+    /**
+     * Validate and compile a rule set (the rules are copied)
+     * @throws IllegalArgumentException if the rules are inconsistent
+     */
+    public static PaymentDecisionTable compile(PaymentRules rules) {
+        return new PaymentDecisionTable(rules.copy());
+    }
+
+    /**
+     * Evaluate one payment against the table
+     * Order: invalid amount, method rule, amount band, then the category (or default) threshold
+     */
+    public Decision decide(BigDecimal amount, PaymentTransaction.PaymentMethod method, Long categoryId) {
+        if (amount == null || amount.signum() <= 0) {
+            return Decision.REJECTED_INVALID_AMOUNT;
+        }
+
+        PaymentRules.RuleAction methodAction = method != null && methodActions.length > 0
+                ? methodActions[method.ordinal()] : null;
+        if (methodAction == PaymentRules.RuleAction.REJECT) {
+            return Decision.REJECTED_BY_METHOD;
+        }
+
+        PaymentRules.RuleAction bandAction = bandActionOf(amount);
+        if (bandAction == PaymentRules.RuleAction.REJECT) {
+            return Decision.REJECTED_BY_AMOUNT_BAND;
+        }
+        if (methodAction == PaymentRules.RuleAction.REVIEW) {
+            return Decision.REVIEW_BY_METHOD;
+        }
+        if (bandAction == PaymentRules.RuleAction.REVIEW) {
+            return Decision.REVIEW_BY_AMOUNT_BAND;
+        }
+
+        return amount.compareTo(thresholdOf(categoryId)) > 0
+                ? Decision.APPROVED_ABOVE_THRESHOLD : Decision.REVIEW_BELOW_THRESHOLD;
+    }
+
+    public Decision decide(PaymentTransaction transaction) {
+        return decide(transaction.getAmount(), transaction.getPaymentMethod(),
+                transaction.getCategory() != null ? transaction.getCategory().getId() : null);
+    }
+
+    // Action of the band containing the amount (null = no band)
+    private PaymentRules.RuleAction bandActionOf(BigDecimal amount) {
+        int low = 0;
+        int high = bandFrom.length - 1;
+        int match = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (bandFrom[mid].compareTo(amount) <= 0) {
+                match = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (match < 0 || (bandTo[match] != null && amount.compareTo(bandTo[match]) >= 0)) {
+            return null;
+        }
+        return bandActions[match];
+    }
+
+    private BigDecimal thresholdOf(Long categoryId) {
+        if (categoryId != null) {
+            int low = 0;
+            int high = categoryIds.length - 1;
+            long id = categoryId;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (categoryIds[mid] < id) {
+                    low = mid + 1;
+                } else if (categoryIds[mid] > id) {
+                    high = mid - 1;
+                } else {
+                    return categoryThresholds[mid];
+                }
+            }
+        }
+        return defaultThreshold;
+    }
+
+    /**
+     * Copy of the rules this table was compiled from
+     */
+    public PaymentRules getRules() {
+        return rules.copy();
+    }
+
+    public boolean isAutomated() {
+        return automated;
+    }
+
+    public boolean isStrictCategories() {
+        return strictCategories;
+    }
+}
@@ -0,0 +1,165 @@
+package com.helpdesk.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One append-only payment ledger entry: the change one transaction write made to a student's totals
+ * Entries are never updated; drift repairs are appended as CORRECTION entries.
+ */
+@Entity
+@Table(name = "payment_ledger_entries", indexes = {
+        @Index(name = "idx_payment_ledger_student", columnList = "student_id"),
+        @Index(name = "idx_payment_ledger_transaction", columnList = "transaction_id")
+})
+public class PaymentLedgerEntry {
+
+    public enum EntryType {
+        CREATED, UPDATED, DELETED, CORRECTION
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private EntryType entryType;
+
+    // Null for corrections
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "student_id", nullable = false, length = 50)
+    private String studentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 20)
+    private PaymentTransaction.Status fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", length = 20)
+    private PaymentTransaction.Status toStatus;
+
+    @Column(name = "count_delta", nullable = false)
+    private long countDelta;
+
+    @Column(name = "amount_delta", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amountDelta = BigDecimal.ZERO;
+
+    // Change of the verified (paid) amount
+    @Column(name = "paid_delta", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paidDelta = BigDecimal.ZERO;
+
+    // Change of the amount in PENDING status
+    @Column(name = "pending_delta", nullable = false, precision = 14, scale = 2)
+    private BigDecimal pendingDelta = BigDecimal.ZERO;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public PaymentLedgerEntry() {}
+
+    public PaymentLedgerEntry(EntryType entryType, Long transactionId, String studentId) {
+        this.entryType = entryType;
+        this.transactionId = transactionId;
+        this.studentId = studentId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Whether the entry changes nothing (e.g. a description edit)
+     */
+    public boolean isEmpty() {
+        return countDelta == 0 && amountDelta.signum() == 0 && paidDelta.signum() == 0
+                && pendingDelta.signum() == 0 && fromStatus == toStatus;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public EntryType getEntryType() {
+        return entryType;
+    }
+
+    public void setEntryType(EntryType entryType) {
+        this.entryType = entryType;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public PaymentTransaction.Status getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(PaymentTransaction.Status fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public PaymentTransaction.Status getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(PaymentTransaction.Status toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public long getCountDelta() {
+        return countDelta;
+    }
+
+    public void setCountDelta(long countDelta) {
+        this.countDelta = countDelta;
+    }
+
+    public BigDecimal getAmountDelta() {
+        return amountDelta;
+    }
+
+    public void setAmountDelta(BigDecimal amountDelta) {
+        this.amountDelta = amountDelta;
+    }
+
+    public BigDecimal getPaidDelta() {
+        return paidDelta;
+    }
+
+    public void setPaidDelta(BigDecimal paidDelta) {
+        this.paidDelta = paidDelta;
+    }
+
+    public BigDecimal getPendingDelta() {
+        return pendingDelta;
+    }
+
+    public void setPendingDelta(BigDecimal pendingDelta) {
+        this.pendingDelta = pendingDelta;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
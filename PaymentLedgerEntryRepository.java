@@ -0,0 +1,14 @@
+package com.helpdesk.repository;
+
+import com.helpdesk.entity.PaymentLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PaymentLedgerEntryRepository extends JpaRepository<PaymentLedgerEntry, Long> {
+
+    List<PaymentLedgerEntry> findByStudentIdOrderByIdDesc(String studentId, Pageable pageable);
+}
@@ -0,0 +1,343 @@
+package com.helpdesk.service;
+
+import com.helpdesk.dto.LedgerVerificationDTO;
+import com.helpdesk.entity.PaymentLedgerEntry;
+import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.entity.StudentPaymentBalance;
+import com.helpdesk.repository.PaymentLedgerEntryRepository;
+import com.helpdesk.repository.PaymentTransactionRepository;
+import com.helpdesk.repository.StudentPaymentBalanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Append-only payment ledger with running per-student and global totals
+ * Every PaymentTransaction write appends an entry with its count/amount/paid/pending deltas.
+ * The entries of one database transaction are added to the balance rows just before it commits,
+ * as one atomic increment per student (in student id order, so writers never deadlock), so a
+ * student's balance and the global totals are single-row lookups. A verifier recomputes the
+ * totals from the transactions and reports (and by default repairs) any drift with correction
+ * entries; the first run after deployment backfills the balances this way.
+ */
+@Service
+public class PaymentLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentLedgerService.class);
+
+    /**
+     * Balance row holding the totals over all students
+     */
+    public static final String GLOBAL_KEY = "*";
+
+    private static final String PENDING_ENTRIES_KEY = PaymentLedgerService.class.getName() + ".pendingEntries";
+    private static final int MAX_REPORTED_DRIFTS = 50;
+
+    @Autowired
+    private PaymentLedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private StudentPaymentBalanceRepository balanceRepository;
+
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    // Append correction entries for drifted balances (otherwise drift is only reported)
+    @Value("${payment.ledger.verify.repair:true}")
+    private boolean repairDrift;
+
+    private volatile LedgerVerificationDTO lastVerification;
+
+    /**
+     * Record a change of one transaction (before = null for inserts, after = null for deletes)
+     * Inside a transaction the entries are written just before commit, together with the
+     * balance updates of everything else the transaction changed.
+     */
+    public void record(PaymentStatsSnapshot.Facts before, PaymentStatsSnapshot.Facts after) {
+        List<PaymentLedgerEntry> entries = toEntries(before, after);
+        if (!entries.isEmpty()) {
+            TransactionChangeBuffer.beforeCommit(PENDING_ENTRIES_KEY, entries, this::apply);
+        }
+    }
+
+    /**
+     * Running totals of one student (zero totals if the student has no transactions)
+     */
+    public StudentPaymentBalance getBalance(String studentId) {
+        return balanceRepository.findById(normalizeStudentId(studentId))
+                .orElseGet(() -> new StudentPaymentBalance(studentId));
+    }
+
+    /**
+     * Running totals over all students
+     */
+    public StudentPaymentBalance getGlobalTotals() {
+        return balanceRepository.findById(GLOBAL_KEY).orElseGet(() -> new StudentPaymentBalance(GLOBAL_KEY));
+    }
+
+    /**
+     * Latest ledger entries of a student
+     */
+    public List<PaymentLedgerEntry> getRecentEntries(String studentId, int limit) {
+        return ledgerEntryRepository.findByStudentIdOrderByIdDesc(normalizeStudentId(studentId),
+                PageRequest.of(0, limit));
+    }
+
+    public LedgerVerificationDTO getLastVerification() {
+        return lastVerification;
+    }
+
+    /**
+     * Backfill the balances on first start (no balance rows yet, but transactions exist)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeBalances() {
+        if (balanceRepository.count() == 0 && paymentTransactionRepository.count() > 0) {
+            logger.info("Payment ledger balances are empty - building them from the transactions");
+            verify(true);
+        }
+    }
+
+    /**
+     * Recompute all totals from the transactions and compare them with the running totals
+     * Runs in one transaction, so both sides are read from the same snapshot.
+     */
+    @Scheduled(cron = "${payment.ledger.verify.cron:0 30 2 * * *}")
+    @Transactional
+    public void verifyTotals() {
+        verify(repairDrift);
+    }
+
+    private void verify(boolean repair) {
+        long started = System.currentTimeMillis();
+
+        Map<String, Totals> expected = new HashMap<>();
+        Totals global = new Totals();
+        for (Object[] row : paymentTransactionRepository.getLedgerTotalsByStudent()) {
+            Totals totals = new Totals();
+            totals.count = ((Number) row[1]).longValue();
+            totals.amount = toBigDecimal(row[2]);
+            totals.paid = toBigDecimal(row[3]);
+            totals.pending = toBigDecimal(row[4]);
+            expected.merge(normalizeStudentId((String) row[0]), totals, Totals::plus);
+            global = global.plus(totals);
+        }
+        expected.put(GLOBAL_KEY, global);
+
+        Map<String, Totals> actual = new HashMap<>();
+        for (StudentPaymentBalance balance : balanceRepository.findAll()) {
+            actual.put(balance.getStudentId(), Totals.of(balance));
+        }
+
+        Set<String> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        List<PaymentLedgerEntry> corrections = new ArrayList<>();
+        List<String> drifted = new ArrayList<>();
+        long driftCount = 0;
+        for (String key : keys) {
+            Totals expectedTotals = expected.getOrDefault(key, new Totals());
+            Totals actualTotals = actual.getOrDefault(key, new Totals());
+            if (expectedTotals.sameAs(actualTotals)) {
+                continue;
+            }
+            driftCount++;
+            if (drifted.size() < MAX_REPORTED_DRIFTS) {
+                drifted.add(key);
+            }
+            if (!GLOBAL_KEY.equals(key)) {
+                PaymentLedgerEntry correction = new PaymentLedgerEntry(PaymentLedgerEntry.EntryType.CORRECTION, null, key);
+                correction.setCountDelta(expectedTotals.count - actualTotals.count);
+                correction.setAmountDelta(expectedTotals.amount.subtract(actualTotals.amount));
+                correction.setPaidDelta(expectedTotals.paid.subtract(actualTotals.paid));
+                correction.setPendingDelta(expectedTotals.pending.subtract(actualTotals.pending));
+                corrections.add(correction);
+            }
+        }
+
+        if (driftCount > 0) {
+            logger.warn("Payment ledger drift in {} balance(s): {}{}", driftCount, drifted,
+                    repair ? " - appending corrections" : "");
+            if (repair) {
+                // Student corrections also fix the global row; its own drift (if any) is corrected here
+                Totals globalAfterCorrections = actual.getOrDefault(GLOBAL_KEY, new Totals());
+                for (PaymentLedgerEntry correction : corrections) {
+                    globalAfterCorrections = globalAfterCorrections.plus(Totals.of(correction));
+                }
+                Totals globalExpected = expected.get(GLOBAL_KEY);
+                if (!globalExpected.sameAs(globalAfterCorrections)) {
+                    Totals delta = globalExpected.minus(globalAfterCorrections);
+                    PaymentLedgerEntry correction = new PaymentLedgerEntry(PaymentLedgerEntry.EntryType.CORRECTION,
+                            null, GLOBAL_KEY);
+                    correction.setCountDelta(delta.count);
+                    correction.setAmountDelta(delta.amount);
+                    correction.setPaidDelta(delta.paid);
+                    correction.setPendingDelta(delta.pending);
+                    ledgerEntryRepository.save(correction);
+                    balanceRepository.addToBalance(GLOBAL_KEY, delta.count, delta.amount, delta.paid, delta.pending,
+                            LocalDateTime.now());
+                }
+                apply(corrections);
+            }
+        }
+
+        lastVerification = new LedgerVerificationDTO(LocalDateTime.now(), keys.size(), driftCount, drifted,
+                repair && driftCount > 0, System.currentTimeMillis() - started);
+    }
+
+    // Write the entries and add them to the student and global balances
+    private void apply(List<PaymentLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ledgerEntryRepository.saveAll(entries);
+
+        // Sorted by student id: every writer locks balance rows in the same order
+        Map<String, Totals> deltas = new TreeMap<>();
+        Totals global = new Totals();
+        for (PaymentLedgerEntry entry : entries) {
+            Totals delta = Totals.of(entry);
+            deltas.merge(entry.getStudentId(), delta, Totals::plus);
+            global = global.plus(delta);
+        }
+        deltas.put(GLOBAL_KEY, global);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<String, Totals> delta : deltas.entrySet()) {
+            Totals totals = delta.getValue();
+            if (!totals.isZero()) {
+                balanceRepository.addToBalance(delta.getKey(), totals.count, totals.amount, totals.paid,
+                        totals.pending, now);
+            }
+        }
+    }
+
+    private List<PaymentLedgerEntry> toEntries(PaymentStatsSnapshot.Facts before, PaymentStatsSnapshot.Facts after) {
+        List<PaymentLedgerEntry> entries = new ArrayList<>(2);
+        if (before == null && after == null) {
+            return entries;
+        }
+        if (before != null && after != null && !Objects.equals(normalizeStudentId(before.getStudentId()),
+                normalizeStudentId(after.getStudentId()))) {
+            // Moved to another student: off the old balance, onto the new one
+            entries.add(entry(PaymentLedgerEntry.EntryType.UPDATED, before, null));
+            entries.add(entry(PaymentLedgerEntry.EntryType.UPDATED, null, after));
+        } else {
+            PaymentLedgerEntry.EntryType type = before == null ? PaymentLedgerEntry.EntryType.CREATED
+                    : after == null ? PaymentLedgerEntry.EntryType.DELETED : PaymentLedgerEntry.EntryType.UPDATED;
+            entries.add(entry(type, before, after));
+        }
+        entries.removeIf(PaymentLedgerEntry::isEmpty);
+        return entries;
+    }
+
+    private PaymentLedgerEntry entry(PaymentLedgerEntry.EntryType type, PaymentStatsSnapshot.Facts before,
+                                     PaymentStatsSnapshot.Facts after) {
+        PaymentStatsSnapshot.Facts facts = after != null ? after : before;
+        PaymentLedgerEntry entry = new PaymentLedgerEntry(type, facts.getTransactionId(),
+                normalizeStudentId(facts.getStudentId()));
+        entry.setFromStatus(before != null ? before.getStatus() : null);
+        entry.setToStatus(after != null ? after.getStatus() : null);
+        Totals delta = Totals.of(after).minus(Totals.of(before));
+        entry.setCountDelta(delta.count);
+        entry.setAmountDelta(delta.amount);
+        entry.setPaidDelta(delta.paid);
+        entry.setPendingDelta(delta.pending);
+        return entry;
+    }
+
+    private static String normalizeStudentId(String studentId) {
+        return studentId != null && !studentId.trim().isEmpty() ? studentId.trim() : "";
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+
+    /**
+     * Count and amounts of one balance (or one delta)
+     */
+    private static final class Totals {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private BigDecimal paid = BigDecimal.ZERO;
+        private BigDecimal pending = BigDecimal.ZERO;
+
+        static Totals of(PaymentStatsSnapshot.Facts facts) {
+            Totals totals = new Totals();
+            if (facts != null) {
+                BigDecimal amount = facts.getAmount() != null ? facts.getAmount() : BigDecimal.ZERO;
+                totals.count = 1;
+                totals.amount = amount;
+                totals.paid = facts.isVerified() ? amount : BigDecimal.ZERO;
+                totals.pending = facts.getStatus() == PaymentTransaction.Status.PENDING ? amount : BigDecimal.ZERO;
+            }
+            return totals;
+        }
+
+        static Totals of(PaymentLedgerEntry entry) {
+            Totals totals = new Totals();
+            totals.count = entry.getCountDelta();
+            totals.amount = entry.getAmountDelta();
+            totals.paid = entry.getPaidDelta();
+            totals.pending = entry.getPendingDelta();
+            return totals;
+        }
+
+        static Totals of(StudentPaymentBalance balance) {
+            Totals totals = new Totals();
+            totals.count = balance.getTransactionCount();
+            totals.amount = balance.getTotalAmount();
+            totals.paid = balance.getPaidAmount();
+            totals.pending = balance.getPendingAmount();
+            return totals;
+        }
+
+        Totals plus(Totals other) {
+            Totals sum = new Totals();
+            sum.count = count + other.count;
+            sum.amount = amount.add(other.amount);
+            sum.paid = paid.add(other.paid);
+            sum.pending = pending.add(other.pending);
+            return sum;
+        }
+
+        Totals minus(Totals other) {
+            Totals difference = new Totals();
+            difference.count = count - other.count;
+            difference.amount = amount.subtract(other.amount);
+            difference.paid = paid.subtract(other.paid);
+            difference.pending = pending.subtract(other.pending);
+            return difference;
+        }
+
+        boolean isZero() {
+            return count == 0 && amount.signum() == 0 && paid.signum() == 0 && pending.signum() == 0;
+        }
+
+        boolean sameAs(Totals other) {
+            return minus(other).isZero();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.helpdesk.controller;
+
+import com.helpdesk.dto.ReconciliationResultDTO;
+import com.helpdesk.service.PaymentReconciliationService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Payment Reconciliation Controller - Matches uploaded bank statements against pending transactions
+ */
+@Controller
+@RequestMapping("/payment/reconciliation")
+public class PaymentReconciliationController {
+
+    @Autowired
+    private PaymentReconciliationService paymentReconciliationService;
+
+    /**
+     * Show the upload form and, after an upload, its result
+     */
+    @GetMapping
+    public String showReconciliationPage(HttpSession session,
+                                         @RequestParam(required = false) String resultId,
+                                         Model model) {
+        // Check if user is logged in
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return "redirect:/payment/login";
+        }
+
+        if (resultId != null) {
+            paymentReconciliationService.getResult(resultId)
+                    .ifPresent(result -> model.addAttribute("result", result));
+        }
+        model.addAttribute("paymentUser", paymentUser);
+        return "payment/reconciliation";
+    }
+
+    /**
+     * Upload a bank statement CSV and reconcile it
+     */
+    @PostMapping
+    public String reconcileStatement(HttpSession session,
+                                     @RequestParam("statement") MultipartFile statement,
+                                     RedirectAttributes redirectAttributes) {
+        // Check if user is logged in
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return "redirect:/payment/login";
+        }
+
+        if (statement == null || statement.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Select a bank statement CSV to upload");
+            return "redirect:/payment/reconciliation";
+        }
+
+        try (InputStream inputStream = statement.getInputStream()) {
+            ReconciliationResultDTO result = paymentReconciliationService.reconcile(
+                    inputStream, statement.getOriginalFilename(), paymentUser);
+            redirectAttributes.addFlashAttribute("successMessage", "Statement reconciled: "
+                    + result.getVerifiedCount() + " transaction(s) verified, "
+                    + result.getExceptions().size() + " exception(s)");
+            redirectAttributes.addAttribute("resultId", result.getId());
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Error reconciling statement: " + e.getMessage());
+        }
+        return "redirect:/payment/reconciliation";
+    }
+
+    /**
+     * Download the exceptions report of a reconciliation as CSV
+     */
+    @GetMapping("/{id}/exceptions.csv")
+    public void downloadExceptions(@PathVariable String id,
+                                   HttpSession session,
+                                   HttpServletResponse response) throws IOException {
+        // Check if user is logged in
+        if (session.getAttribute("paymentUser") == null) {
+            response.sendRedirect("/payment/login");
+            return;
+        }
+
+        Optional<ReconciliationResultDTO> result = paymentReconciliationService.getResult(id);
+        if (result.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Reconciliation result has expired");
+            return;
+        }
+
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"reconciliation_exceptions_" + id + ".csv\"");
+        Writer writer = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        paymentReconciliationService.writeExceptionsCsv(result.get(), writer);
+        writer.flush();
+    }
+}
@@ -0,0 +1,647 @@
+package com.helpdesk.service;
+
+import com.helpdesk.dto.BatchVerifyResultDTO;
+import com.helpdesk.dto.ReconciliationExceptionDTO;
+import com.helpdesk.dto.ReconciliationResultDTO;
+import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.repository.PaymentTransactionRepository;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Bank statement reconciliation
+ * Pending transactions are loaded once (matching columns only) into hash indexes by reference
+ * number, student ID and amount. The statement CSV is parsed as a stream and handed to matcher
+ * threads in batches; each line is matched exactly (reference + amount) or fuzzily (amount and
+ * date within the configured tolerances). Matches are then assigned in statement order, exact
+ * matches first, so a transaction is never claimed by two lines. Exact matches are auto-verified
+ * through the active payment strategy in batches; everything else ends up in the exceptions report.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"), DateTimeFormatter.ofPattern("yyyy/MM/dd"),
+            DateTimeFormatter.ofPattern("dd.MM.yyyy")
+    };
+
+    // Accepted statement headers (lower case, without spaces, underscores and dots)
+    private static final List<String> DATE_HEADERS = List.of("date", "valuedate", "transactiondate", "postingdate", "posteddate");
+    private static final List<String> REFERENCE_HEADERS = List.of("reference", "referencenumber", "referenceno", "ref", "bankreference");
+    private static final List<String> AMOUNT_HEADERS = List.of("amount", "credit", "creditamount", "value");
+    private static final List<String> STUDENT_HEADERS = List.of("studentid", "student", "payerid");
+    // Plain decimal with optional thousands commas; "(100)" or "1.234,50" are rejected, not guessed
+    private static final Pattern AMOUNT_PATTERN = Pattern.compile("[+-]?(\\d{1,3}(,\\d{3})+|\\d+)(\\.\\d+)?");
+
+    private enum MatchType {
+        EXACT, FUZZY, AMBIGUOUS, AMOUNT_MISMATCH, UNMATCHED
+    }
+
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    @Autowired
+    private PaymentTransactionService paymentTransactionService;
+
+    @Value("${payment.reconciliation.amount-tolerance:1.00}")
+    private BigDecimal amountTolerance;
+
+    @Value("${payment.reconciliation.date-tolerance-days:3}")
+    private int dateToleranceDays;
+
+    // Fuzzy matches are only suggested unless this is enabled
+    @Value("${payment.reconciliation.auto-verify-fuzzy:false}")
+    private boolean autoVerifyFuzzy;
+
+    @Value("${payment.reconciliation.batch-size:2048}")
+    private int batchSize;
+
+    // 0 = one matcher per available core
+    @Value("${payment.reconciliation.parallelism:0}")
+    private int parallelism;
+
+    @Value("${payment.reconciliation.retained-results:10}")
+    private int retainedResults;
+
+    // Auto-verify chunks use the batch verification limit
+    @Value("${payment.verify.batch.max-size:500}")
+    private int verifyChunkSize;
+
+    private ThreadPoolExecutor matcherPool;
+
+    // Latest results by id, oldest first (guarded by itself)
+    private final Map<String, ReconciliationResultDTO> results = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        matcherPool = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-reconcile-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matcherPool.shutdownNow();
+    }
+
+    /**
+     * Reconcile one bank statement CSV against the pending transactions
+     * The CSV needs a header row with an amount column and a reference and/or student ID column;
+     * a date column enables date-based fuzzy matching.
+     */
+    public ReconciliationResultDTO reconcile(InputStream statement, String fileName, String reconciledBy)
+            throws IOException {
+        long started = System.nanoTime();
+        PendingIndex index = buildIndex();
+
+        List<ReconciliationExceptionDTO> exceptions = new ArrayList<>();
+        List<Future<List<LineMatch>>> batches = new ArrayList<>();
+        long totalLines = 0;
+        try (CSVReader csvReader = new CSVReader(new BufferedReader(
+                new InputStreamReader(statement, StandardCharsets.UTF_8)))) {
+            String[] header = csvReader.readNext();
+            if (header == null) {
+                throw new RuntimeException("The statement is empty");
+            }
+            Columns columns = new Columns(header);
+
+            List<StatementLine> batch = new ArrayList<>(batchSize);
+            String[] row;
+            while ((row = csvReader.readNext()) != null) {
+                if (isBlank(row)) {
+                    continue;
+                }
+                totalLines++;
+                long lineNumber = csvReader.getLinesRead();
+                try {
+                    batch.add(columns.parse(lineNumber, row));
+                } catch (RuntimeException e) {
+                    exceptions.add(new ReconciliationExceptionDTO(lineNumber, null, columns.value(row, columns.reference),
+                            null, columns.value(row, columns.studentId), ReconciliationExceptionDTO.Reason.INVALID_LINE,
+                            null, e.getMessage()));
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    batches.add(submit(batch, index));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(submit(batch, index));
+            }
+        } catch (CsvValidationException e) {
+            batches.forEach(future -> future.cancel(true));
+            throw new IOException("Invalid statement CSV at line " + e.getLineNumber() + ": " + e.getMessage(), e);
+        }
+
+        List<LineMatch> matches = new ArrayList<>((int) totalLines);
+        try {
+            for (Future<List<LineMatch>> future : batches) {
+                matches.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reconciling statement", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error matching statement lines: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            batches.forEach(future -> future.cancel(true));
+        }
+
+        ReconciliationResultDTO result = new ReconciliationResultDTO();
+        Map<Long, LineMatch> toVerify = assign(matches, exceptions, result);
+        result.setVerifiedCount(autoVerify(toVerify, reconciledBy, exceptions));
+
+        exceptions.sort(Comparator.comparingLong(ReconciliationExceptionDTO::getLineNumber));
+        result.setId(UUID.randomUUID().toString());
+        result.setFileName(fileName);
+        result.setReconciledBy(reconciledBy);
+        result.setReconciledAt(LocalDateTime.now());
+        result.setTotalLines(totalLines);
+        result.setExceptions(exceptions);
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        retain(result);
+
+        logger.info("Reconciled statement {} ({} lines): {} exact, {} fuzzy, {} verified, {} exceptions in {} ms",
+                fileName, totalLines, result.getExactMatches(), result.getFuzzyMatches(), result.getVerifiedCount(),
+                exceptions.size(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * A recent reconciliation result
+     */
+    public Optional<ReconciliationResultDTO> getResult(String id) {
+        synchronized (results) {
+            return Optional.ofNullable(results.get(id));
+        }
+    }
+
+    /**
+     * Write the exceptions report of a result as CSV
+     */
+    public void writeExceptionsCsv(ReconciliationResultDTO result, Writer writer) throws IOException {
+        CSVWriter csvWriter = new CSVWriter(writer);
+        csvWriter.writeNext(new String[]{"Line", "Date", "Reference", "Amount", "Student ID", "Reason",
+                "Transaction ID", "Detail"});
+        for (ReconciliationExceptionDTO exception : result.getExceptions()) {
+            csvWriter.writeNext(new String[]{
+                    String.valueOf(exception.getLineNumber()),
+                    exception.getDate() != null ? exception.getDate().toString() : "",
+                    exception.getReference() != null ? exception.getReference() : "",
+                    exception.getAmount() != null ? exception.getAmount().toPlainString() : "",
+                    exception.getStudentId() != null ? exception.getStudentId() : "",
+                    exception.getReason().name(),
+                    exception.getTransactionId() != null ? exception.getTransactionId().toString() : "",
+                    exception.getDetail() != null ? exception.getDetail() : ""
+            });
+        }
+        csvWriter.flush();
+    }
+
+    private PendingIndex buildIndex() {
+        PendingIndex index = new PendingIndex();
+        for (Object[] row : paymentTransactionRepository.findMatchFieldsByStatus(PaymentTransaction.Status.PENDING)) {
+            BigDecimal amount = (BigDecimal) row[2];
+            if (amount == null) {
+                continue;
+            }
+            LocalDateTime createdAt = (LocalDateTime) row[4];
+            Candidate candidate = new Candidate((Long) row[0], amount, normalizeId((String) row[3]),
+                    createdAt != null ? createdAt.toLocalDate() : null);
+            String reference = normalizeReference((String) row[1]);
+            if (reference != null) {
+                index.byReference.computeIfAbsent(reference, key -> new ArrayList<>(1)).add(candidate);
+            }
+            if (candidate.studentId != null) {
+                index.byStudentId.computeIfAbsent(candidate.studentId, key -> new ArrayList<>(2)).add(candidate);
+            }
+            index.byAmount.computeIfAbsent(toCents(amount), key -> new ArrayList<>(2)).add(candidate);
+        }
+        return index;
+    }
+
+    private Future<List<LineMatch>> submit(List<StatementLine> lines, PendingIndex index) {
+        return matcherPool.submit(() -> {
+            List<LineMatch> matches = new ArrayList<>(lines.size());
+            for (StatementLine line : lines) {
+                matches.add(match(line, index));
+            }
+            return matches;
+        });
+    }
+
+    // Runs on the matcher threads - the index is only read
+    private LineMatch match(StatementLine line, PendingIndex index) {
+        // 1. Reference number: exact amount, else the closest amount within the tolerance
+        String reference = normalizeReference(line.reference);
+        List<Candidate> byReference = reference != null ? index.byReference.get(reference) : null;
+        if (byReference != null) {
+            List<Candidate> exact = new ArrayList<>(1);
+            for (Candidate candidate : byReference) {
+                if (sameStudent(line, candidate) && candidate.amount.compareTo(line.amount) == 0) {
+                    exact.add(candidate);
+                }
+            }
+            if (exact.size() == 1) {
+                return new LineMatch(line, MatchType.EXACT, exact.get(0).id, null);
+            }
+            if (exact.size() > 1) {
+                return new LineMatch(line, MatchType.AMBIGUOUS, null,
+                        exact.size() + " pending transactions with this reference and amount");
+            }
+            LineMatch fuzzy = closest(line, byReference, false);
+            if (fuzzy != null) {
+                return fuzzy;
+            }
+            Candidate first = byReference.get(0);
+            return new LineMatch(line, MatchType.AMOUNT_MISMATCH, first.id,
+                    "Reference matches a pending transaction of Rs. " + first.amount.toPlainString());
+        }
+
+        // 2. Student ID: amount and date within the tolerances
+        List<Candidate> byStudent = line.studentId != null ? index.byStudentId.get(line.studentId) : null;
+        if (byStudent != null) {
+            LineMatch fuzzy = closest(line, byStudent, true);
+            if (fuzzy != null) {
+                return fuzzy;
+            }
+        }
+
+        // 3. Same amount on (about) the same date
+        List<Candidate> byAmount = line.date != null ? index.byAmount.get(toCents(line.amount)) : null;
+        if (byAmount != null) {
+            LineMatch fuzzy = closest(line, byAmount, true);
+            if (fuzzy != null) {
+                return fuzzy;
+            }
+        }
+
+        return new LineMatch(line, MatchType.UNMATCHED, null, null);
+    }
+
+    // Best candidate by amount difference, then date difference; null if none is within the tolerances
+    private LineMatch closest(StatementLine line, List<Candidate> candidates, boolean checkDate) {
+        Candidate best = null;
+        BigDecimal bestAmountDiff = null;
+        long bestDayDiff = Long.MAX_VALUE;
+        int ties = 0;
+        for (Candidate candidate : candidates) {
+            if (!sameStudent(line, candidate)) {
+                continue;
+            }
+            BigDecimal amountDiff = candidate.amount.subtract(line.amount).abs();
+            if (amountDiff.compareTo(amountTolerance) > 0) {
+                continue;
+            }
+            long dayDiff = line.date != null && candidate.date != null
+                    ? Math.abs(ChronoUnit.DAYS.between(candidate.date, line.date)) : 0;
+            if (checkDate && dayDiff > dateToleranceDays) {
+                continue;
+            }
+            int order = best == null ? -1 : amountDiff.compareTo(bestAmountDiff);
+            if (order == 0) {
+                order = Long.compare(dayDiff, bestDayDiff);
+            }
+            if (order < 0) {
+                best = candidate;
+                bestAmountDiff = amountDiff;
+                bestDayDiff = dayDiff;
+                ties = 0;
+            } else if (order == 0) {
+                ties++;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        if (ties > 0) {
+            return new LineMatch(line, MatchType.AMBIGUOUS, null, (ties + 1) + " pending transactions match equally well");
+        }
+        return new LineMatch(line, MatchType.FUZZY, best.id,
+                "Amount differs by Rs. " + bestAmountDiff.toPlainString() + ", date by " + bestDayDiff + " day(s)");
+    }
+
+    // Assign transactions to lines in statement order, exact matches first; returns the transactions to verify
+    private Map<Long, LineMatch> assign(List<LineMatch> matches, List<ReconciliationExceptionDTO> exceptions,
+                                        ReconciliationResultDTO result) {
+        Set<Long> claimed = new HashSet<>();
+        Map<Long, LineMatch> toVerify = new LinkedHashMap<>();
+        long exactMatches = 0;
+        long fuzzyMatches = 0;
+
+        for (LineMatch match : matches) {
+            if (match.type != MatchType.EXACT) {
+                continue;
+            }
+            if (!claimed.add(match.transactionId)) {
+                exceptions.add(exception(match, ReconciliationExceptionDTO.Reason.DUPLICATE_LINE,
+                        "Transaction already matched by an earlier line"));
+                continue;
+            }
+            exactMatches++;
+            toVerify.put(match.transactionId, match);
+        }
+
+        for (LineMatch match : matches) {
+            switch (match.type) {
+                case FUZZY:
+                    if (!claimed.add(match.transactionId)) {
+                        exceptions.add(exception(match, ReconciliationExceptionDTO.Reason.DUPLICATE_LINE,
+                                "Transaction already matched by another line"));
+                    } else {
+                        fuzzyMatches++;
+                        if (autoVerifyFuzzy) {
+                            toVerify.put(match.transactionId, match);
+                        } else {
+                            exceptions.add(exception(match, ReconciliationExceptionDTO.Reason.FUZZY_MATCH, match.detail));
+                        }
+                    }
+                    break;
+                case AMBIGUOUS:
+                    exceptions.add(exception(match, ReconciliationExceptionDTO.Reason.AMBIGUOUS, match.detail));
+                    break;
+                case AMOUNT_MISMATCH:
+                    exceptions.add(exception(match, ReconciliationExceptionDTO.Reason.AMOUNT_MISMATCH, match.detail));
+                    break;
+                case UNMATCHED:
+                    exceptions.add(exception(match, ReconciliationExceptionDTO.Reason.UNMATCHED, null));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        result.setExactMatches(exactMatches);
+        result.setFuzzyMatches(fuzzyMatches);
+        return toVerify;
+    }
+
+    // Verify the matched transactions in batches (one database transaction per batch)
+    private long autoVerify(Map<Long, LineMatch> toVerify, String reconciledBy,
+                            List<ReconciliationExceptionDTO> exceptions) {
+        List<Long> ids = new ArrayList<>(toVerify.keySet());
+        long verified = 0;
+        for (int from = 0; from < ids.size(); from += verifyChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + verifyChunkSize, ids.size()));
+            for (BatchVerifyResultDTO outcome : paymentTransactionService.autoVerifyTransactions(chunk, reconciledBy)) {
+                LineMatch match = toVerify.get(outcome.getTransactionId());
+                switch (outcome.getOutcome()) {
+                    case VERIFIED:
+                        verified++;
+                        break;
+                    case DECLINED:
+                        exceptions.add(exception(match, ReconciliationExceptionDTO.Reason.STRATEGY_DECLINED,
+                                "Left pending by the active payment strategy"));
+                        break;
+                    default:
+                        exceptions.add(exception(match, ReconciliationExceptionDTO.Reason.ALREADY_PROCESSED,
+                                "Transaction is no longer pending"));
+                        break;
+                }
+            }
+        }
+        return verified;
+    }
+
+    private void retain(ReconciliationResultDTO result) {
+        synchronized (results) {
+            results.put(result.getId(), result);
+            Iterator<String> oldest = results.keySet().iterator();
+            while (results.size() > retainedResults && oldest.hasNext()) {
+                oldest.next();
+                oldest.remove();
+            }
+        }
+    }
+
+    private ReconciliationExceptionDTO exception(LineMatch match, ReconciliationExceptionDTO.Reason reason,
+                                                 String detail) {
+        StatementLine line = match.line;
+        return new ReconciliationExceptionDTO(line.lineNumber, line.date, line.reference, line.amount, line.studentId,
+                reason, match.transactionId, detail);
+    }
+
+    private static boolean sameStudent(StatementLine line, Candidate candidate) {
+        return line.studentId == null || candidate.studentId == null || line.studentId.equals(candidate.studentId);
+    }
+
+    private static boolean isBlank(String[] row) {
+        for (String cell : row) {
+            if (cell != null && !cell.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Upper case, letters and digits only ("ref 12-34" and "REF1234" are the same reference)
+    private static String normalizeReference(String reference) {
+        if (reference == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(reference.length());
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toUpperCase(c));
+            }
+        }
+        return normalized.length() > 0 ? normalized.toString() : null;
+    }
+
+    private static String normalizeId(String id) {
+        return id != null && !id.trim().isEmpty() ? id.trim().toUpperCase() : null;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static String headerKey(String header) {
+        return header == null ? "" : header.trim().toLowerCase().replaceAll("[\\s_.\\-]", "").replace("\uFEFF", "");
+    }
+
+    /**
+     * Column positions of a statement, resolved from its header row
+     */
+    private static class Columns {
+        private final int date;
+        private final int reference;
+        private final int amount;
+        private final int studentId;
+
+        Columns(String[] header) {
+            int date = -1;
+            int reference = -1;
+            int amount = -1;
+            int studentId = -1;
+            for (int i = 0; i < header.length; i++) {
+                String key = headerKey(header[i]);
+                if (date < 0 && DATE_HEADERS.contains(key)) {
+                    date = i;
+                } else if (reference < 0 && REFERENCE_HEADERS.contains(key)) {
+                    reference = i;
+                } else if (amount < 0 && AMOUNT_HEADERS.contains(key)) {
+                    amount = i;
+                } else if (studentId < 0 && STUDENT_HEADERS.contains(key)) {
+                    studentId = i;
+                }
+            }
+            if (amount < 0) {
+                throw new RuntimeException("The statement has no amount column");
+            }
+            if (reference < 0 && studentId < 0) {
+                throw new RuntimeException("The statement needs a reference or student ID column");
+            }
+            this.date = date;
+            this.reference = reference;
+            this.amount = amount;
+            this.studentId = studentId;
+        }
+
+        String value(String[] row, int column) {
+            if (column < 0 || column >= row.length || row[column] == null) {
+                return null;
+            }
+            String value = row[column].trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        StatementLine parse(long lineNumber, String[] row) {
+            String amountText = value(row, amount);
+            if (amountText == null) {
+                throw new RuntimeException("Missing amount");
+            }
+            // Currency symbols and spaces (e.g. "Rs. 1,500.00" or "$ 20") are the only noise accepted
+            String plainAmount = amountText.replaceAll("\\s|\\p{Sc}|^(?i)rs\\.?", "");
+            if (!AMOUNT_PATTERN.matcher(plainAmount).matches()) {
+                throw new RuntimeException("Invalid amount '" + amountText + "'");
+            }
+            BigDecimal parsedAmount = new BigDecimal(plainAmount.replace(",", ""));
+            if (parsedAmount.signum() <= 0) {
+                throw new RuntimeException("Not a credit (amount " + amountText + ")");
+            }
+            return new StatementLine(lineNumber, parseDate(value(row, date)), value(row, reference), parsedAmount,
+                    normalizeId(value(row, studentId)));
+        }
+
+        private LocalDate parseDate(String text) {
+            if (text == null) {
+                return null;
+            }
+            String datePart = text.length() > 10 ? text.substring(0, 10) : text;
+            for (DateTimeFormatter format : DATE_FORMATS) {
+                try {
+                    return LocalDate.parse(datePart, format);
+                } catch (DateTimeParseException e) {
+                    // try the next format
+                }
+            }
+            throw new RuntimeException("Invalid date '" + text + "'");
+        }
+    }
+
+    private static class StatementLine {
+        private final long lineNumber;
+        private final LocalDate date;
+        private final String reference;
+        private final BigDecimal amount;
+        private final String studentId;
+
+        StatementLine(long lineNumber, LocalDate date, String reference, BigDecimal amount, String studentId) {
+            this.lineNumber = lineNumber;
+            this.date = date;
+            this.reference = reference;
+            this.amount = amount;
+            this.studentId = studentId;
+        }
+    }
+
+    private static class Candidate {
+        private final Long id;
+        private final BigDecimal amount;
+        private final String studentId;
+        private final LocalDate date;
+
+        Candidate(Long id, BigDecimal amount, String studentId, LocalDate date) {
+            this.id = id;
+            this.amount = amount;
+            this.studentId = studentId;
+            this.date = date;
+        }
+    }
+
+    private static class LineMatch {
+        private final StatementLine line;
+        private final MatchType type;
+        private final Long transactionId;
+        private final String detail;
+
+        LineMatch(StatementLine line, MatchType type, Long transactionId, String detail) {
+            this.line = line;
+            this.type = type;
+            this.transactionId = transactionId;
+            this.detail = detail;
+        }
+    }
+
+    /**
+     * Pending transactions by normalized reference, student ID and amount in cents (read-only once built)
+     */
+    private static class PendingIndex {
+        private final Map<String, List<Candidate>> byReference = new HashMap<>();
+        private final Map<String, List<Candidate>> byStudentId = new HashMap<>();
+        private final Map<Long, List<Candidate>> byAmount = new HashMap<>();
+    }
+}
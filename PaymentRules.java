@@ -0,0 +1,193 @@
+package com.helpdesk.strategy;
+
+import com.helpdesk.entity.PaymentTransaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Editable payment portal rules (the source form of a PaymentDecisionTable)
+ * Holds the active payment/category strategy, the auto-approve thresholds (default and per category),
+ * rules per payment method and amount bands. Text formats used by application.properties and the
+ * settings page:
+ * - category thresholds: categoryId:amount,... (e.g. 3:1000,7:250)
+ * - method rules: METHOD:ACTION,... (e.g. CHEQUE:REVIEW)
+ * - amount bands: from-to:ACTION,... with an empty "to" for open-ended bands (e.g. 100000-:REVIEW)
+ */
+public class PaymentRules {
+
+    /**
+     * What a method or amount band rule does with a matching payment
+     */
+    public enum RuleAction {
+        ALLOW,   // no restriction, the threshold decides
+        REVIEW,  // never auto-approve
+        REJECT   // never accept
+    }
+
+    private String paymentStrategy = "manual";
+    private String categoryStrategy = "strict";
+    private BigDecimal autoApproveThreshold = new BigDecimal("500");
+    private Map<Long, BigDecimal> categoryThresholds = new LinkedHashMap<>();
+    private Map<PaymentTransaction.PaymentMethod, RuleAction> methodRules =
+            new EnumMap<>(PaymentTransaction.PaymentMethod.class);
+    private List<AmountBand> amountBands = new ArrayList<>();
+
+    public PaymentRules copy() {
+        PaymentRules copy = new PaymentRules();
+        copy.paymentStrategy = paymentStrategy;
+        copy.categoryStrategy = categoryStrategy;
+        copy.autoApproveThreshold = autoApproveThreshold;
+        copy.categoryThresholds = new LinkedHashMap<>(categoryThresholds);
+        copy.methodRules = new EnumMap<>(PaymentTransaction.PaymentMethod.class);
+        copy.methodRules.putAll(methodRules);
+        copy.amountBands = new ArrayList<>(amountBands);
+        return copy;
+    }
+
+    // Text formats
+
+    public static Map<Long, BigDecimal> parseCategoryThresholds(String text) {
+        Map<Long, BigDecimal> thresholds = new LinkedHashMap<>();
+        for (String entry : split(text)) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid category threshold '" + entry + "' (expected id:amount)");
+            }
+            thresholds.put(Long.valueOf(parts[0].trim()), new BigDecimal(parts[1].trim()));
+        }
+        return thresholds;
+    }
+
+    public static Map<PaymentTransaction.PaymentMethod, RuleAction> parseMethodRules(String text) {
+        Map<PaymentTransaction.PaymentMethod, RuleAction> rules = new EnumMap<>(PaymentTransaction.PaymentMethod.class);
+        for (String entry : split(text)) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid method rule '" + entry + "' (expected METHOD:ACTION)");
+            }
+            rules.put(PaymentTransaction.PaymentMethod.valueOf(parts[0].trim().toUpperCase()),
+                    RuleAction.valueOf(parts[1].trim().toUpperCase()));
+        }
+        return rules;
+    }
+
+    public static List<AmountBand> parseAmountBands(String text) {
+        List<AmountBand> bands = new ArrayList<>();
+        for (String entry : split(text)) {
+            int colon = entry.lastIndexOf(':');
+            int dash = entry.indexOf('-');
+            if (colon < 0 || dash < 0 || dash > colon) {
+                throw new IllegalArgumentException("Invalid amount band '" + entry + "' (expected from-to:ACTION)");
+            }
+            String to = entry.substring(dash + 1, colon).trim();
+            bands.add(new AmountBand(new BigDecimal(entry.substring(0, dash).trim()),
+                    to.isEmpty() ? null : new BigDecimal(to),
+                    RuleAction.valueOf(entry.substring(colon + 1).trim().toUpperCase())));
+        }
+        return bands;
+    }
+
+    public static String formatAmountBands(List<AmountBand> bands) {
+        return bands.stream().map(AmountBand::toString).collect(Collectors.joining("\n"));
+    }
+
+    // Entries are separated by commas or new lines
+    private static List<String> split(String text) {
+        List<String> entries = new ArrayList<>();
+        if (text != null) {
+            for (String entry : text.split("[,\\n]")) {
+                if (!entry.trim().isEmpty()) {
+                    entries.add(entry.trim());
+                }
+            }
+        }
+        return entries;
+    }
+
+    // Getters and Setters
+    public String getPaymentStrategy() {
+        return paymentStrategy;
+    }
+
+    public void setPaymentStrategy(String paymentStrategy) {
+        this.paymentStrategy = paymentStrategy;
+    }
+
+    public String getCategoryStrategy() {
+        return categoryStrategy;
+    }
+
+    public void setCategoryStrategy(String categoryStrategy) {
+        this.categoryStrategy = categoryStrategy;
+    }
+
+    public BigDecimal getAutoApproveThreshold() {
+        return autoApproveThreshold;
+    }
+
+    public void setAutoApproveThreshold(BigDecimal autoApproveThreshold) {
+        this.autoApproveThreshold = autoApproveThreshold;
+    }
+
+    public Map<Long, BigDecimal> getCategoryThresholds() {
+        return categoryThresholds;
+    }
+
+    public void setCategoryThresholds(Map<Long, BigDecimal> categoryThresholds) {
+        this.categoryThresholds = categoryThresholds;
+    }
+
+    public Map<PaymentTransaction.PaymentMethod, RuleAction> getMethodRules() {
+        return methodRules;
+    }
+
+    public void setMethodRules(Map<PaymentTransaction.PaymentMethod, RuleAction> methodRules) {
+        this.methodRules = methodRules;
+    }
+
+    public List<AmountBand> getAmountBands() {
+        return amountBands;
+    }
+
+    public void setAmountBands(List<AmountBand> amountBands) {
+        this.amountBands = amountBands;
+    }
+
+    /**
+     * Amounts from (inclusive) up to to (exclusive, null = no upper bound)
+     */
+    public static class AmountBand {
+        private final BigDecimal from;
+        private final BigDecimal to;
+        private final RuleAction action;
+
+        public AmountBand(BigDecimal from, BigDecimal to, RuleAction action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        public BigDecimal getFrom() {
+            return from;
+        }
+
+        public BigDecimal getTo() {
+            return to;
+        }
+
+        public RuleAction getAction() {
+            return action;
+        }
+
+        @Override
+        public String toString() {
+            return from.toPlainString() + "-" + (to != null ? to.toPlainString() : "") + ":" + action;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.helpdesk.strategy;
+
+import com.helpdesk.entity.PaymentTransaction;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the active PaymentDecisionTable
+ * The table is swapped atomically: a payment being evaluated keeps the table it started with and
+ * the next one sees the new rules, without locks on the evaluation path. The initial rules come
+ * from application.properties; changes made on the settings page last until the next restart.
+ */
+@Component
+public class PaymentRulesEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentRulesEngine.class);
+
+    @Value("${payment.strategy.type:manual}")
+    private String paymentStrategyType;
+
+    @Value("${category.strategy.type:strict}")
+    private String categoryStrategyType;
+
+    @Value("${payment.rules.auto-approve-threshold:500}")
+    private BigDecimal autoApproveThreshold;
+
+    @Value("${payment.rules.category-thresholds:}")
+    private String categoryThresholds;
+
+    @Value("${payment.rules.method-rules:}")
+    private String methodRules;
+
+    @Value("${payment.rules.amount-bands:}")
+    private String amountBands;
+
+    private final AtomicReference<PaymentDecisionTable> table = new AtomicReference<>();
+
+    @PostConstruct
+    public void init() {
+        PaymentRules rules = new PaymentRules();
+        rules.setPaymentStrategy(paymentStrategyType);
+        rules.setCategoryStrategy(categoryStrategyType);
+        rules.setAutoApproveThreshold(autoApproveThreshold);
+        rules.setCategoryThresholds(PaymentRules.parseCategoryThresholds(categoryThresholds));
+        rules.setMethodRules(PaymentRules.parseMethodRules(methodRules));
+        rules.setAmountBands(PaymentRules.parseAmountBands(amountBands));
+        publish(rules);
+    }
+
+    /**
+     * Table in effect right now
+     */
+    public PaymentDecisionTable current() {
+        return table.get();
+    }
+
+    /**
+     * Compile and publish a complete rule set
+     * @throws IllegalArgumentException if the rules are inconsistent (the current table stays active)
+     */
+    public PaymentDecisionTable publish(PaymentRules rules) {
+        PaymentDecisionTable compiled = PaymentDecisionTable.compile(rules);
+        table.set(compiled);
+        logger.info("Payment rules published: payment={}, category={}, threshold={}, {} category threshold(s), "
+                        + "{} method rule(s), {} amount band(s)", rules.getPaymentStrategy(), rules.getCategoryStrategy(),
+                rules.getAutoApproveThreshold(), rules.getCategoryThresholds().size(), rules.getMethodRules().size(),
+                rules.getAmountBands().size());
+        return compiled;
+    }
+
+    /**
+     * Switch the payment and category strategies, keeping the other rules
+     */
+    public synchronized PaymentDecisionTable updateStrategies(String paymentStrategy, String categoryStrategy) {
+        PaymentRules rules = current().getRules();
+        rules.setPaymentStrategy(paymentStrategy);
+        rules.setCategoryStrategy(categoryStrategy);
+        return publish(rules);
+    }
+
+    /**
+     * Replace thresholds, method rules and amount bands, keeping the active strategies
+     */
+    public synchronized PaymentDecisionTable updateRules(BigDecimal autoApproveThreshold,
+                                                         Map<Long, BigDecimal> categoryThresholds,
+                                                         Map<PaymentTransaction.PaymentMethod, PaymentRules.RuleAction> methodRules,
+                                                         List<PaymentRules.AmountBand> amountBands) {
+        PaymentRules rules = current().getRules();
+        rules.setAutoApproveThreshold(autoApproveThreshold);
+        rules.setCategoryThresholds(categoryThresholds);
+        rules.setMethodRules(methodRules);
+        rules.setAmountBands(amountBands);
+        return publish(rules);
+    }
+}
@@ -1,12 +1,15 @@
 package com.helpdesk.controller;
 
+import com.helpdesk.entity.Category;
+import com.helpdesk.entity.PaymentTransaction;
 import com.helpdesk.service.PaymentCategoryService;
+import com.helpdesk.service.PaymentLedgerService;
 import com.helpdesk.service.PaymentTicketService;
+import com.helpdesk.strategy.PaymentRules;
+import com.helpdesk.strategy.PaymentRulesEngine;
+import com.helpdesk.strategy.StrategyAuditLog;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.env.ConfigurableEnvironment;
-import org.springframework.core.env.MapPropertySource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,7 +18,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -33,13 +38,15 @@ public class PaymentSettingsController {
     private PaymentCategoryService paymentCategoryService;
 
     @Autowired
-    private ConfigurableEnvironment environment;
+    private PaymentRulesEngine paymentRulesEngine;
 
-    @Value("${payment.strategy.type:manual}")
-    private String currentPaymentStrategy;
+    @Autowired
+    private StrategyAuditLog strategyAuditLog;
+
+    @Autowired
+    private PaymentLedgerService paymentLedgerService;
 
-    @Value("${category.strategy.type:strict}")
-    private String currentCategoryStrategy;
+    private static final int RECENT_DECISIONS = 50;
 
     /**
      * Show strategy settings page
@@ -60,12 +67,27 @@ public class PaymentSettingsController {
         model.addAttribute("currentCategoryStrategy", activeCategoryStrategy);
         model.addAttribute("paymentUser", paymentUser);
 
+        // Active payment rules
+        PaymentRules rules = paymentRulesEngine.current().getRules();
+        model.addAttribute("rules", rules);
+        model.addAttribute("amountBandsText", PaymentRules.formatAmountBands(rules.getAmountBands()));
+        model.addAttribute("paymentCategories", paymentCategoryService.getActiveCategories());
+        model.addAttribute("paymentMethods", PaymentTransaction.PaymentMethod.values());
+        model.addAttribute("ruleActions", PaymentRules.RuleAction.values());
+
+        // Latest decisions from the strategy audit stream
+        model.addAttribute("recentDecisions", strategyAuditLog.getRecentDecisions(RECENT_DECISIONS));
+        model.addAttribute("droppedAuditEvents", strategyAuditLog.getDroppedEvents());
+
+        // Last payment ledger verification (null until the verifier has run)
+        model.addAttribute("ledgerVerification", paymentLedgerService.getLastVerification());
+
         return "payment/settings";
     }
 
     /**
      * Update strategy settings
-     * NOTE: This updates runtime configuration only
+     * NOTE: This switches the strategies at runtime only
      * For permanent changes, update application.properties
      */
     @PostMapping("/update")
@@ -82,15 +104,8 @@ public class PaymentSettingsController {
         }
 
         try {
-            // Create a runtime property source for strategy changes
-            Map<String, Object> props = new HashMap<>();
-            props.put("payment.strategy.type", paymentStrategy);
-            props.put("category.strategy.type", categoryStrategy);
-            
-            // Add as high priority property source
-            environment.getPropertySources().addFirst(
-                new MapPropertySource("strategyOverride", props)
-            );
+            // Publish a new decision table - the strategy beans pick it up on their next call
+            paymentRulesEngine.updateStrategies(paymentStrategy, categoryStrategy);
 
             redirectAttributes.addFlashAttribute("successMessage", 
                 "Strategy settings updated successfully! " +
@@ -105,5 +120,85 @@ public class PaymentSettingsController {
 
         return "redirect:/payment/settings";
     }
+
+    /**
+     * Update payment rules (auto-approve thresholds, payment method rules and amount bands)
+     * Category thresholds are posted as categoryThreshold_{id} (blank = use the default threshold),
+     * method rules as methodRule_{METHOD}
+     */
+    @PostMapping("/rules")
+    public String updateRules(
+            HttpSession session,
+            @RequestParam BigDecimal autoApproveThreshold,
+            @RequestParam(required = false) String amountBands,
+            @RequestParam Map<String, String> params,
+            RedirectAttributes redirectAttributes) {
+
+        // Check if payment user is logged in
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return "redirect:/payment/login?error=session_expired";
+        }
+
+        try {
+            Map<Long, BigDecimal> categoryThresholds = new LinkedHashMap<>();
+            for (Category category : paymentCategoryService.getActiveCategories()) {
+                String threshold = params.get("categoryThreshold_" + category.getId());
+                if (threshold != null && !threshold.trim().isEmpty()) {
+                    categoryThresholds.put(category.getId(), new BigDecimal(threshold.trim()));
+                }
+            }
+
+            Map<PaymentTransaction.PaymentMethod, PaymentRules.RuleAction> methodRules =
+                    new EnumMap<>(PaymentTransaction.PaymentMethod.class);
+            for (PaymentTransaction.PaymentMethod method : PaymentTransaction.PaymentMethod.values()) {
+                String action = params.get("methodRule_" + method.name());
+                if (action != null && !action.isEmpty() && !PaymentRules.RuleAction.ALLOW.name().equals(action)) {
+                    methodRules.put(method, PaymentRules.RuleAction.valueOf(action));
+                }
+            }
+
+            paymentRulesEngine.updateRules(autoApproveThreshold, categoryThresholds, methodRules,
+                    PaymentRules.parseAmountBands(amountBands));
+
+            redirectAttributes.addFlashAttribute("successMessage",
+                "Payment rules updated successfully and are active immediately. " +
+                "Note: Changes are temporary. Update application.properties for permanent changes.");
+
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                "Error updating payment rules: " + e.getMessage());
+        }
+
+        return "redirect:/payment/settings";
+    }
+
+    /**
+     * Recompute the payment ledger totals now and report (and repair) any drift
+     */
+    @PostMapping("/ledger/verify")
+    public String verifyLedger(HttpSession session, RedirectAttributes redirectAttributes) {
+        // Check if payment user is logged in
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return "redirect:/payment/login?error=session_expired";
+        }
+
+        try {
+            paymentLedgerService.verifyTotals();
+            long driftCount = paymentLedgerService.getLastVerification().getDriftCount();
+            if (driftCount == 0) {
+                redirectAttributes.addFlashAttribute("successMessage", "Payment ledger verified - no drift found");
+            } else {
+                redirectAttributes.addFlashAttribute("errorMessage",
+                    "Payment ledger drift found in " + driftCount + " balance(s)");
+            }
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                "Error verifying payment ledger: " + e.getMessage());
+        }
+
+        return "redirect:/payment/settings";
+    }
 }
 
@@ -1,5 +1,8 @@
 package com.helpdesk.dto;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class PaymentStatsDTO {
 
     private Long totalTickets = 0L;
@@ -7,6 +10,12 @@ public class PaymentStatsDTO {
     private Long resolvedTickets = 0L;
     private Long escalatedTickets = 0L;
     private Double totalVerifiedAmount = 0.0;
+    private Long rejectedTickets = 0L;
+    private Long completedTickets = 0L;
+    private Double totalAmount = 0.0;
+    private Double pendingAmount = 0.0;
+    private Double rejectedAmount = 0.0;
+    private List<PaymentCategoryStatsDTO> categoryStats = new ArrayList<>();
 
     // Constructors
     public PaymentStatsDTO() {}
@@ -60,5 +69,53 @@ public class PaymentStatsDTO {
     public void setTotalVerifiedAmount(Double totalVerifiedAmount) {
         this.totalVerifiedAmount = totalVerifiedAmount != null ? totalVerifiedAmount : 0.0;
     }
+
+    public Long getRejectedTickets() {
+        return rejectedTickets != null ? rejectedTickets : 0L;
+    }
+
+    public void setRejectedTickets(Long rejectedTickets) {
+        this.rejectedTickets = rejectedTickets != null ? rejectedTickets : 0L;
+    }
+
+    public Long getCompletedTickets() {
+        return completedTickets != null ? completedTickets : 0L;
+    }
+
+    public void setCompletedTickets(Long completedTickets) {
+        this.completedTickets = completedTickets != null ? completedTickets : 0L;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount != null ? totalAmount : 0.0;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount != null ? totalAmount : 0.0;
+    }
+
+    public Double getPendingAmount() {
+        return pendingAmount != null ? pendingAmount : 0.0;
+    }
+
+    public void setPendingAmount(Double pendingAmount) {
+        this.pendingAmount = pendingAmount != null ? pendingAmount : 0.0;
+    }
+
+    public Double getRejectedAmount() {
+        return rejectedAmount != null ? rejectedAmount : 0.0;
+    }
+
+    public void setRejectedAmount(Double rejectedAmount) {
+        this.rejectedAmount = rejectedAmount != null ? rejectedAmount : 0.0;
+    }
+
+    public List<PaymentCategoryStatsDTO> getCategoryStats() {
+        return categoryStats;
+    }
+
+    public void setCategoryStats(List<PaymentCategoryStatsDTO> categoryStats) {
+        this.categoryStats = categoryStats != null ? categoryStats : new ArrayList<>();
+    }
 }
 
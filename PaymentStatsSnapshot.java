@@ -0,0 +1,335 @@
+package com.helpdesk.service;
+
+import com.helpdesk.dto.PaymentCategoryStatsDTO;
+import com.helpdesk.dto.PaymentStatsDTO;
+import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.repository.PaymentTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory payment dashboard statistics
+ * Loaded with one aggregation query on first use. After that, every payment write hands the
+ * before/after state of the changed transactions to recordChange(), and the per-category totals
+ * are adjusted once the transaction commits. The dashboard only reads the published snapshot.
+ * A periodic reload corrects any drift (writes that bypass PaymentTransactionService, or a write
+ * committing while the snapshot is being loaded).
+ */
+@Component
+public class PaymentStatsSnapshot {
+
+    // Status order of the count/amount columns of getStatsByCategory()
+    private static final PaymentTransaction.Status[] STATUS_COLUMNS = {
+            PaymentTransaction.Status.PENDING, PaymentTransaction.Status.VERIFIED, PaymentTransaction.Status.REJECTED,
+            PaymentTransaction.Status.ESCALATED, PaymentTransaction.Status.COMPLETED
+    };
+
+    private static final String PENDING_CHANGES_KEY = PaymentStatsSnapshot.class.getName() + ".pendingChanges";
+
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    // Category id (null = uncategorized) -> totals; null until first use
+    private final AtomicReference<Map<Long, CategoryTotals>> snapshot = new AtomicReference<>();
+    private final Object writeLock = new Object();
+
+    /**
+     * Current statistics (runs the aggregation query only the first time)
+     */
+    public PaymentStatsDTO getStats() {
+        Map<Long, CategoryTotals> totals = snapshot.get();
+        if (totals == null) {
+            totals = load();
+        }
+        return toStats(totals);
+    }
+
+    /**
+     * Rebuild the snapshot from the database
+     */
+    public void reload() {
+        load();
+    }
+
+    private Map<Long, CategoryTotals> load() {
+        synchronized (writeLock) {
+            Map<Long, CategoryTotals> totals = new HashMap<>();
+            for (Object[] row : paymentTransactionRepository.getStatsByCategory()) {
+                CategoryTotals categoryTotals = new CategoryTotals((String) row[1]);
+                int column = 2;
+                for (PaymentTransaction.Status status : STATUS_COLUMNS) {
+                    categoryTotals.counts[status.ordinal()] = toLong(row[column++]);
+                }
+                categoryTotals.verifiedCount = toLong(row[column++]);
+                for (PaymentTransaction.Status status : STATUS_COLUMNS) {
+                    categoryTotals.amounts[status.ordinal()] = toBigDecimal(row[column++]);
+                }
+                categoryTotals.verifiedAmount = toBigDecimal(row[column]);
+                totals.put((Long) row[0], categoryTotals);
+            }
+            Map<Long, CategoryTotals> published = Collections.unmodifiableMap(totals);
+            snapshot.set(published);
+            return published;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.stats.refresh-interval-ms:300000}",
+            initialDelayString = "${payment.stats.refresh-interval-ms:300000}")
+    public void refresh() {
+        // Nothing to refresh until the dashboard has been opened
+        if (snapshot.get() != null) {
+            reload();
+        }
+    }
+
+    /**
+     * Capture the stats-relevant state of a transaction (null for a transaction that does not exist)
+     */
+    public static Facts factsOf(PaymentTransaction transaction) {
+        if (transaction == null) {
+            return null;
+        }
+        return new Facts(transaction.getId(), transaction.getTransactionNumber(), transaction.getStudentId(),
+                transaction.getCategory() != null ? transaction.getCategory().getId() : null,
+                transaction.getCategory() != null ? transaction.getCategory().getName() : null,
+                transaction.getStatus(), Boolean.TRUE.equals(transaction.getVerified()), transaction.getAmount(),
+                transaction.getPaymentMethod(), transaction.getReferenceNumber(), transaction.getCreatedAt(),
+                transaction.getVerifiedAt());
+    }
+
+    /**
+     * Record a change of one transaction (before = null for inserts, after = null for deletes)
+     * Inside a transaction the change is applied after commit; all changes of one transaction
+     * are applied together.
+     */
+    public void recordChange(Facts before, Facts after) {
+        TransactionChangeBuffer.afterCommit(PENDING_CHANGES_KEY, Collections.singletonList(new Facts[]{before, after}),
+                this::apply);
+    }
+
+    private void apply(List<Facts[]> changes) {
+        synchronized (writeLock) {
+            Map<Long, CategoryTotals> current = snapshot.get();
+            if (current == null) {
+                return; // loaded from the database on first use
+            }
+            Map<Long, CategoryTotals> updated = new HashMap<>(current);
+            for (Facts[] change : changes) {
+                adjust(updated, change[0], -1);
+                adjust(updated, change[1], 1);
+            }
+            snapshot.set(Collections.unmodifiableMap(updated));
+        }
+    }
+
+    // Copy-on-write: published CategoryTotals are never modified
+    private void adjust(Map<Long, CategoryTotals> totals, Facts facts, int sign) {
+        if (facts == null) {
+            return;
+        }
+        CategoryTotals existing = totals.get(facts.categoryId);
+        CategoryTotals categoryTotals = existing != null ? existing.copy() : new CategoryTotals(facts.categoryName);
+        if (sign > 0 && facts.categoryName != null) {
+            categoryTotals.name = facts.categoryName;
+        }
+        BigDecimal amount = facts.amount != null ? facts.amount : BigDecimal.ZERO;
+        BigDecimal signedAmount = sign > 0 ? amount : amount.negate();
+        if (facts.status != null) {
+            categoryTotals.counts[facts.status.ordinal()] += sign;
+            categoryTotals.amounts[facts.status.ordinal()] = categoryTotals.amounts[facts.status.ordinal()].add(signedAmount);
+        }
+        if (facts.verified) {
+            categoryTotals.verifiedCount += sign;
+            categoryTotals.verifiedAmount = categoryTotals.verifiedAmount.add(signedAmount);
+        }
+        totals.put(facts.categoryId, categoryTotals);
+    }
+
+    private PaymentStatsDTO toStats(Map<Long, CategoryTotals> totals) {
+        long[] counts = new long[PaymentTransaction.Status.values().length];
+        BigDecimal[] amounts = zeroAmounts();
+        long verifiedCount = 0;
+        BigDecimal verifiedAmount = BigDecimal.ZERO;
+        List<PaymentCategoryStatsDTO> categoryStats = new ArrayList<>();
+
+        for (Map.Entry<Long, CategoryTotals> entry : totals.entrySet()) {
+            CategoryTotals categoryTotals = entry.getValue();
+            long categoryCount = 0;
+            BigDecimal categoryAmount = BigDecimal.ZERO;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += categoryTotals.counts[i];
+                amounts[i] = amounts[i].add(categoryTotals.amounts[i]);
+                categoryCount += categoryTotals.counts[i];
+                categoryAmount = categoryAmount.add(categoryTotals.amounts[i]);
+            }
+            verifiedCount += categoryTotals.verifiedCount;
+            verifiedAmount = verifiedAmount.add(categoryTotals.verifiedAmount);
+            if (categoryCount > 0) {
+                categoryStats.add(new PaymentCategoryStatsDTO(entry.getKey(),
+                        categoryTotals.name != null ? categoryTotals.name : "Uncategorized", categoryCount,
+                        categoryTotals.verifiedCount, categoryAmount.doubleValue(),
+                        categoryTotals.verifiedAmount.doubleValue()));
+            }
+        }
+        categoryStats.sort(Comparator.comparing(PaymentCategoryStatsDTO::getCategoryName, String.CASE_INSENSITIVE_ORDER));
+
+        PaymentStatsDTO stats = new PaymentStatsDTO();
+        stats.setPendingTickets(counts[PaymentTransaction.Status.PENDING.ordinal()]);
+        stats.setResolvedTickets(verifiedCount); // Verified = Resolved
+        stats.setEscalatedTickets(counts[PaymentTransaction.Status.ESCALATED.ordinal()]);
+        stats.setTotalTickets(stats.getPendingTickets() + stats.getResolvedTickets() + stats.getEscalatedTickets());
+        stats.setTotalVerifiedAmount(verifiedAmount.doubleValue());
+        stats.setRejectedTickets(counts[PaymentTransaction.Status.REJECTED.ordinal()]);
+        stats.setCompletedTickets(counts[PaymentTransaction.Status.COMPLETED.ordinal()]);
+        stats.setTotalAmount(sum(amounts).doubleValue());
+        stats.setPendingAmount(amounts[PaymentTransaction.Status.PENDING.ordinal()].doubleValue());
+        stats.setRejectedAmount(amounts[PaymentTransaction.Status.REJECTED.ordinal()].doubleValue());
+        stats.setCategoryStats(categoryStats);
+        return stats;
+    }
+
+    private static BigDecimal[] zeroAmounts() {
+        BigDecimal[] amounts = new BigDecimal[PaymentTransaction.Status.values().length];
+        Arrays.fill(amounts, BigDecimal.ZERO);
+        return amounts;
+    }
+
+    private static BigDecimal sum(BigDecimal[] amounts) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+
+    /**
+     * Stats-relevant state of one transaction (also used by the payment ledger and duplicate detection)
+     */
+    public static final class Facts {
+        private final Long transactionId;
+        private final String transactionNumber;
+        private final String studentId;
+        private final Long categoryId;
+        private final String categoryName;
+        private final PaymentTransaction.Status status;
+        private final boolean verified;
+        private final BigDecimal amount;
+        private final PaymentTransaction.PaymentMethod paymentMethod;
+        private final String referenceNumber;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime verifiedAt;
+
+        Facts(Long transactionId, String transactionNumber, String studentId, Long categoryId, String categoryName,
+              PaymentTransaction.Status status, boolean verified, BigDecimal amount,
+              PaymentTransaction.PaymentMethod paymentMethod, String referenceNumber, LocalDateTime createdAt,
+              LocalDateTime verifiedAt) {
+            this.transactionId = transactionId;
+            this.transactionNumber = transactionNumber;
+            this.studentId = studentId;
+            this.categoryId = categoryId;
+            this.categoryName = categoryName;
+            this.status = status;
+            this.verified = verified;
+            this.amount = amount;
+            this.paymentMethod = paymentMethod;
+            this.referenceNumber = referenceNumber;
+            this.createdAt = createdAt;
+            this.verifiedAt = verifiedAt;
+        }
+
+        public Long getTransactionId() {
+            return transactionId;
+        }
+
+        public String getTransactionNumber() {
+            return transactionNumber;
+        }
+
+        public String getStudentId() {
+            return studentId;
+        }
+
+        public PaymentTransaction.Status getStatus() {
+            return status;
+        }
+
+        public boolean isVerified() {
+            return verified;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        public String getCategoryName() {
+            return categoryName;
+        }
+
+        public PaymentTransaction.PaymentMethod getPaymentMethod() {
+            return paymentMethod;
+        }
+
+        public String getReferenceNumber() {
+            return referenceNumber;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocalDateTime getVerifiedAt() {
+            return verifiedAt;
+        }
+    }
+
+    /**
+     * Counts and amounts of one category
+     */
+    private static final class CategoryTotals {
+        private String name;
+        private final long[] counts = new long[PaymentTransaction.Status.values().length];
+        private final BigDecimal[] amounts = zeroAmounts();
+        private long verifiedCount;
+        private BigDecimal verifiedAmount = BigDecimal.ZERO;
+
+        CategoryTotals(String name) {
+            this.name = name;
+        }
+
+        CategoryTotals copy() {
+            CategoryTotals copy = new CategoryTotals(name);
+            System.arraycopy(counts, 0, copy.counts, 0, counts.length);
+            System.arraycopy(amounts, 0, copy.amounts, 0, amounts.length);
+            copy.verifiedCount = verifiedCount;
+            copy.verifiedAmount = verifiedAmount;
+            return copy;
+        }
+    }
+}
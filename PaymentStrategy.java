@@ -1,18 +1,33 @@
 package com.helpdesk.strategy;
 
+import com.helpdesk.entity.PaymentTransaction;
 import com.helpdesk.entity.Ticket;
 
+import java.math.BigDecimal;
+
 /**
  * Strategy interface for payment verification
  * Supports different payment verification approaches (Manual, Automated)
  */
 public interface PaymentStrategy {
     /**
-     * Verify payment for a ticket
+     * Verify payment of a transaction
+     * @param transaction The payment transaction
+     * @return true if payment is verified, false otherwise
+     */
+    boolean verifyPayment(PaymentTransaction transaction);
+    
+    /**
+     * Verify payment for a ticket (ticket-based payment portal)
      * @param ticket The ticket with payment information
      * @return true if payment is verified, false otherwise
      */
-    boolean verifyPayment(Ticket ticket);
+    default boolean verifyPayment(Ticket ticket) {
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setAmount(ticket.getAmount() != null ? BigDecimal.valueOf(ticket.getAmount()) : null);
+        transaction.setCategory(ticket.getCategory());
+        return verifyPayment(transaction);
+    }
     
     /**
      * Update ticket status based on strategy
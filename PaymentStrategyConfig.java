@@ -1,54 +1,47 @@
 package com.helpdesk.config;
 
+import com.helpdesk.strategy.ActiveCategoryStrategy;
+import com.helpdesk.strategy.ActivePaymentStrategy;
+import com.helpdesk.strategy.PaymentRulesEngine;
 import com.helpdesk.strategy.PaymentStrategy;
 import com.helpdesk.strategy.ManualPaymentStrategy;
 import com.helpdesk.strategy.AutomatedPaymentStrategy;
 import com.helpdesk.strategy.CategoryStrategy;
 import com.helpdesk.strategy.StrictCategoryStrategy;
 import com.helpdesk.strategy.LenientCategoryStrategy;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 /**
  * Configuration for Payment and Category Strategies
- * Allows switching between different strategy implementations via application.properties
+ * The initial strategies come from application.properties (payment.strategy.type, category.strategy.type)
+ * and can be switched at runtime from the payment settings page through PaymentRulesEngine
  */
 @Configuration
 public class PaymentStrategyConfig {
     
-    @Value("${payment.strategy.type:manual}")
-    private String paymentStrategyType;
-    
-    @Value("${category.strategy.type:strict}")
-    private String categoryStrategyType;
-    
     /**
      * Payment Strategy Bean
-     * @return PaymentStrategy instance based on configuration
+     * @return PaymentStrategy forwarding to the currently selected implementation
      */
     @Bean
-    public PaymentStrategy paymentStrategy() {
-        if ("automated".equalsIgnoreCase(paymentStrategyType)) {
-            System.out.println("✓ Payment Strategy: AUTOMATED (Auto-verify if amount > Rs. 500)");
-            return new AutomatedPaymentStrategy();
-        }
-        System.out.println("✓ Payment Strategy: MANUAL (Requires staff verification)");
-        return new ManualPaymentStrategy(); // Default
+    @Primary
+    public PaymentStrategy paymentStrategy(PaymentRulesEngine rulesEngine,
+                                           ManualPaymentStrategy manualPaymentStrategy,
+                                           AutomatedPaymentStrategy automatedPaymentStrategy) {
+        return new ActivePaymentStrategy(rulesEngine, manualPaymentStrategy, automatedPaymentStrategy);
     }
     
     /**
      * Category Strategy Bean
-     * @return CategoryStrategy instance based on configuration
+     * @return CategoryStrategy forwarding to the currently selected implementation
      */
     @Bean
-    public CategoryStrategy categoryStrategy() {
-        if ("lenient".equalsIgnoreCase(categoryStrategyType)) {
-            System.out.println("✓ Category Strategy: LENIENT (Allows duplicate categories)");
-            return new LenientCategoryStrategy();
-        }
-        System.out.println("✓ Category Strategy: STRICT (No duplicate categories)");
-        return new StrictCategoryStrategy(); // Default
+    @Primary
+    public CategoryStrategy categoryStrategy(PaymentRulesEngine rulesEngine,
+                                             StrictCategoryStrategy strictCategoryStrategy,
+                                             LenientCategoryStrategy lenientCategoryStrategy) {
+        return new ActiveCategoryStrategy(rulesEngine, strictCategoryStrategy, lenientCategoryStrategy);
     }
 }
-
@@ -73,9 +73,6 @@ public class PaymentTicketService {
                 ticket.setStatus(Ticket.Status.CLOSED);
             }
             
-            System.out.println("[PaymentTicketService] Verification completed using " + 
-                             paymentStrategy.getStrategyName() + " strategy");
-            
             return ticketRepository.save(ticket);
         }
         throw new RuntimeException("Ticket not found with id: " + ticketId);
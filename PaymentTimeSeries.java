@@ -0,0 +1,319 @@
+package com.helpdesk.service;
+
+import com.helpdesk.dto.PaymentTimeSeriesDTO;
+import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.repository.PaymentTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory daily payment time series
+ * One series per status (transactions created that day), per category and per payment method
+ * (verified amounts by verification day), each a pair of primitive arrays (count, amount in
+ * cents) indexed by day. Loaded with two GROUP BY queries on first use and then maintained from
+ * the before/after state of every PaymentTransactionService write, applied after commit - range,
+ * weekly and rolling-window queries never touch the database. A nightly reload corrects drift
+ * (writes outside the service, or committing while the series were loading).
+ */
+@Component
+public class PaymentTimeSeries {
+
+    public enum Dimension {
+        STATUS, CATEGORY, METHOD
+    }
+
+    public enum Granularity {
+        DAY, WEEK
+    }
+
+    private static final String PENDING_CHANGES_KEY = PaymentTimeSeries.class.getName() + ".pendingChanges";
+    private static final String UNCATEGORIZED = "0";
+    private static final String NO_METHOD = "NONE";
+
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    @Value("${payment.timeseries.retention-days:730}")
+    private int retentionDays;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<Dimension, Map<String, DailySeries>> series = new EnumMap<>(Dimension.class);
+    private final Map<String, String> categoryNames = new HashMap<>();
+    private long firstDay; // epoch day of array index 0
+    private boolean loaded;
+
+    /**
+     * Series of one breakdown between two dates (inclusive), by day or by week (weeks start on Monday)
+     * The range ends today at the latest and spans at most the retention window.
+     */
+    public PaymentTimeSeriesDTO query(Dimension dimension, Granularity granularity, LocalDate from, LocalDate to) {
+        ensureLoaded();
+        LocalDate today = LocalDate.now();
+        if (to == null || to.isAfter(today)) {
+            to = today;
+        }
+        if (from == null || from.isAfter(to)) {
+            from = to.minusDays(364);
+        }
+        // Nothing older than the retention window is kept, so never size the buckets beyond it
+        if (to.toEpochDay() - from.toEpochDay() >= retentionDays) {
+            from = to.minusDays(retentionDays - 1L);
+        }
+        if (granularity == Granularity.WEEK) {
+            from = from.with(DayOfWeek.MONDAY);
+        }
+
+        PaymentTimeSeriesDTO result = new PaymentTimeSeriesDTO();
+        result.setDimension(dimension.name());
+        result.setGranularity(granularity.name());
+        result.setFrom(from);
+        result.setTo(to);
+
+        int days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+        int bucketDays = granularity == Granularity.WEEK ? 7 : 1;
+        int buckets = (days + bucketDays - 1) / bucketDays;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            result.getBuckets().add(from.plusDays((long) bucket * bucketDays));
+        }
+
+        lock.readLock().lock();
+        try {
+            long start = from.toEpochDay() - firstDay;
+            for (Map.Entry<String, DailySeries> entry : series.get(dimension).entrySet()) {
+                DailySeries daily = entry.getValue();
+                PaymentTimeSeriesDTO.Series out = new PaymentTimeSeriesDTO.Series(entry.getKey(),
+                        label(dimension, entry.getKey()));
+                long[] counts = new long[buckets];
+                long[] cents = new long[buckets];
+                for (int day = 0; day < days; day++) {
+                    counts[day / bucketDays] += daily.count(start + day);
+                    cents[day / bucketDays] += daily.cents(start + day);
+                }
+                out.setCounts(counts);
+                out.setAmounts(toAmounts(cents));
+                out.setTotalCount(Arrays.stream(counts).sum());
+                out.setTotalAmount(Arrays.stream(cents).sum() / 100.0);
+                if (granularity == Granularity.DAY) {
+                    out.setRollingAverage7(rollingAverage(daily, start, days, 7));
+                    out.setRollingAverage30(rollingAverage(daily, start, days, 30));
+                }
+                if (out.getTotalCount() > 0) {
+                    result.getSeries().add(out);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.getSeries().sort(Comparator.comparing(PaymentTimeSeriesDTO.Series::getLabel, String.CASE_INSENSITIVE_ORDER));
+        return result;
+    }
+
+    /**
+     * Record a change of one transaction (before = null for inserts, after = null for deletes)
+     * Inside a transaction the change is applied after commit.
+     */
+    public void recordChange(PaymentStatsSnapshot.Facts before, PaymentStatsSnapshot.Facts after) {
+        TransactionChangeBuffer.afterCommit(PENDING_CHANGES_KEY,
+                Collections.singletonList(new PaymentStatsSnapshot.Facts[]{before, after}), this::apply);
+    }
+
+    /**
+     * Rebuild the series from the database
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            for (Dimension dimension : Dimension.values()) {
+                series.put(dimension, new HashMap<>());
+            }
+            categoryNames.clear();
+            firstDay = LocalDate.now().minusDays(retentionDays - 1L).toEpochDay();
+            LocalDateTime since = LocalDate.ofEpochDay(firstDay).atStartOfDay();
+
+            for (Object[] row : paymentTransactionRepository.getDailyTotalsByStatus(since)) {
+                long day = ((LocalDate) row[0]).toEpochDay();
+                add(Dimension.STATUS, ((PaymentTransaction.Status) row[1]).name(), day,
+                        ((Number) row[2]).longValue(), toCents(row[3]));
+            }
+            for (Object[] row : paymentTransactionRepository.getDailyVerifiedTotals(since)) {
+                long day = ((LocalDate) row[0]).toEpochDay();
+                long count = ((Number) row[4]).longValue();
+                long cents = toCents(row[5]);
+                String category = row[1] != null ? row[1].toString() : UNCATEGORIZED;
+                if (row[2] != null) {
+                    categoryNames.put(category, (String) row[2]);
+                }
+                add(Dimension.CATEGORY, category, day, count, cents);
+                add(Dimension.METHOD, row[3] != null ? ((PaymentTransaction.PaymentMethod) row[3]).name() : NO_METHOD,
+                        day, count, cents);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(cron = "${payment.timeseries.reload-cron:0 15 3 * * *}")
+    public void scheduledReload() {
+        // Nothing to reload until the series have been used
+        lock.readLock().lock();
+        boolean wasLoaded;
+        try {
+            wasLoaded = loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (wasLoaded) {
+            reload();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        reload();
+    }
+
+    private void apply(List<PaymentStatsSnapshot.Facts[]> changes) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return; // loaded from the database on first use
+            }
+            for (PaymentStatsSnapshot.Facts[] change : changes) {
+                contribute(change[0], -1);
+                contribute(change[1], 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void contribute(PaymentStatsSnapshot.Facts facts, int sign) {
+        if (facts == null || facts.getCreatedAt() == null) {
+            return;
+        }
+        long cents = sign * toCents(facts.getAmount());
+        if (facts.getStatus() != null) {
+            add(Dimension.STATUS, facts.getStatus().name(), facts.getCreatedAt().toLocalDate().toEpochDay(), sign, cents);
+        }
+        if (facts.isVerified()) {
+            LocalDateTime verifiedAt = facts.getVerifiedAt() != null ? facts.getVerifiedAt() : facts.getCreatedAt();
+            long day = verifiedAt.toLocalDate().toEpochDay();
+            String category = facts.getCategoryId() != null ? facts.getCategoryId().toString() : UNCATEGORIZED;
+            if (sign > 0 && facts.getCategoryName() != null) {
+                categoryNames.put(category, facts.getCategoryName());
+            }
+            add(Dimension.CATEGORY, category, day, sign, cents);
+            add(Dimension.METHOD, facts.getPaymentMethod() != null ? facts.getPaymentMethod().name() : NO_METHOD,
+                    day, sign, cents);
+        }
+    }
+
+    // Caller holds the write lock
+    private void add(Dimension dimension, String member, long epochDay, long count, long cents) {
+        long index = epochDay - firstDay;
+        if (index < 0) {
+            return; // older than the retention window
+        }
+        series.get(dimension).computeIfAbsent(member, key -> new DailySeries(retentionDays + 32))
+                .add((int) index, count, cents);
+    }
+
+    // Trailing average daily amount; days before the range fill the window where available
+    private double[] rollingAverage(DailySeries daily, long start, int days, int window) {
+        double[] averages = new double[days];
+        long sum = 0;
+        for (long index = start - window + 1; index < start; index++) {
+            sum += daily.cents(index);
+        }
+        for (int day = 0; day < days; day++) {
+            sum += daily.cents(start + day);
+            averages[day] = sum / 100.0 / window;
+            sum -= daily.cents(start + day - window + 1);
+        }
+        return averages;
+    }
+
+    private String label(Dimension dimension, String member) {
+        switch (dimension) {
+            case CATEGORY:
+                return UNCATEGORIZED.equals(member) ? "Uncategorized" : categoryNames.getOrDefault(member, "Category " + member);
+            case METHOD:
+                return NO_METHOD.equals(member) ? "Not set" : member.replace('_', ' ');
+            default:
+                return member;
+        }
+    }
+
+    private static double[] toAmounts(long[] cents) {
+        double[] amounts = new double[cents.length];
+        for (int i = 0; i < cents.length; i++) {
+            amounts[i] = cents[i] / 100.0;
+        }
+        return amounts;
+    }
+
+    private static long toCents(Object amount) {
+        if (amount == null) {
+            return 0;
+        }
+        BigDecimal value = amount instanceof BigDecimal ? (BigDecimal) amount : new BigDecimal(amount.toString());
+        return value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * Count and amount (cents) per day, indexed from firstDay; grows as days pass
+     */
+    private static final class DailySeries {
+        private long[] counts;
+        private long[] cents;
+
+        DailySeries(int capacity) {
+            counts = new long[capacity];
+            cents = new long[capacity];
+        }
+
+        void add(int index, long count, long amountCents) {
+            if (index >= counts.length) {
+                int capacity = Math.max(index + 1, counts.length + counts.length / 2);
+                counts = Arrays.copyOf(counts, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+            }
+            counts[index] += count;
+            cents[index] += amountCents;
+        }
+
+        long count(long index) {
+            return index >= 0 && index < counts.length ? counts[(int) index] : 0;
+        }
+
+        long cents(long index) {
+            return index >= 0 && index < cents.length ? cents[(int) index] : 0;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.helpdesk.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payment time series for one breakdown (status, category or payment method) over a date range
+ * Every series has one value per bucket (day or week, see buckets).
+ */
+public class PaymentTimeSeriesDTO {
+
+    private String dimension;
+    private String granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private List<LocalDate> buckets = new ArrayList<>(); // first day of each bucket
+    private List<Series> series = new ArrayList<>();
+
+    /**
+     * Values of one member (e.g. one category)
+     */
+    public static class Series {
+        private String member;
+        private String label;
+        private long[] counts;
+        private double[] amounts;
+        private double[] rollingAverage7;  // daily only: average daily amount over the last 7 days
+        private double[] rollingAverage30; // daily only: average daily amount over the last 30 days
+        private long totalCount;
+        private double totalAmount;
+
+        public Series() {}
+
+        public Series(String member, String label) {
+            this.member = member;
+            this.label = label;
+        }
+
+        public String getMember() {
+            return member;
+        }
+
+        public void setMember(String member) {
+            this.member = member;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public long[] getCounts() {
+            return counts;
+        }
+
+        public void setCounts(long[] counts) {
+            this.counts = counts;
+        }
+
+        public double[] getAmounts() {
+            return amounts;
+        }
+
+        public void setAmounts(double[] amounts) {
+            this.amounts = amounts;
+        }
+
+        public double[] getRollingAverage7() {
+            return rollingAverage7;
+        }
+
+        public void setRollingAverage7(double[] rollingAverage7) {
+            this.rollingAverage7 = rollingAverage7;
+        }
+
+        public double[] getRollingAverage30() {
+            return rollingAverage30;
+        }
+
+        public void setRollingAverage30(double[] rollingAverage30) {
+            this.rollingAverage30 = rollingAverage30;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public void setTotalCount(long totalCount) {
+            this.totalCount = totalCount;
+        }
+
+        public double getTotalAmount() {
+            return totalAmount;
+        }
+
+        public void setTotalAmount(double totalAmount) {
+            this.totalAmount = totalAmount;
+        }
+    }
+
+    // Getters and Setters
+    public String getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<LocalDate> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<LocalDate> buckets) {
+        this.buckets = buckets;
+    }
+
+    public List<Series> getSeries() {
+        return series;
+    }
+
+    public void setSeries(List<Series> series) {
+        this.series = series;
+    }
+}
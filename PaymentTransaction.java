@@ -17,7 +17,9 @@ import java.time.LocalDateTime;
  * Separate from Ticket entity to maintain clear separation of concerns
  */
 @Entity
-@Table(name = "payment_transactions")
+@Table(name = "payment_transactions", indexes = {
+        @Index(name = "idx_payment_transactions_status_lease", columnList = "status, lease_expires_at")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class PaymentTransaction {
 
@@ -83,6 +85,21 @@ public class PaymentTransaction {
     @Column(name = "last_modified_by", length = 100)
     private String lastModifiedBy;
 
+    // Key of the create form submission (unique) - repeated submissions return this row
+    @Column(name = "idempotency_key", unique = true, updatable = false, length = 64)
+    private String idempotencyKey;
+
+    // Verification work queue: claimed by lease_owner until lease_expires_at (expired = claimable again)
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    // Set on create when the submission looks like a duplicate of this transaction number (not stored)
+    @Transient
+    private String possibleDuplicateOf;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -253,6 +270,43 @@ public class PaymentTransaction {
         this.lastModifiedBy = lastModifiedBy;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    // Claimed by someone and the lease has not expired
+    public boolean isLeaseActive() {
+        return leaseOwner != null && leaseExpiresAt != null && leaseExpiresAt.isAfter(LocalDateTime.now());
+    }
+
+    public String getPossibleDuplicateOf() {
+        return possibleDuplicateOf;
+    }
+
+    public void setPossibleDuplicateOf(String possibleDuplicateOf) {
+        this.possibleDuplicateOf = possibleDuplicateOf;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -1,13 +1,21 @@
 package com.helpdesk.controller;
 
+import com.helpdesk.dto.BatchVerifyResultDTO;
 import com.helpdesk.entity.Category;
 import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.service.AttachmentPreviewService;
+import com.helpdesk.service.AttachmentStore;
+import com.helpdesk.service.ChunkedUploadService;
+import com.helpdesk.service.IdempotencyKeyRegistry;
 import com.helpdesk.service.PaymentTransactionService;
 import com.helpdesk.service.PaymentCategoryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -16,11 +24,12 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Payment Transaction Controller - Handles all payment transaction operations
@@ -36,7 +45,17 @@ public class PaymentTransactionController {
     @Autowired
     private PaymentCategoryService paymentCategoryService;
 
-    private static final String UPLOAD_DIR = "uploads/payment-attachments/";
+    @Autowired
+    private AttachmentStore attachmentStore;
+
+    @Autowired
+    private AttachmentPreviewService attachmentPreviewService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private IdempotencyKeyRegistry idempotencyKeyRegistry;
 
     private String getCurrentUsername(HttpSession session) {
         String paymentUser = (String) session.getAttribute("paymentUser");
@@ -101,6 +120,7 @@ public class PaymentTransactionController {
         model.addAttribute("paymentMethods", PaymentTransaction.PaymentMethod.values());
         model.addAttribute("statuses", PaymentTransaction.Status.values());
         model.addAttribute("username", paymentUser);
+        model.addAttribute("idempotencyKey", idempotencyKeyRegistry.newKey());
 
         return "payment/transaction-create";
     }
@@ -114,7 +134,9 @@ public class PaymentTransactionController {
             @Valid @ModelAttribute("transaction") PaymentTransaction transaction,
             BindingResult result,
             @RequestParam(value = "attachment", required = false) MultipartFile attachment,
+            @RequestParam(value = "uploadId", required = false) String uploadId,
             @RequestParam("categoryId") Long categoryId,
+            @RequestParam(value = "idempotencyKey", required = false) String idempotencyKey,
             Model model,
             RedirectAttributes redirectAttributes) {
 
@@ -129,30 +151,54 @@ public class PaymentTransactionController {
             model.addAttribute("paymentMethods", PaymentTransaction.PaymentMethod.values());
             model.addAttribute("statuses", PaymentTransaction.Status.values());
             model.addAttribute("username", paymentUser);
+            model.addAttribute("idempotencyKey", idempotencyKey); // same submission when corrected
             return "payment/transaction-create";
         }
 
         try {
             String currentUser = getCurrentUsername(session);
 
-            // Set category
-            Optional<Category> categoryOpt = paymentCategoryService.getCategoryById(categoryId);
-            if (categoryOpt.isPresent()) {
-                transaction.setCategory(categoryOpt.get());
-            }
-
-            // Handle file upload
-            if (attachment != null && !attachment.isEmpty()) {
-                String filename = saveAttachment(attachment);
-                transaction.setAttachmentFilename(filename);
+            // A repeated submission of the same form returns the transaction created by the first one
+            IdempotencyKeyRegistry.Outcome outcome = idempotencyKeyRegistry.execute("payment:" + paymentUser, idempotencyKey,
+                    () -> paymentTransactionService.findIdByIdempotencyKey(idempotencyKey),
+                    key -> {
+                        // Set category
+                        Optional<Category> categoryOpt = paymentCategoryService.getCategoryById(categoryId);
+                        if (categoryOpt.isPresent()) {
+                            transaction.setCategory(categoryOpt.get());
+                        }
+
+                        // Handle file upload
+                        try {
+                            if (attachment != null && !attachment.isEmpty()) {
+                                String filename = saveAttachment(attachment);
+                                transaction.setAttachmentFilename(filename);
+                            } else if (uploadId != null && !uploadId.isBlank()) {
+                                // Large file already uploaded in chunks
+                                transaction.setAttachmentFilename(chunkedUploadService.claim(uploadId, paymentUser));
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+
+                        // Create transaction
+                        transaction.setIdempotencyKey(key);
+                        return paymentTransactionService.createTransaction(transaction, currentUser).getId();
+                    });
+
+            if (outcome.isReplayed()) {
+                redirectAttributes.addFlashAttribute("successMessage",
+                        "This transaction was already submitted - showing the original transaction.");
+            } else {
+                redirectAttributes.addFlashAttribute("successMessage",
+                        "Transaction created successfully! Transaction Number: " + transaction.getTransactionNumber());
+                if (transaction.getPossibleDuplicateOf() != null) {
+                    redirectAttributes.addFlashAttribute("warningMessage",
+                            "Possible duplicate of transaction " + transaction.getPossibleDuplicateOf()
+                                    + " (same student, amount and reference number) - please check before verifying.");
+                }
             }
-
-            // Create transaction
-            PaymentTransaction created = paymentTransactionService.createTransaction(transaction, currentUser);
-
-            redirectAttributes.addFlashAttribute("successMessage",
-                    "Transaction created successfully! Transaction Number: " + created.getTransactionNumber());
-            return "redirect:/payment/transactions/" + created.getId();
+            return "redirect:/payment/transactions/" + outcome.getId();
 
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "Error creating transaction: " + e.getMessage());
@@ -177,6 +223,8 @@ public class PaymentTransactionController {
         Optional<PaymentTransaction> transactionOpt = paymentTransactionService.getTransactionById(id);
         if (transactionOpt.isPresent()) {
             model.addAttribute("transaction", transactionOpt.get());
+            model.addAttribute("studentBalance",
+                    paymentTransactionService.getStudentBalance(transactionOpt.get().getStudentId()));
             model.addAttribute("categories", paymentCategoryService.getActiveCategories());
             model.addAttribute("username", paymentUser);
             return "payment/transaction-view";
@@ -186,6 +234,64 @@ public class PaymentTransactionController {
         }
     }
 
+    /**
+     * VIEW: Download/display the attachment of a transaction (supports ETag and Range requests)
+     */
+    @GetMapping("/{id}/attachment")
+    public void downloadAttachment(@PathVariable Long id,
+                                   HttpSession session,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        // Check if user is logged in
+        if (session.getAttribute("paymentUser") == null) {
+            response.sendRedirect("/payment/login");
+            return;
+        }
+
+        Optional<PaymentTransaction> transactionOpt = paymentTransactionService.getTransactionById(id);
+        if (transactionOpt.isEmpty() || transactionOpt.get().getAttachmentFilename() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        attachmentStore.serve(transactionOpt.get().getAttachmentFilename(), request, response);
+    }
+
+    /**
+     * VIEW: Downscaled JPEG of an image attachment (size = thumbnail or preview)
+     */
+    @GetMapping("/{id}/attachment/{size:thumbnail|preview}")
+    public void downloadAttachmentImage(@PathVariable Long id,
+                                        @PathVariable String size,
+                                        HttpSession session,
+                                        HttpServletRequest request,
+                                        HttpServletResponse response) throws IOException {
+        // Check if user is logged in
+        if (session.getAttribute("paymentUser") == null) {
+            response.sendRedirect("/payment/login");
+            return;
+        }
+
+        Optional<PaymentTransaction> transactionOpt = paymentTransactionService.getTransactionById(id);
+        String key = transactionOpt.map(PaymentTransaction::getAttachmentFilename).orElse(null);
+        AttachmentPreviewService.Size imageSize = AttachmentPreviewService.Size.valueOf(size.toUpperCase());
+        Optional<Path> image;
+        try {
+            image = attachmentPreviewService.getDerivative(key, imageSize);
+        } catch (RejectedExecutionException e) {
+            // Render pool is saturated - the browser may try again later
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        if (image.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String hash = attachmentStore.hashOf(key);
+        attachmentStore.serveFile(image.get(), hash != null ? hash + "-" + size : null, "image/jpeg",
+                request, response);
+    }
+
     /**
      * EDIT: Show edit transaction form
      */
@@ -223,6 +329,7 @@ public class PaymentTransactionController {
                                     @ModelAttribute PaymentTransaction transaction,
                                     @RequestParam("categoryId") Long categoryId,
                                     @RequestParam(value = "attachment", required = false) MultipartFile attachment,
+                                    @RequestParam(value = "uploadId", required = false) String uploadId,
                                     RedirectAttributes redirectAttributes) {
         // Check if user is logged in
         String paymentUser = (String) session.getAttribute("paymentUser");
@@ -243,6 +350,9 @@ public class PaymentTransactionController {
             if (attachment != null && !attachment.isEmpty()) {
                 String filename = saveAttachment(attachment);
                 transaction.setAttachmentFilename(filename);
+            } else if (uploadId != null && !uploadId.isBlank()) {
+                // Large file already uploaded in chunks
+                transaction.setAttachmentFilename(chunkedUploadService.claim(uploadId, paymentUser));
             }
 
             // Update transaction
@@ -281,6 +391,40 @@ public class PaymentTransactionController {
         return "redirect:/payment/transactions/" + id;
     }
 
+    /**
+     * VERIFY: Verify/Reject all selected transactions at once
+     */
+    @PostMapping("/verify-batch")
+    public String verifyTransactions(HttpSession session,
+                                     @RequestParam(value = "ids", required = false) List<Long> ids,
+                                     @RequestParam Boolean verified,
+                                     RedirectAttributes redirectAttributes) {
+        // Check if user is logged in
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return "redirect:/payment/login";
+        }
+
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Select at least one transaction");
+            return "redirect:/payment/transactions";
+        }
+
+        try {
+            String currentUser = getCurrentUsername(session);
+            List<BatchVerifyResultDTO> results = paymentTransactionService.verifyTransactions(ids, verified, currentUser);
+            long processed = results.stream()
+                    .filter(result -> result.getOutcome() != BatchVerifyResultDTO.Outcome.NOT_FOUND)
+                    .count();
+            redirectAttributes.addFlashAttribute("batchResults", results);
+            redirectAttributes.addFlashAttribute("successMessage",
+                    processed + " transaction(s) " + (verified ? "verified" : "rejected") + " successfully");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Error verifying transactions: " + e.getMessage());
+        }
+        return "redirect:/payment/transactions";
+    }
+
     /**
      * STATUS: Update transaction status
      */
@@ -329,27 +473,13 @@ public class PaymentTransactionController {
     }
 
     /**
-     * HELPER: Save uploaded attachment file
+     * HELPER: Save uploaded attachment file (content-addressed) and queue its thumbnails
      */
     private String saveAttachment(MultipartFile file) throws IOException {
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        try (InputStream inputStream = file.getInputStream()) {
+            String key = attachmentStore.store(inputStream);
+            attachmentPreviewService.schedule(key);
+            return key;
         }
-
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename != null && originalFilename.contains(".") 
-                ? originalFilename.substring(originalFilename.lastIndexOf(".")) 
-                : "";
-        String uniqueFilename = UUID.randomUUID().toString() + extension;
-
-        // Save file
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath);
-
-        return uniqueFilename;
     }
 }
-
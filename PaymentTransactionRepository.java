@@ -4,12 +4,14 @@ import com.helpdesk.entity.PaymentTransaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +27,12 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
      */
     Optional<PaymentTransaction> findByTransactionNumber(String transactionNumber);
 
+    /**
+     * Id of the transaction created by a form submission (idempotency key)
+     */
+    @Query("SELECT pt.id FROM PaymentTransaction pt WHERE pt.idempotencyKey = :key")
+    Optional<Long> findIdByIdempotencyKey(@Param("key") String key);
+
     /**
      * Find all transactions by status
      */
@@ -103,9 +111,129 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
     );
 
     /**
-     * Get latest transaction number for auto-generation
+     * Highest transaction number with the given prefix (seeds a new year's number sequence)
+     * Ordered by length first so TXN-2025-10000 sorts after TXN-2025-9999
+     */
+    @Query("SELECT pt.transactionNumber FROM PaymentTransaction pt " +
+           "WHERE pt.transactionNumber LIKE CONCAT(:prefix, '%') " +
+           "ORDER BY LENGTH(pt.transactionNumber) DESC, pt.transactionNumber DESC")
+    List<String> findHighestTransactionNumber(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * All dashboard statistics in one scan, one row per category (null category = uncategorized)
+     * Columns: categoryId, categoryName, counts per status (PENDING, VERIFIED, REJECTED, ESCALATED,
+     * COMPLETED), verified count, amounts per status (same order), verified amount
+     */
+    @Query("SELECT c.id, c.name, " +
+           "SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.PENDING THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.VERIFIED THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.REJECTED THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.ESCALATED THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.COMPLETED THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN pt.verified = true THEN 1 ELSE 0 END), " +
+           "COALESCE(SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.PENDING THEN pt.amount END), 0), " +
+           "COALESCE(SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.VERIFIED THEN pt.amount END), 0), " +
+           "COALESCE(SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.REJECTED THEN pt.amount END), 0), " +
+           "COALESCE(SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.ESCALATED THEN pt.amount END), 0), " +
+           "COALESCE(SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.COMPLETED THEN pt.amount END), 0), " +
+           "COALESCE(SUM(CASE WHEN pt.verified = true THEN pt.amount END), 0) " +
+           "FROM PaymentTransaction pt LEFT JOIN pt.category c " +
+           "GROUP BY c.id, c.name")
+    List<Object[]> getStatsByCategory();
+
+    /**
+     * Matching fields of all transactions with a status (bank statement reconciliation index)
+     * Columns: id, referenceNumber, amount, studentId, createdAt
+     */
+    @Query("SELECT pt.id, pt.referenceNumber, pt.amount, pt.studentId, pt.createdAt " +
+           "FROM PaymentTransaction pt WHERE pt.status = :status")
+    List<Object[]> findMatchFieldsByStatus(@Param("status") PaymentTransaction.Status status);
+
+    /**
+     * Payment ledger totals recomputed from the transactions, one row per student
+     * Columns: studentId, count, total amount, verified amount, pending amount
+     */
+    @Query("SELECT pt.studentId, COUNT(pt), COALESCE(SUM(pt.amount), 0), " +
+           "COALESCE(SUM(CASE WHEN pt.verified = true THEN pt.amount END), 0), " +
+           "COALESCE(SUM(CASE WHEN pt.status = com.helpdesk.entity.PaymentTransaction.Status.PENDING THEN pt.amount END), 0) " +
+           "FROM PaymentTransaction pt GROUP BY pt.studentId")
+    List<Object[]> getLedgerTotalsByStudent();
+
+    /**
+     * Recent submissions for the duplicate detector, oldest first
+     * Columns: id, transactionNumber, studentId, amount, referenceNumber, createdAt
+     */
+    @Query("SELECT pt.id, pt.transactionNumber, pt.studentId, pt.amount, pt.referenceNumber, pt.createdAt " +
+           "FROM PaymentTransaction pt WHERE pt.createdAt >= :since AND pt.status <> :excludedStatus " +
+           "ORDER BY pt.createdAt, pt.id")
+    List<Object[]> getSubmissionsSince(@Param("since") LocalDateTime since,
+                                       @Param("excludedStatus") PaymentTransaction.Status excludedStatus);
+
+    /**
+     * Daily count and amount per status since a date (payment time series), by creation day
+     * Columns: day, status, count, amount
+     */
+    @Query("SELECT CAST(pt.createdAt AS LocalDate), pt.status, COUNT(pt), COALESCE(SUM(pt.amount), 0) " +
+           "FROM PaymentTransaction pt WHERE pt.createdAt >= :since " +
+           "GROUP BY CAST(pt.createdAt AS LocalDate), pt.status")
+    List<Object[]> getDailyTotalsByStatus(@Param("since") LocalDateTime since);
+
+    /**
+     * Daily verified count and amount per category and payment method since a date, by verification day
+     * Columns: day, categoryId, categoryName, paymentMethod, count, amount
+     */
+    @Query("SELECT CAST(COALESCE(pt.verifiedAt, pt.createdAt) AS LocalDate), c.id, c.name, pt.paymentMethod, " +
+           "COUNT(pt), COALESCE(SUM(pt.amount), 0) " +
+           "FROM PaymentTransaction pt LEFT JOIN pt.category c " +
+           "WHERE pt.verified = true AND COALESCE(pt.verifiedAt, pt.createdAt) >= :since " +
+           "GROUP BY CAST(COALESCE(pt.verifiedAt, pt.createdAt) AS LocalDate), c.id, c.name, pt.paymentMethod")
+    List<Object[]> getDailyVerifiedTotals(@Param("since") LocalDateTime since);
+
+    /**
+     * Verification queue candidates: unclaimed PENDING ids by priority (plain read, no locks)
+     * Priority = hours waiting + amount / amountPerHour, so large payments move up the queue
+     */
+    @Query(value = "SELECT id FROM payment_transactions " +
+                   "WHERE status = 'PENDING' AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+                   "ORDER BY TIMESTAMPDIFF(MINUTE, created_at, :now) / 60 + amount / :amountPerHour DESC, id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findQueueCandidates(@Param("now") LocalDateTime now,
+                                   @Param("amountPerHour") BigDecimal amountPerHour,
+                                   @Param("limit") int limit);
+
+    /**
+     * Lock the candidates that are still claimable (MySQL 8: rows locked by another claimer are skipped)
+     */
+    @Query(value = "SELECT id FROM payment_transactions " +
+                   "WHERE id IN (:ids) AND status = 'PENDING' AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> lockClaimable(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PaymentTransaction pt SET pt.leaseOwner = :owner, pt.leaseExpiresAt = :expiresAt WHERE pt.id IN :ids")
+    int lease(@Param("ids") List<Long> ids, @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE PaymentTransaction pt SET pt.leaseOwner = NULL, pt.leaseExpiresAt = NULL " +
+           "WHERE pt.id = :id AND pt.leaseOwner = :owner")
+    int releaseLease(@Param("id") Long id, @Param("owner") String owner);
+
+    /**
+     * Active leases of one verifier, oldest first
+     */
+    @Query("SELECT pt FROM PaymentTransaction pt LEFT JOIN FETCH pt.category " +
+           "WHERE pt.leaseOwner = :owner AND pt.leaseExpiresAt > :now AND pt.status = :status ORDER BY pt.createdAt")
+    List<PaymentTransaction> findActiveLeases(@Param("owner") String owner,
+                                              @Param("now") LocalDateTime now,
+                                              @Param("status") PaymentTransaction.Status status);
+
+    /**
+     * Pending transactions waiting in the queue (not under an active lease)
      */
-    @Query("SELECT pt.transactionNumber FROM PaymentTransaction pt ORDER BY pt.id DESC")
-    List<String> findLatestTransactionNumber(Pageable pageable);
+    @Query("SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.status = :status " +
+           "AND (pt.leaseExpiresAt IS NULL OR pt.leaseExpiresAt < :now)")
+    long countUnclaimed(@Param("status") PaymentTransaction.Status status, @Param("now") LocalDateTime now);
 }
 
@@ -1,24 +1,48 @@
 package com.helpdesk.service;
 
+import com.helpdesk.dto.BatchVerifyResultDTO;
+import com.helpdesk.dto.PaymentStatsDTO;
 import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.entity.StudentPaymentBalance;
 import com.helpdesk.entity.Category;
 import com.helpdesk.repository.PaymentTransactionRepository;
 import com.helpdesk.repository.CategoryRepository;
+import com.helpdesk.strategy.PaymentDecisionTable;
+import com.helpdesk.strategy.PaymentRulesEngine;
 import com.helpdesk.strategy.PaymentStrategy;
 import com.helpdesk.strategy.CategoryStrategy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for Payment Transaction operations
@@ -29,6 +53,8 @@ import java.util.Optional;
 @Transactional
 public class PaymentTransactionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PaymentTransactionService.class);
+
     @Autowired
     private PaymentTransactionRepository paymentTransactionRepository;
 
@@ -41,37 +67,63 @@ public class PaymentTransactionService {
     @Autowired
     private CategoryStrategy categoryStrategy; // Strategy Pattern for category validation
 
+    @Autowired
+    private PaymentRulesEngine paymentRulesEngine;
+
+    @Autowired
+    private TransactionNumberAllocator transactionNumberAllocator;
+
+    @Autowired
+    private PaymentStatsSnapshot paymentStatsSnapshot;
+
+    @Autowired
+    private PaymentLedgerService paymentLedgerService;
+
+    @Autowired
+    private PaymentTimeSeries paymentTimeSeries;
+
+    @Autowired
+    private DuplicatePaymentDetector duplicatePaymentDetector;
+
+    @Value("${payment.verify.batch.max-size:500}")
+    private int batchVerifyMaxSize;
+
+    // 0 = one thread per available core
+    @Value("${payment.verify.batch.parallelism:0}")
+    private int batchVerifyParallelism;
+
+    private ThreadPoolExecutor strategyPool;
+
+    @PostConstruct
+    public void init() {
+        if (batchVerifyParallelism <= 0) {
+            batchVerifyParallelism = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        strategyPool = new ThreadPoolExecutor(batchVerifyParallelism, batchVerifyParallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        strategyPool.shutdownNow();
+    }
+
     /**
      * CREATE: Create new payment transaction
      * Uses Strategy Pattern for category validation and auto-verification
      */
     public PaymentTransaction createTransaction(PaymentTransaction transaction, String createdBy) {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("🎯 STRATEGY PATTERN DEMONSTRATION - CREATING PAYMENT TRANSACTION");
-        System.out.println("=".repeat(80));
-        
         // Auto-generate transaction number
-        String transactionNumber = generateTransactionNumber();
-        transaction.setTransactionNumber(transactionNumber);
-        System.out.println("📋 Transaction Number: " + transactionNumber);
-        System.out.println("👤 Student: " + transaction.getStudentName() + " (" + transaction.getStudentId() + ")");
-        System.out.println("💰 Amount: Rs. " + transaction.getAmount());
-        System.out.println("📁 Category: " + (transaction.getCategory() != null ? transaction.getCategory().getName() : "N/A"));
+        transaction.setTransactionNumber(generateTransactionNumber());
         
-        // STRATEGY PATTERN #1: Category Validation
-        System.out.println("\n" + "-".repeat(80));
-        System.out.println("🔍 STRATEGY #1: CATEGORY VALIDATION");
-        System.out.println("-".repeat(80));
+        // STRATEGY PATTERN #1: Category Validation (decision is recorded in the strategy audit log)
         if (transaction.getCategory() != null) {
-            System.out.println("✓ Active Strategy: " + categoryStrategy.getStrategyName());
-            boolean isValid = categoryStrategy.validateCategory(transaction.getCategory());
-            System.out.println("✓ Validation Result: " + (isValid ? "PASSED ✅" : "FAILED ❌"));
-            
-            if (!isValid) {
-                System.out.println("⚠️  Category validation failed according to " + categoryStrategy.getStrategyName());
-            }
-        } else {
-            System.out.println("⚠️  No category provided - skipping validation");
+            categoryStrategy.validateCategory(transaction.getCategory());
         }
         
         // Set timestamps
@@ -91,25 +143,16 @@ public class PaymentTransactionService {
         // Set creator
         transaction.setLastModifiedBy(createdBy);
         
-        // STRATEGY PATTERN #2: Automated Payment Verification (if enabled)
-        System.out.println("\n" + "-".repeat(80));
-        System.out.println("🔍 STRATEGY #2: PAYMENT VERIFICATION");
-        System.out.println("-".repeat(80));
-        System.out.println("✓ Active Strategy: " + paymentStrategy.getStrategyName());
-        
-        // Note: We'll use the strategy for verification, not creation
-        // Verification happens in verifyTransaction() method
-        System.out.println("ℹ️  Payment verification will be applied when verify() is called");
-        System.out.println("ℹ️  Current Status: " + transaction.getStatus());
-        
+        // STRATEGY PATTERN #2: Payment verification is applied when verifyTransaction() is called
         PaymentTransaction saved = paymentTransactionRepository.save(transaction);
-        
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("✅ TRANSACTION CREATED SUCCESSFULLY");
-        System.out.println("📝 Transaction ID: " + saved.getId());
-        System.out.println("📋 Transaction Number: " + saved.getTransactionNumber());
-        System.out.println("📊 Status: " + saved.getStatus());
-        System.out.println("=".repeat(80) + "\n");
+
+        // Same student, amount and reference within the window: flag it, or refuse it (rolls back) in block mode
+        DuplicatePaymentDetector.Match duplicate = duplicatePaymentDetector.register(saved);
+        if (duplicate != null) {
+            saved.setPossibleDuplicateOf(duplicate.getTransactionNumber());
+        }
+        recordChange(null, PaymentStatsSnapshot.factsOf(saved));
+        logger.debug("Created payment transaction {} ({})", saved.getTransactionNumber(), saved.getStatus());
         
         return saved;
     }
@@ -121,6 +164,14 @@ public class PaymentTransactionService {
         return paymentTransactionRepository.findById(id);
     }
 
+    /**
+     * READ: Id of the transaction created with an idempotency key (null if none)
+     */
+    @Transactional(readOnly = true)
+    public Long findIdByIdempotencyKey(String idempotencyKey) {
+        return paymentTransactionRepository.findIdByIdempotencyKey(idempotencyKey).orElse(null);
+    }
+
     /**
      * READ: Get all transactions with pagination
      */
@@ -202,6 +253,7 @@ public class PaymentTransactionService {
         }
         
         PaymentTransaction existing = existingOpt.get();
+        PaymentStatsSnapshot.Facts before = PaymentStatsSnapshot.factsOf(existing);
         
         // Update fields
         existing.setStudentName(updatedTransaction.getStudentName());
@@ -224,7 +276,9 @@ public class PaymentTransactionService {
         existing.setUpdatedAt(LocalDateTime.now());
         existing.setLastModifiedBy(modifiedBy);
         
-        return paymentTransactionRepository.save(existing);
+        PaymentTransaction saved = paymentTransactionRepository.save(existing);
+        recordChange(before, PaymentStatsSnapshot.factsOf(saved));
+        return saved;
     }
 
     /**
@@ -239,35 +293,14 @@ public class PaymentTransactionService {
         }
         
         PaymentTransaction transaction = transactionOpt.get();
-        
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("🎯 STRATEGY PATTERN DEMONSTRATION - VERIFYING PAYMENT");
-        System.out.println("=".repeat(80));
-        System.out.println("📋 Transaction: " + transaction.getTransactionNumber());
-        System.out.println("💰 Amount: Rs. " + transaction.getAmount());
-        System.out.println("👤 Student: " + transaction.getStudentName());
-        System.out.println("📁 Category: " + (transaction.getCategory() != null ? transaction.getCategory().getName() : "N/A"));
-        
-        System.out.println("\n" + "-".repeat(80));
-        System.out.println("🔍 STRATEGY PATTERN: PAYMENT VERIFICATION");
-        System.out.println("-".repeat(80));
-        System.out.println("✓ Active Strategy: " + paymentStrategy.getStrategyName());
-        System.out.println("✓ Manual Verification Request: " + (verified ? "APPROVE ✅" : "REJECT ❌"));
+        PaymentStatsSnapshot.Facts before = PaymentStatsSnapshot.factsOf(transaction);
         
         // STRATEGY PATTERN: Use configured payment strategy
-        // Create a temporary ticket-like object for strategy compatibility
-        com.helpdesk.entity.Ticket tempTicket = new com.helpdesk.entity.Ticket();
-        // Convert BigDecimal to Double for Ticket entity compatibility
-        if (transaction.getAmount() != null) {
-            tempTicket.setAmount(transaction.getAmount().doubleValue());
-        }
-        
-        boolean strategyResult = paymentStrategy.verifyPayment(tempTicket);
-        System.out.println("✓ Strategy Recommendation: " + (strategyResult ? "AUTO-APPROVE ✅" : "MANUAL REVIEW REQUIRED ⚠️"));
+        // The strategy's recommendation is recorded in the strategy audit log
+        paymentStrategy.verifyPayment(transaction);
         
         // Final decision: Manual verification overrides strategy if provided
         boolean finalVerification = verified;
-        System.out.println("✓ Final Decision: " + (finalVerification ? "VERIFIED ✅" : "REJECTED ❌"));
         
         transaction.setVerified(finalVerification);
         transaction.setVerifiedBy(verifiedBy);
@@ -276,26 +309,125 @@ public class PaymentTransactionService {
         // Update status based on verification
         if (finalVerification) {
             transaction.setStatus(PaymentTransaction.Status.VERIFIED);
-            System.out.println("📊 Status Updated: PENDING → VERIFIED");
         } else {
             transaction.setStatus(PaymentTransaction.Status.REJECTED);
-            System.out.println("📊 Status Updated: PENDING → REJECTED");
         }
         
         transaction.setUpdatedAt(LocalDateTime.now());
         transaction.setLastModifiedBy(verifiedBy);
         
         PaymentTransaction saved = paymentTransactionRepository.save(transaction);
-        
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("✅ VERIFICATION COMPLETED");
-        System.out.println("📝 Verified By: " + verifiedBy);
-        System.out.println("🕒 Verified At: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-        System.out.println("=".repeat(80) + "\n");
+        recordChange(before, PaymentStatsSnapshot.factsOf(saved));
+        logger.debug("Payment transaction {} {} by {}", saved.getTransactionNumber(), saved.getStatus(), verifiedBy);
         
         return saved;
     }
 
+    /**
+     * VERIFY: Verify/Reject a batch of transactions
+     * The transactions are loaded with one query, the payment strategy is evaluated for all of them
+     * in parallel and the changes are flushed as JDBC batch updates when the transaction commits.
+     * As with verifyTransaction(), the verifier's decision is final; the strategy only recommends.
+     * @return one result per distinct id, in request order
+     */
+    public List<BatchVerifyResultDTO> verifyTransactions(Collection<Long> ids, Boolean verified, String verifiedBy) {
+        return applyVerification(ids, verified, verifiedBy, false);
+    }
+
+    /**
+     * VERIFY: Auto-verify a batch of pending transactions (e.g. matched on a bank statement)
+     * Only an explicit APPROVE decision of the automated strategy verifies a transaction; under the
+     * manual strategy, and for review or reject decisions, transactions are left pending. Transactions
+     * that are no longer pending are left unchanged.
+     * @return one result per distinct id, in request order
+     */
+    public List<BatchVerifyResultDTO> autoVerifyTransactions(Collection<Long> ids, String verifiedBy) {
+        return applyVerification(ids, true, verifiedBy, true);
+    }
+
+    private List<BatchVerifyResultDTO> applyVerification(Collection<Long> ids, Boolean verified, String verifiedBy,
+                                                         boolean strategyDecides) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() > batchVerifyMaxSize) {
+            throw new RuntimeException("At most " + batchVerifyMaxSize + " transactions can be verified at once");
+        }
+
+        Map<Long, PaymentTransaction> transactions = paymentTransactionRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(PaymentTransaction::getId, Function.identity()));
+        Map<Long, Boolean> recommendations = evaluateStrategy(transactions.values());
+        PaymentDecisionTable decisionTable = paymentRulesEngine.current();
+
+        LocalDateTime now = LocalDateTime.now();
+        PaymentTransaction.Status status = verified ? PaymentTransaction.Status.VERIFIED : PaymentTransaction.Status.REJECTED;
+        List<BatchVerifyResultDTO> results = new ArrayList<>(distinctIds.size());
+        List<PaymentTransaction> changed = new ArrayList<>(transactions.size());
+        for (Long id : distinctIds) {
+            PaymentTransaction transaction = transactions.get(id);
+            if (transaction == null) {
+                results.add(new BatchVerifyResultDTO(id, null, BatchVerifyResultDTO.Outcome.NOT_FOUND, null));
+                continue;
+            }
+            if (strategyDecides && transaction.getStatus() != PaymentTransaction.Status.PENDING) {
+                results.add(new BatchVerifyResultDTO(id, transaction.getTransactionNumber(),
+                        BatchVerifyResultDTO.Outcome.NOT_PENDING, recommendations.get(id)));
+                continue;
+            }
+            if (strategyDecides && !isApproved(decisionTable, transaction)) {
+                results.add(new BatchVerifyResultDTO(id, transaction.getTransactionNumber(),
+                        BatchVerifyResultDTO.Outcome.DECLINED, false));
+                continue;
+            }
+            PaymentStatsSnapshot.Facts before = PaymentStatsSnapshot.factsOf(transaction);
+            transaction.setVerified(verified);
+            transaction.setVerifiedBy(verifiedBy);
+            transaction.setVerifiedAt(now);
+            transaction.setStatus(status);
+            transaction.setUpdatedAt(now);
+            transaction.setLastModifiedBy(verifiedBy);
+            recordChange(before, PaymentStatsSnapshot.factsOf(transaction));
+            changed.add(transaction);
+            results.add(new BatchVerifyResultDTO(id, transaction.getTransactionNumber(),
+                    verified ? BatchVerifyResultDTO.Outcome.VERIFIED : BatchVerifyResultDTO.Outcome.REJECTED,
+                    recommendations.get(id)));
+        }
+
+        paymentTransactionRepository.saveAll(changed);
+        logger.debug("Batch {} {} payment transactions by {}", status, changed.size(), verifiedBy);
+
+        return results;
+    }
+
+    // "Accepted for review" under the manual strategy is not an approval
+    private boolean isApproved(PaymentDecisionTable decisionTable, PaymentTransaction transaction) {
+        return decisionTable.isAutomated()
+                && decisionTable.decide(transaction).getAction() == PaymentDecisionTable.Action.APPROVE;
+    }
+
+    // Strategy recommendation per transaction id, evaluated on the strategy pool
+    private Map<Long, Boolean> evaluateStrategy(Collection<PaymentTransaction> transactions) {
+        List<Callable<Boolean>> tasks = new ArrayList<>(transactions.size());
+        List<Long> ids = new ArrayList<>(transactions.size());
+        for (PaymentTransaction transaction : transactions) {
+            ids.add(transaction.getId());
+            // The strategy only reads amount, payment method and the (eagerly loaded) category
+            tasks.add(() -> paymentStrategy.verifyPayment(transaction));
+        }
+
+        try {
+            List<Future<Boolean>> futures = strategyPool.invokeAll(tasks);
+            Map<Long, Boolean> recommendations = new HashMap<>();
+            for (int i = 0; i < futures.size(); i++) {
+                recommendations.put(ids.get(i), futures.get(i).get());
+            }
+            return recommendations;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while verifying transactions", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error evaluating payment strategy: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
     /**
      * UPDATE: Update transaction status
      */
@@ -307,18 +439,33 @@ public class PaymentTransactionService {
         }
         
         PaymentTransaction transaction = transactionOpt.get();
+        PaymentStatsSnapshot.Facts before = PaymentStatsSnapshot.factsOf(transaction);
         transaction.setStatus(status);
         transaction.setUpdatedAt(LocalDateTime.now());
         transaction.setLastModifiedBy(modifiedBy);
         
-        return paymentTransactionRepository.save(transaction);
+        PaymentTransaction saved = paymentTransactionRepository.save(transaction);
+        recordChange(before, PaymentStatsSnapshot.factsOf(saved));
+        return saved;
     }
 
     /**
      * DELETE: Delete transaction
      */
     public void deleteTransaction(Long id) {
-        paymentTransactionRepository.deleteById(id);
+        paymentTransactionRepository.findById(id).ifPresent(transaction -> {
+            recordChange(PaymentStatsSnapshot.factsOf(transaction), null);
+            paymentTransactionRepository.delete(transaction);
+        });
+    }
+
+    /**
+     * STATISTICS: All dashboard statistics (served from the in-memory snapshot)
+     * No transaction, so a dashboard view does not even borrow a connection
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public PaymentStatsDTO getPaymentStats() {
+        return paymentStatsSnapshot.getStats();
     }
 
     /**
@@ -350,49 +497,40 @@ public class PaymentTransactionService {
     }
 
     /**
-     * STATISTICS: Get total verified amount
+     * STATISTICS: Get total verified amount (running ledger total)
      */
     public BigDecimal getTotalVerifiedAmount() {
-        BigDecimal total = paymentTransactionRepository.sumAmountByVerified(true);
-        return total != null ? total : BigDecimal.ZERO;
+        return paymentLedgerService.getGlobalTotals().getPaidAmount();
     }
 
     /**
-     * STATISTICS: Get total pending amount
+     * STATISTICS: Get total pending amount (running ledger total)
      */
     public BigDecimal getTotalPendingAmount() {
-        BigDecimal total = paymentTransactionRepository.sumAmountByStatus(PaymentTransaction.Status.PENDING);
-        return total != null ? total : BigDecimal.ZERO;
+        return paymentLedgerService.getGlobalTotals().getPendingAmount();
+    }
+
+    /**
+     * STATISTICS: Paid/pending totals of one student (running ledger totals)
+     */
+    public StudentPaymentBalance getStudentBalance(String studentId) {
+        return paymentLedgerService.getBalance(studentId);
+    }
+
+    // Every write reports the before/after state to the dashboard snapshot and the payment ledger
+    private void recordChange(PaymentStatsSnapshot.Facts before, PaymentStatsSnapshot.Facts after) {
+        paymentStatsSnapshot.recordChange(before, after);
+        paymentLedgerService.record(before, after);
+        paymentTimeSeries.recordChange(before, after);
+        duplicatePaymentDetector.recordChange(before, after);
     }
 
     /**
      * HELPER: Generate unique transaction number
-     * Format: TXN-YYYY-NNNN (e.g., TXN-2025-0001)
+     * Format: TXN-YYYY-NNNN (e.g., TXN-2025-0001), allocated from pre-reserved blocks
      */
     private String generateTransactionNumber() {
-        String year = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy"));
-        String prefix = "TXN-" + year + "-";
-        
-        // Get latest transaction number
-        Pageable pageable = PageRequest.of(0, 1);
-        List<String> latestNumbers = paymentTransactionRepository.findLatestTransactionNumber(pageable);
-        
-        int nextNumber = 1;
-        
-        if (!latestNumbers.isEmpty()) {
-            String latestNumber = latestNumbers.get(0);
-            if (latestNumber != null && latestNumber.startsWith(prefix)) {
-                try {
-                    String numberPart = latestNumber.substring(prefix.length());
-                    nextNumber = Integer.parseInt(numberPart) + 1;
-                } catch (Exception e) {
-                    // If parsing fails, start from 1
-                    nextNumber = 1;
-                }
-            }
-        }
-        
-        return prefix + String.format("%04d", nextNumber);
+        return transactionNumberAllocator.nextTransactionNumber();
     }
 
     /**
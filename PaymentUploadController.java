@@ -0,0 +1,139 @@
+package com.helpdesk.controller;
+
+import com.helpdesk.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Payment Upload Controller - Resumable chunked uploads for attachments larger than the form upload limit
+ * POST starts an upload, PUT ?offset= appends the raw request body, GET reports the current offset
+ * (to resume), POST /complete commits it; the form then submits the uploadId.
+ */
+@Controller
+@RequestMapping("/payment/uploads")
+public class PaymentUploadController {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> startUpload(HttpSession session,
+                                                           @RequestParam String filename,
+                                                           @RequestParam long size) throws IOException {
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            ChunkedUploadService.UploadSession upload = chunkedUploadService.start(paymentUser, filename, size);
+            return ResponseEntity.status(HttpStatus.CREATED).body(uploadResponse(upload));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        }
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> getUpload(HttpSession session, @PathVariable String uploadId) {
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(uploadResponse(chunkedUploadService.get(uploadId, paymentUser)));
+        } catch (RuntimeException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // Body = raw bytes of the chunk (application/octet-stream), read straight from the request
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> appendChunk(HttpSession session,
+                                                           @PathVariable String uploadId,
+                                                           @RequestParam long offset,
+                                                           HttpServletRequest request) throws IOException {
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try (InputStream body = request.getInputStream()) {
+            chunkedUploadService.append(uploadId, paymentUser, offset, body);
+            return ResponseEntity.ok(uploadResponse(chunkedUploadService.get(uploadId, paymentUser)));
+        } catch (IllegalStateException e) {
+            // Wrong offset - the client resumes from the offset in the response
+            ChunkedUploadService.UploadSession upload;
+            try {
+                upload = chunkedUploadService.get(uploadId, paymentUser);
+            } catch (RuntimeException expired) {
+                // Expired or cancelled since the chunk was rejected
+                return error(HttpStatus.NOT_FOUND, expired.getMessage());
+            }
+            Map<String, Object> response = uploadResponse(upload);
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        } catch (RuntimeException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<Map<String, Object>> completeUpload(HttpSession session,
+                                                              @PathVariable String uploadId,
+                                                              @RequestParam(required = false) String sha256)
+            throws IOException {
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(uploadResponse(chunkedUploadService.complete(uploadId, paymentUser, sha256)));
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RuntimeException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> cancelUpload(HttpSession session, @PathVariable String uploadId) throws IOException {
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            chunkedUploadService.cancel(uploadId, paymentUser);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private Map<String, Object> uploadResponse(ChunkedUploadService.UploadSession upload) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("uploadId", upload.getUploadId());
+        response.put("filename", upload.getFilename());
+        response.put("size", upload.getSize());
+        response.put("offset", upload.getReceived());
+        response.put("chunkSize", chunkedUploadService.getChunkSizeBytes());
+        response.put("complete", upload.isComplete());
+        response.put("sha256", upload.getSha256());
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("error", message);
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,86 @@
+package com.helpdesk.controller;
+
+import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.service.PaymentWorkQueueService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.util.List;
+
+/**
+ * Payment Work Queue Controller - Verifiers claim the next pending transactions instead of picking from the list
+ */
+@Controller
+@RequestMapping("/payment/queue")
+public class PaymentWorkQueueController {
+
+    @Autowired
+    private PaymentWorkQueueService paymentWorkQueueService;
+
+    /**
+     * Show the transactions claimed by the current verifier
+     */
+    @GetMapping
+    public String showQueue(HttpSession session, Model model) {
+        // Check if user is logged in
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return "redirect:/payment/login";
+        }
+
+        model.addAttribute("claimed", paymentWorkQueueService.getActiveLeases(paymentUser));
+        model.addAttribute("unclaimedCount", paymentWorkQueueService.getUnclaimedCount());
+        model.addAttribute("leaseMinutes", paymentWorkQueueService.getLeaseMinutes());
+        model.addAttribute("maxClaim", paymentWorkQueueService.getMaxClaim());
+        model.addAttribute("paymentUser", paymentUser);
+        return "payment/queue";
+    }
+
+    /**
+     * Claim the next pending transactions
+     */
+    @PostMapping("/claim")
+    public String claimNext(HttpSession session,
+                            @RequestParam(defaultValue = "5") int count,
+                            RedirectAttributes redirectAttributes) {
+        // Check if user is logged in
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return "redirect:/payment/login";
+        }
+
+        List<PaymentTransaction> claimed = paymentWorkQueueService.claimNext(paymentUser, count);
+        if (claimed.isEmpty()) {
+            redirectAttributes.addFlashAttribute("successMessage", "The queue is empty - no pending transactions left to claim.");
+        } else {
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Claimed " + claimed.size() + " transaction(s) for " + paymentWorkQueueService.getLeaseMinutes() + " minutes.");
+        }
+        return "redirect:/payment/queue";
+    }
+
+    /**
+     * Give a claimed transaction back to the queue
+     */
+    @PostMapping("/{id}/release")
+    public String release(HttpSession session,
+                          @PathVariable Long id,
+                          RedirectAttributes redirectAttributes) {
+        // Check if user is logged in
+        String paymentUser = (String) session.getAttribute("paymentUser");
+        if (paymentUser == null) {
+            return "redirect:/payment/login";
+        }
+
+        if (paymentWorkQueueService.release(id, paymentUser)) {
+            redirectAttributes.addFlashAttribute("successMessage", "Transaction returned to the queue.");
+        } else {
+            redirectAttributes.addFlashAttribute("errorMessage", "The transaction is not claimed by you.");
+        }
+        return "redirect:/payment/queue";
+    }
+}
@@ -0,0 +1,124 @@
+package com.helpdesk.service;
+
+import com.helpdesk.entity.PaymentTransaction;
+import com.helpdesk.repository.PaymentTransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Verification work queue for payment staff
+ * "Claim next" leases the highest-priority PENDING transactions (longest waiting, weighted by
+ * amount) to one verifier for a limited time. Candidates are ranked with a plain read; only the
+ * chosen rows are then locked with SELECT ... FOR UPDATE SKIP LOCKED, so concurrent claimers skip
+ * each other's rows instead of waiting and every verifier gets disjoint work. A lease that is not
+ * finished simply expires and the transaction is claimable again - no cleanup job is needed.
+ */
+@Service
+@Transactional
+public class PaymentWorkQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWorkQueueService.class);
+
+    // Candidates ranked per claimed transaction - slack for rows taken by concurrent claimers
+    private static final int CANDIDATES_PER_CLAIM = 4;
+    private static final int MAX_ROUNDS = 3;
+
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    @Value("${payment.queue.lease-minutes:15}")
+    private long leaseMinutes;
+
+    @Value("${payment.queue.max-claim:20}")
+    private int maxClaim;
+
+    // Amount that counts as one hour of waiting when ranking the queue
+    @Value("${payment.queue.amount-per-hour:100}")
+    private BigDecimal amountPerHour;
+
+    /**
+     * Claim up to count pending transactions for the verifier
+     * @return the transactions claimed now (may be fewer than count when the queue is short)
+     */
+    public List<PaymentTransaction> claimNext(String owner, int count) {
+        count = Math.max(1, Math.min(count, maxClaim));
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = new ArrayList<>();
+        Set<Long> skipped = new HashSet<>();
+
+        for (int round = 0; round < MAX_ROUNDS && claimed.size() < count; round++) {
+            int wanted = count - claimed.size();
+            List<Long> candidates = new ArrayList<>(paymentTransactionRepository.findQueueCandidates(
+                    now, amountPerHour, (wanted + skipped.size()) * CANDIDATES_PER_CLAIM));
+            candidates.removeAll(skipped);
+            candidates.removeAll(claimed);
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            Set<Long> locked = new HashSet<>(paymentTransactionRepository.lockClaimable(candidates, now));
+            for (Long id : candidates) {
+                // Keep the priority order of the candidates
+                if (!locked.contains(id)) {
+                    skipped.add(id);
+                } else if (claimed.size() < count) {
+                    claimed.add(id);
+                }
+            }
+        }
+
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        paymentTransactionRepository.lease(claimed, owner, now.plusMinutes(leaseMinutes));
+        logger.debug("{} claimed {} pending transactions", owner, claimed.size());
+
+        List<PaymentTransaction> transactions = new ArrayList<>();
+        for (Long id : claimed) {
+            paymentTransactionRepository.findById(id).ifPresent(transactions::add);
+        }
+        return transactions;
+    }
+
+    /**
+     * Give a claimed transaction back to the queue
+     */
+    public boolean release(Long transactionId, String owner) {
+        return paymentTransactionRepository.releaseLease(transactionId, owner) > 0;
+    }
+
+    /**
+     * Pending transactions currently leased to the verifier
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentTransaction> getActiveLeases(String owner) {
+        return paymentTransactionRepository.findActiveLeases(owner, LocalDateTime.now(), PaymentTransaction.Status.PENDING);
+    }
+
+    /**
+     * Pending transactions nobody holds a lease on
+     */
+    @Transactional(readOnly = true)
+    public long getUnclaimedCount() {
+        return paymentTransactionRepository.countUnclaimed(PaymentTransaction.Status.PENDING, LocalDateTime.now());
+    }
+
+    public long getLeaseMinutes() {
+        return leaseMinutes;
+    }
+
+    public int getMaxClaim() {
+        return maxClaim;
+    }
+}
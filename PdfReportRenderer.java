@@ -0,0 +1,104 @@
+package com.helpdesk.service;
+
+import com.helpdesk.entity.Ticket;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streaming PDF renderer for ticket reports
+ * Uses iText's large-table mode so rows are flushed to the output while they are added,
+ * instead of building the whole table in memory before writing it
+ */
+@Component
+public class PdfReportRenderer {
+
+    private static final String[] HEADERS = { "ID", "Title", "Student", "Category", "Priority", "Status", "Staff", "Created" };
+    private static final float[] COLUMN_WIDTHS = { 6, 22, 18, 13, 9, 11, 12, 9 };
+
+    @Value("${report.pdf.flush-interval:100}")
+    private int flushInterval;
+
+    /**
+     * Render the tickets as a PDF table directly into the given output stream
+     * Header row is repeated on every page; the stream is closed when the document is closed
+     * @return number of ticket rows written
+     */
+    public long render(Stream<Ticket> tickets, OutputStream outputStream) {
+        PdfWriter writer = new PdfWriter(outputStream);
+        PdfDocument pdfDoc = new PdfDocument(writer);
+        Document document = new Document(pdfDoc, PageSize.A4.rotate());
+
+        // Add title
+        document.add(new Paragraph("Tickets Report")
+                .setFontSize(18));
+
+        document.add(new Paragraph("Generated on: " +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
+                .setFontSize(10));
+
+        // Shared styles - applied to every cell instead of configuring each cell separately
+        Style headerStyle = new Style()
+                .setBold()
+                .setFontSize(9)
+                .setBackgroundColor(ColorConstants.LIGHT_GRAY);
+        Style cellStyle = new Style()
+                .setFontSize(8)
+                .setPadding(2);
+
+        // Large table: content is laid out and released every time the table is flushed
+        Table table = new Table(UnitValue.createPercentArray(COLUMN_WIDTHS), true)
+                .useAllAvailableWidth();
+        for (String header : HEADERS) {
+            table.addHeaderCell(cell(header, headerStyle));
+        }
+        document.add(table);
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        long rowCount = 0;
+        Iterator<Ticket> iterator = tickets.iterator();
+        while (iterator.hasNext()) {
+            Ticket ticket = iterator.next();
+            table.addCell(cell(ticket.getId().toString(), cellStyle));
+            table.addCell(cell(ticket.getTitle(), cellStyle));
+            table.addCell(cell(ticket.getStudentName() + " (" + ticket.getStudentId() + ")", cellStyle));
+            table.addCell(cell(ticket.getCategory().getName(), cellStyle));
+            table.addCell(cell(ticket.getPriority().toString(), cellStyle));
+            table.addCell(cell(ticket.getStatus().toString(), cellStyle));
+            table.addCell(cell(ticket.getAssignedStaff() != null ? ticket.getAssignedStaff().getName() : "Unassigned",
+                    cellStyle));
+            table.addCell(cell(ticket.getCreatedAt().format(formatter), cellStyle));
+
+            rowCount++;
+            if (rowCount % flushInterval == 0) {
+                table.flush();
+            }
+        }
+
+        table.complete();
+        document.close();
+
+        return rowCount;
+    }
+
+    private Cell cell(String text, Style style) {
+        return new Cell()
+                .addStyle(style)
+                .add(new Paragraph(text != null ? text : ""));
+    }
+}
@@ -0,0 +1,113 @@
+package com.helpdesk.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One bank statement line that could not be reconciled automatically
+ */
+public class ReconciliationExceptionDTO {
+
+    public enum Reason {
+        INVALID_LINE,       // line could not be parsed
+        UNMATCHED,          // no pending transaction found
+        AMBIGUOUS,          // several pending transactions match equally well
+        AMOUNT_MISMATCH,    // reference matches but the amount is outside the tolerance
+        FUZZY_MATCH,        // probable match within the amount/date tolerance - confirm manually
+        DUPLICATE_LINE,     // the matching transaction was already claimed by an earlier line
+        STRATEGY_DECLINED,  // matched, but the payment strategy did not approve it
+        ALREADY_PROCESSED   // matched, but the transaction was verified/rejected in the meantime
+    }
+
+    private long lineNumber;
+    private LocalDate date;
+    private String reference;
+    private BigDecimal amount;
+    private String studentId;
+    private Reason reason;
+    private Long transactionId;
+    private String detail;
+
+    // Constructors
+    public ReconciliationExceptionDTO() {}
+
+    public ReconciliationExceptionDTO(long lineNumber, LocalDate date, String reference, BigDecimal amount,
+                                      String studentId, Reason reason, Long transactionId, String detail) {
+        this.lineNumber = lineNumber;
+        this.date = date;
+        this.reference = reference;
+        this.amount = amount;
+        this.studentId = studentId;
+        this.reason = reason;
+        this.transactionId = transactionId;
+        this.detail = detail;
+    }
+
+    // Getters and Setters
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public void setReason(Reason reason) {
+        this.reason = reason;
+    }
+
+    /**
+     * Matched or suggested transaction, if any
+     */
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
@@ -0,0 +1,103 @@
+package com.helpdesk.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary and exceptions report of one bank statement reconciliation run
+ */
+public class ReconciliationResultDTO {
+
+    private String id;
+    private String fileName;
+    private String reconciledBy;
+    private LocalDateTime reconciledAt;
+    private long totalLines;
+    private long exactMatches;
+    private long fuzzyMatches;
+    private long verifiedCount;
+    private long elapsedMillis;
+    private List<ReconciliationExceptionDTO> exceptions = new ArrayList<>();
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getReconciledBy() {
+        return reconciledBy;
+    }
+
+    public void setReconciledBy(String reconciledBy) {
+        this.reconciledBy = reconciledBy;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(long totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public long getExactMatches() {
+        return exactMatches;
+    }
+
+    public void setExactMatches(long exactMatches) {
+        this.exactMatches = exactMatches;
+    }
+
+    public long getFuzzyMatches() {
+        return fuzzyMatches;
+    }
+
+    public void setFuzzyMatches(long fuzzyMatches) {
+        this.fuzzyMatches = fuzzyMatches;
+    }
+
+    public long getVerifiedCount() {
+        return verifiedCount;
+    }
+
+    public void setVerifiedCount(long verifiedCount) {
+        this.verifiedCount = verifiedCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<ReconciliationExceptionDTO> getExceptions() {
+        return exceptions;
+    }
+
+    public void setExceptions(List<ReconciliationExceptionDTO> exceptions) {
+        this.exceptions = exceptions;
+    }
+}
@@ -1,10 +1,16 @@
 package com.helpdesk.repository;
 
 import com.helpdesk.entity.Reply;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReplyRepository extends JpaRepository<Reply, Long> {
@@ -17,5 +23,16 @@ public interface ReplyRepository extends JpaRepository<Reply, Long> {
     
     // Count replies for a specific ticket
     long countByTicketId(Long ticketId);
-}
 
+    // Replies created or modified inside a delta export window
+    // Replies written before updated_at existed only have created_at, hence the COALESCE
+    @Query("SELECT r FROM Reply r JOIN FETCH r.user " +
+            "WHERE COALESCE(r.updatedAt, r.createdAt) >= :since AND COALESCE(r.updatedAt, r.createdAt) < :until " +
+            "ORDER BY r.id")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<Reply> streamRepliesChangedBetween(@Param("since") LocalDateTime since,
+                                              @Param("until") LocalDateTime until);
+}
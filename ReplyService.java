@@ -1,8 +1,10 @@
 package com.helpdesk.service;
 
+import com.helpdesk.entity.DeletedRecord;
 import com.helpdesk.entity.Reply;
 import com.helpdesk.entity.Ticket;
 import com.helpdesk.entity.User;
+import com.helpdesk.repository.DeletedRecordRepository;
 import com.helpdesk.repository.ReplyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -18,6 +20,9 @@ public class ReplyService {
     @Autowired
     private ReplyRepository replyRepository;
 
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
     // Create a new reply
     public Reply createReply(Reply reply) {
         return replyRepository.save(reply);
@@ -56,6 +61,9 @@ public class ReplyService {
 
     // Delete reply
     public void deleteReply(Long id) {
+        // Leave a tombstone for delta exports
+        replyRepository.findById(id).ifPresent(reply -> deletedRecordRepository.save(
+                new DeletedRecord(DeletedRecord.RecordType.REPLY, id, reply.getTicket().getId())));
         replyRepository.deleteById(id);
     }
 
@@ -0,0 +1,265 @@
+package com.helpdesk.service;
+
+import com.helpdesk.dto.ReportFilterDTO;
+import com.helpdesk.entity.Ticket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * CSV + Excel + PDF bundle of one report, built from a single database scan
+ * The scanning thread writes the CSV straight into the ZIP and hands every ticket to the Excel
+ * and PDF encoders, which run on their own threads behind bounded queues (a slow encoder slows
+ * the scan down instead of buffering the whole report). Their output is spooled to temp files
+ * and appended to the ZIP once the scan is done.
+ */
+@Service
+public class ReportBundleService {
+
+    // End-of-stream marker passed through the encoder queues
+    private static final Ticket END_OF_ROWS = new Ticket();
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private PdfReportRenderer pdfReportRenderer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${report.bundle.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${report.bundle.max-concurrent:2}")
+    private int maxConcurrentBundles;
+
+    private ThreadPoolExecutor encoderPool;
+
+    // One permit per pair of encoder threads
+    private Semaphore bundlePermits;
+
+    // Read-only transaction of the scan, opened only once a permit is held
+    private TransactionTemplate scanTransaction;
+
+    @PostConstruct
+    public void init() {
+        // Two encoders per bundle; writeBundle() takes a permit first, so both always get a thread
+        int encoderThreads = maxConcurrentBundles * 2;
+        bundlePermits = new Semaphore(maxConcurrentBundles, true);
+        scanTransaction = new TransactionTemplate(transactionManager);
+        scanTransaction.setReadOnly(true);
+        AtomicInteger threadNumber = new AtomicInteger();
+        encoderPool = new ThreadPoolExecutor(encoderThreads, encoderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "report-encoder-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        encoderPool.shutdownNow();
+    }
+
+    /**
+     * Write tickets.csv, tickets.xlsx and tickets.pdf for the filter into one ZIP
+     * The output is finished (but not closed) when the method returns. Waits while
+     * max-concurrent bundles are already being written; the scan's transaction (and its pooled
+     * connection) is only opened once the bundle may start.
+     * @return number of ticket rows in each file
+     */
+    public long writeBundle(ReportFilterDTO filter, OutputStream outputStream) throws IOException {
+        // The scan blocks until both encoders take rows - an encoder left in the pool queue would stall it for good
+        try {
+            bundlePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a free report encoder", e);
+        }
+        try {
+            return scanTransaction.execute(status -> {
+                try {
+                    return encodeBundle(filter, outputStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            bundlePermits.release();
+        }
+    }
+
+    private long encodeBundle(ReportFilterDTO filter, OutputStream outputStream) throws IOException {
+        Path excelFile = Files.createTempFile("report-bundle-", ".xlsx");
+        Path pdfFile = Files.createTempFile("report-bundle-", ".pdf");
+        EncoderChannel excel = new EncoderChannel();
+        EncoderChannel pdf = new EncoderChannel();
+
+        try {
+            excel.future = encoderPool.submit(() -> {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(excelFile))) {
+                    return reportService.writeExcelReport(excel.stream(), out);
+                }
+            });
+            // The renderer closes its output stream itself
+            pdf.future = encoderPool.submit(() -> pdfReportRenderer.render(pdf.stream(),
+                    new BufferedOutputStream(Files.newOutputStream(pdfFile))));
+
+            ZipOutputStream zip = new ZipOutputStream(outputStream);
+            zip.putNextEntry(new ZipEntry("tickets.csv"));
+
+            long rowCount;
+            try (Stream<Ticket> rows = ticketService.streamTicketsWithFilters(filter.getStartDate(),
+                    filter.getEndDate(), filter.getCategoryIds(), filter.getStaffIds(), filter.getStatuses(),
+                    filter.getStudentName(), filter.getStudentId())) {
+                // Category and staff are fetch-joined, so detached tickets are safe to read on other threads
+                Stream<Ticket> tickets = rows.peek(ticket -> {
+                    entityManager.detach(ticket);
+                    excel.put(ticket);
+                    pdf.put(ticket);
+                });
+                rowCount = reportService.writeCSVReport(tickets, zip);
+            }
+            excel.put(END_OF_ROWS);
+            pdf.put(END_OF_ROWS);
+            zip.closeEntry();
+
+            excel.await();
+            pdf.await();
+
+            // The workbook is already a ZIP - storing it again only costs CPU
+            zip.setLevel(Deflater.NO_COMPRESSION);
+            appendEntry(zip, "tickets.xlsx", excelFile);
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            appendEntry(zip, "tickets.pdf", pdfFile);
+            zip.finish();
+            zip.flush();
+            return rowCount;
+        } finally {
+            excel.cancel();
+            pdf.cancel();
+            Files.deleteIfExists(excelFile);
+            Files.deleteIfExists(pdfFile);
+        }
+    }
+
+    private void appendEntry(ZipOutputStream zip, String name, Path file) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        Files.copy(file, zip);
+        zip.closeEntry();
+    }
+
+    /**
+     * Bounded hand-off from the scanning thread to one encoder
+     */
+    private class EncoderChannel {
+        private final BlockingQueue<Ticket> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private Future<Long> future;
+
+        // Blocks while the encoder is behind; fails fast if the encoder died
+        void put(Ticket ticket) {
+            try {
+                while (!queue.offer(ticket, 100, TimeUnit.MILLISECONDS)) {
+                    if (future.isDone()) {
+                        await();
+                        throw new IllegalStateException("Report encoder stopped before the end of the rows");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while exporting report bundle", e);
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        // Rows as seen by the encoder thread, ending at END_OF_ROWS
+        Stream<Ticket> stream() {
+            Iterator<Ticket> iterator = new Iterator<>() {
+                private Ticket next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null) {
+                        try {
+                            next = queue.take();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException("Report encoder interrupted", e);
+                        }
+                    }
+                    return next != END_OF_ROWS;
+                }
+
+                @Override
+                public Ticket next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Ticket ticket = next;
+                    next = null;
+                    return ticket;
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+        }
+
+        void await() throws IOException {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for report encoder", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Report encoder failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        void cancel() {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+}
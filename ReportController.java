@@ -1,27 +1,47 @@
 package com.helpdesk.controller;
 
+import com.helpdesk.dto.ReportFilterDTO;
+import com.helpdesk.dto.TicketPreviewDTO;
 import com.helpdesk.entity.SavedReport;
 import com.helpdesk.entity.Ticket;
 import com.helpdesk.service.CategoryService;
+import com.helpdesk.service.ReportBundleService;
+import com.helpdesk.service.ReportCube;
+import com.helpdesk.service.ReportCubeService;
+import com.helpdesk.service.ReportJobService;
 import com.helpdesk.service.ReportService;
 import com.helpdesk.service.StaffService;
 import com.helpdesk.service.TicketService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping("/admin/reports")
@@ -39,6 +59,24 @@ public class ReportController {
     @Autowired
     private StaffService staffService;
 
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private ReportBundleService reportBundleService;
+
+    @Autowired
+    private ReportCubeService reportCubeService;
+
+    private static final String DEFAULT_CUBE_DIMENSIONS = "CATEGORY,MONTH,STATUS";
+
+    // Above this many rows the PDF is generated as a background job instead of a direct download
+    @Value("${report.pdf.max-rows:5000}")
+    private long pdfMaxRows;
+
+    @Value("${report.preview.page-size:50}")
+    private int previewPageSize;
+
     // Show reports page
     @GetMapping
     public String showReportsPage(HttpSession session, Model model) {
@@ -74,6 +112,7 @@ public class ReportController {
             @RequestParam(required = false) List<String> statuses,
             @RequestParam(required = false) String studentName,
             @RequestParam(required = false) String studentId,
+            @RequestParam(required = false) Long afterId,
             HttpSession session,
             Model model) {
         
@@ -111,9 +150,10 @@ public class ReportController {
             }
         }
 
-        // Get filtered tickets
-        List<Ticket> tickets = ticketService.getTicketsWithFilters(
-                startDateParsed, endDateParsed, categoryIds, staffIds, statusEnums, studentName, studentId);
+        // First page of preview rows (or the page after afterId) - the full result is only built by exports
+        List<TicketPreviewDTO> tickets = reportService.getPreviewRows(new ReportFilterDTO(
+                startDateParsed, endDateParsed, categoryIds, staffIds, statusEnums, studentName, studentId),
+                afterId, previewPageSize);
 
         // Generate summary
         ReportService.ReportSummaryDTO summary = reportService.generateReportSummary(
@@ -121,6 +161,7 @@ public class ReportController {
 
         // Add results to model
         model.addAttribute("tickets", tickets);
+        addPreviewPaging(model, tickets, afterId);
         model.addAttribute("summary", summary);
         model.addAttribute("startDate", startDate);
         model.addAttribute("endDate", endDate);
@@ -150,6 +191,7 @@ public class ReportController {
             @RequestParam(required = false) String studentName,
             @RequestParam(required = false) String studentId,
             HttpSession session,
+            HttpServletRequest request,
             HttpServletResponse response) throws IOException {
         
         // Check if business admin is logged in via session
@@ -168,17 +210,109 @@ public class ReportController {
                     .collect(Collectors.toList());
         }
 
-        List<Ticket> tickets = ticketService.getTicketsWithFilters(
-                startDate, endDate, categoryIds, staffIds, statusEnums, studentName, studentId);
-
-        String csvContent = reportService.generateCSVReport(tickets);
-
         String filename = "tickets_report_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
                 + ".csv";
 
         response.setContentType("text/csv");
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
-        response.getWriter().write(csvContent);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        // CSV compresses very well - gzip it on the fly for clients that accept it
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        OutputStream outputStream = response.getOutputStream();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            outputStream = new GZIPOutputStream(outputStream, 8192);
+        }
+
+        reportService.writeReport(ReportService.ExportFormat.CSV, new ReportFilterDTO(
+                startDate, endDate, categoryIds, staffIds, statusEnums, studentName, studentId), outputStream, null);
+        if (gzip) {
+            ((GZIPOutputStream) outputStream).finish();
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * Delta export for downstream syncs: tickets and replies changed since a watermark plus
+     * tombstones of deleted ones, as CSV or NDJSON
+     * The watermark is either passed as since (ISO date-time) or tracked on the server per consumer;
+     * X-Next-Watermark carries the value to use for the next call.
+     */
+    @GetMapping("/delta")
+    public void exportDelta(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String consumer,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpSession session,
+            HttpServletResponse response) throws IOException {
+
+        if (!isBusinessAdmin(session)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        ReportService.DeltaFormat deltaFormat;
+        try {
+            deltaFormat = ReportService.DeltaFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported delta format: " + format);
+            return;
+        }
+
+        if (since == null && consumer != null && !consumer.isBlank()) {
+            since = reportService.getDeltaWatermark(consumer);
+        }
+        if (since == null) {
+            // No watermark yet - the first delta is a full export
+            since = LocalDateTime.of(1970, 1, 1, 0, 0);
+        }
+        LocalDateTime until = LocalDateTime.now();
+
+        String filename = "tickets_delta_" + until.format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
+                + "." + deltaFormat.getExtension();
+        response.setContentType(deltaFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        response.setHeader("X-Watermark", since.toString());
+        response.setHeader("X-Next-Watermark", until.toString());
+
+        reportService.writeDeltaExport(deltaFormat, since, until, response.getOutputStream());
+        response.flushBuffer();
+
+        // Only advance the server-side watermark once the whole delta was sent
+        if (consumer != null && !consumer.isBlank()) {
+            reportService.saveDeltaWatermark(consumer, until);
+        }
+    }
+
+    // Export CSV, Excel and PDF together as one ZIP, reading the tickets only once
+    @PostMapping("/export/bundle")
+    public void exportBundle(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> staffIds,
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam(required = false) String studentName,
+            @RequestParam(required = false) String studentId,
+            HttpSession session,
+            HttpServletResponse response) throws IOException {
+
+        if (!isBusinessAdmin(session)) {
+            response.sendRedirect("/business-admin/login?error=access_denied");
+            return;
+        }
+
+        String filename = "tickets_report_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
+                + ".zip";
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+
+        reportBundleService.writeBundle(new ReportFilterDTO(startDate, endDate, categoryIds, staffIds,
+                toStatusEnums(statuses), studentName, studentId), response.getOutputStream());
     }
 
     // Export to Excel
@@ -210,17 +344,15 @@ public class ReportController {
                     .collect(Collectors.toList());
         }
 
-        List<Ticket> tickets = ticketService.getTicketsWithFilters(
-                startDate, endDate, categoryIds, staffIds, statusEnums, studentName, studentId);
-
-        byte[] excelContent = reportService.generateExcelReport(tickets);
+        List<List<String>> rows = reportService.getReportRows(new ReportFilterDTO(
+                startDate, endDate, categoryIds, staffIds, statusEnums, studentName, studentId));
 
         String filename = "tickets_report_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
                 + ".xlsx";
 
         response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
-        response.getOutputStream().write(excelContent);
+        reportService.writeExcelReport(rows, response.getOutputStream());
     }
 
     // Export to PDF
@@ -252,17 +384,104 @@ public class ReportController {
                     .collect(Collectors.toList());
         }
 
-        List<Ticket> tickets = ticketService.getTicketsWithFilters(
+        // Very large PDFs are steered away from the synchronous download
+        Long totalRows = ticketService.countTicketsWithFilters(
                 startDate, endDate, categoryIds, staffIds, statusEnums, studentName, studentId);
-
-        byte[] pdfContent = reportService.generatePDFReport(tickets);
+        if (totalRows != null && totalRows > pdfMaxRows) {
+            try {
+                ReportJobService.ReportJob job = reportJobService.submit(getAdminUsername(session),
+                        ReportService.ExportFormat.PDF, new ReportFilterDTO(startDate, endDate, categoryIds,
+                                staffIds, statusEnums, studentName, studentId));
+                response.sendRedirect("/admin/reports?jobId=" + job.getId());
+            } catch (RuntimeException e) {
+                response.sendRedirect("/admin/reports?error=pdf_too_large");
+            }
+            return;
+        }
 
         String filename = "tickets_report_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
                 + ".pdf";
 
         response.setContentType("application/pdf");
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
-        response.getOutputStream().write(pdfContent);
+
+        // Rows are rendered and flushed straight into the response
+        reportService.writePDFReport(startDate, endDate, categoryIds, staffIds, statusEnums,
+                studentName, studentId, response.getOutputStream());
+    }
+
+    // Submit a background export job (CSV, EXCEL or PDF)
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(
+            @RequestParam String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> staffIds,
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam(required = false) String studentName,
+            @RequestParam(required = false) String studentId,
+            HttpSession session) {
+
+        if (!isBusinessAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        ReportService.ExportFormat exportFormat;
+        try {
+            exportFormat = ReportService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown export format: " + format));
+        }
+
+        try {
+            ReportJobService.ReportJob job = reportJobService.submit(getAdminUsername(session), exportFormat,
+                    new ReportFilterDTO(startDate, endDate, categoryIds, staffIds, toStatusEnums(statuses),
+                            studentName, studentId));
+            return ResponseEntity.accepted().body(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // List the current admin's export jobs
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ReportJobService.ReportJob>> listReportJobs(HttpSession session) {
+        if (!isBusinessAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(reportJobService.getJobsByOwner(getAdminUsername(session)));
+    }
+
+    // Poll job status and progress
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJobService.ReportJob> getReportJob(@PathVariable String jobId, HttpSession session) {
+        if (!isBusinessAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return reportJobService.getJob(jobId, getAdminUsername(session))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Download a finished job - Range requests are answered with 206 partial content
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable String jobId, HttpSession session) {
+        if (!isBusinessAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Optional<ReportJobService.ReportJob> jobOpt = reportJobService.getJob(jobId, getAdminUsername(session));
+        if (jobOpt.isEmpty() || jobOpt.get().getStatus() != ReportJobService.ReportJob.Status.COMPLETED) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ReportJobService.ReportJob job = jobOpt.get();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getFilename() + "\"")
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(new FileSystemResource(job.getFile()));
     }
 
     // Save report configuration
@@ -277,10 +496,14 @@ public class ReportController {
             @RequestParam(required = false) List<String> statuses,
             @RequestParam(required = false) String studentName,
             @RequestParam(required = false) String studentId,
+            @RequestParam(required = false) String schedule,
             RedirectAttributes redirectAttributes) {
 
         try {
             SavedReport savedReport = new SavedReport();
+            if (schedule != null && !schedule.isEmpty()) {
+                savedReport.setSchedule(SavedReport.Schedule.valueOf(schedule.toUpperCase()));
+            }
             savedReport.setName(reportName);
             savedReport.setDescription(description);
             savedReport.setStartDate(startDate);
@@ -324,20 +547,32 @@ public class ReportController {
                         .collect(Collectors.toList());
             }
 
-            // Generate preview with saved configuration
-            List<Ticket> tickets = ticketService.getTicketsWithFilters(
-                    savedReport.getStartDate(), savedReport.getEndDate(),
-                    savedReport.getCategoryIds(), savedReport.getStaffIds(),
-                    savedReport.getStatuses(), savedReport.getStudentName(),
-                    savedReport.getStudentId());
-
-            ReportService.ReportSummaryDTO summary = reportService.generateReportSummary(
-                    savedReport.getStartDate(), savedReport.getEndDate(),
-                    savedReport.getCategoryIds(), savedReport.getStaffIds(),
-                    savedReport.getStatuses(), savedReport.getStudentName(),
-                    savedReport.getStudentId());
+            // Scheduled reports are pre-materialized - the summary is a lookup and the rows are in the
+            // artifact, so no ticket query runs at all
+            List<TicketPreviewDTO> tickets;
+            ReportService.ReportSummaryDTO summary;
+            if (savedReport.isMaterialized()) {
+                tickets = List.of();
+                summary = new ReportService.ReportSummaryDTO(savedReport.getMaterializedTicketCount(),
+                        savedReport.getMaterializedAvgResolutionHours());
+                model.addAttribute("materializedAt", savedReport.getMaterializedAt());
+                model.addAttribute("artifactUrl", "/admin/reports/saved/" + savedReport.getId() + "/artifact");
+            } else {
+                // Generate preview with saved configuration
+                tickets = reportService.getPreviewRows(new ReportFilterDTO(
+                        savedReport.getStartDate(), savedReport.getEndDate(),
+                        savedReport.getCategoryIds(), savedReport.getStaffIds(),
+                        savedReport.getStatuses(), savedReport.getStudentName(),
+                        savedReport.getStudentId()), null, previewPageSize);
+                summary = reportService.generateReportSummary(
+                        savedReport.getStartDate(), savedReport.getEndDate(),
+                        savedReport.getCategoryIds(), savedReport.getStaffIds(),
+                        savedReport.getStatuses(), savedReport.getStudentName(),
+                        savedReport.getStudentId());
+            }
 
             model.addAttribute("tickets", tickets);
+            addPreviewPaging(model, tickets, null);
             model.addAttribute("summary", summary);
             model.addAttribute("startDate", savedReport.getStartDate());
             model.addAttribute("endDate", savedReport.getEndDate());
@@ -358,6 +593,42 @@ public class ReportController {
         return "reports/index";
     }
 
+    // Change the materialization schedule of a saved report (NONE, HOURLY, NIGHTLY)
+    @PostMapping("/schedule/{id}")
+    public String updateSavedReportSchedule(@PathVariable Long id, @RequestParam String schedule,
+                                            RedirectAttributes redirectAttributes) {
+        try {
+            reportService.updateSavedReportSchedule(id, SavedReport.Schedule.valueOf(schedule.toUpperCase()));
+            redirectAttributes.addFlashAttribute("successMessage", "Report schedule updated to " + schedule);
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Error updating schedule: " + e.getMessage());
+        }
+        return "redirect:/admin/reports";
+    }
+
+    // Download the pre-materialized CSV of a scheduled report
+    @GetMapping("/saved/{id}/artifact")
+    public ResponseEntity<Resource> downloadSavedReportArtifact(@PathVariable Long id, HttpSession session) {
+        if (!isBusinessAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Optional<SavedReport> savedReportOpt = reportService.getSavedReportById(id);
+        if (savedReportOpt.isEmpty() || savedReportOpt.get().getArtifactPath() == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        FileSystemResource artifact = new FileSystemResource(savedReportOpt.get().getArtifactPath());
+        if (!artifact.exists()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"saved_report_" + id + ".csv\"")
+                .body(artifact);
+    }
+
     // Delete saved report
     @PostMapping("/delete/{id}")
     public String deleteSavedReport(@PathVariable Long id, RedirectAttributes redirectAttributes) {
@@ -369,4 +640,272 @@ public class ReportController {
         }
         return "redirect:/admin/reports";
     }
+
+    // Cube (pivot) reports
+    // Every endpoint builds (or reuses) the cube over ?dimensions= for the report filter and then
+    // answers from memory. Members are addressed by key: category/staff id (staff 0 = unassigned),
+    // yyyy-MM for months and enum names for status and priority.
+
+    // All non-empty cells of the cube
+    @GetMapping("/cube")
+    public ResponseEntity<Map<String, Object>> getCube(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> staffIds,
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam(required = false) String studentName,
+            @RequestParam(required = false) String studentId,
+            @RequestParam(defaultValue = DEFAULT_CUBE_DIMENSIONS) List<String> dimensions,
+            HttpSession session) {
+        if (!isBusinessAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        List<ReportCube.Dimension> cubeDimensions;
+        try {
+            cubeDimensions = toDimensions(dimensions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        ReportCube cube = reportCubeService.getCube(new ReportFilterDTO(startDate, endDate, categoryIds, staffIds,
+                toStatusEnums(statuses), studentName, studentId), cubeDimensions);
+        return ResponseEntity.ok(cubeResponse(cube, cube.getDimensions(), null));
+    }
+
+    // Slice: fix one dimension to a single member and drop it from the result
+    @GetMapping("/cube/slice")
+    public ResponseEntity<Map<String, Object>> sliceCube(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> staffIds,
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam(required = false) String studentName,
+            @RequestParam(required = false) String studentId,
+            @RequestParam(defaultValue = DEFAULT_CUBE_DIMENSIONS) List<String> dimensions,
+            @RequestParam String dimension,
+            @RequestParam String member,
+            HttpSession session) {
+        if (!isBusinessAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        List<ReportCube.Dimension> cubeDimensions;
+        ReportCube.Dimension sliced;
+        try {
+            cubeDimensions = toDimensions(dimensions);
+            sliced = toDimension(dimension);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        ReportCube cube = reportCubeService.getCube(new ReportFilterDTO(startDate, endDate, categoryIds, staffIds,
+                toStatusEnums(statuses), studentName, studentId), cubeDimensions);
+        List<ReportCube.Dimension> groupBy = new ArrayList<>(cube.getDimensions());
+        groupBy.remove(sliced);
+        return ResponseEntity.ok(cubeResponse(cube, groupBy, Map.of(sliced, List.of(member))));
+    }
+
+    // Dice: keep only the given members of one or more dimensions (filter=STATUS:OPEN|IN_PROGRESS)
+    @GetMapping("/cube/dice")
+    public ResponseEntity<Map<String, Object>> diceCube(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> staffIds,
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam(required = false) String studentName,
+            @RequestParam(required = false) String studentId,
+            @RequestParam(defaultValue = DEFAULT_CUBE_DIMENSIONS) List<String> dimensions,
+            @RequestParam(name = "filter") List<String> memberFilters,
+            HttpSession session) {
+        if (!isBusinessAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        List<ReportCube.Dimension> cubeDimensions;
+        Map<ReportCube.Dimension, List<String>> memberFilter;
+        try {
+            cubeDimensions = toDimensions(dimensions);
+            memberFilter = toMemberFilter(memberFilters);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        ReportCube cube = reportCubeService.getCube(new ReportFilterDTO(startDate, endDate, categoryIds, staffIds,
+                toStatusEnums(statuses), studentName, studentId), cubeDimensions);
+        return ResponseEntity.ok(cubeResponse(cube, cube.getDimensions(), memberFilter));
+    }
+
+    // Roll-up: aggregate away every dimension that is not listed in groupBy
+    @GetMapping("/cube/rollup")
+    public ResponseEntity<Map<String, Object>> rollUpCube(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> staffIds,
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam(required = false) String studentName,
+            @RequestParam(required = false) String studentId,
+            @RequestParam(defaultValue = DEFAULT_CUBE_DIMENSIONS) List<String> dimensions,
+            @RequestParam(required = false) List<String> groupBy,
+            HttpSession session) {
+        if (!isBusinessAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        List<ReportCube.Dimension> cubeDimensions;
+        List<ReportCube.Dimension> kept;
+        try {
+            cubeDimensions = toDimensions(dimensions);
+            kept = groupBy != null ? toDimensions(groupBy) : List.of();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        ReportCube cube = reportCubeService.getCube(new ReportFilterDTO(startDate, endDate, categoryIds, staffIds,
+                toStatusEnums(statuses), studentName, studentId), cubeDimensions);
+        return ResponseEntity.ok(cubeResponse(cube, kept, null));
+    }
+
+    // Cross-tab page: one cube dimension down the rows, one across the columns, optional dice filters
+    @GetMapping("/cube/view")
+    public String viewCube(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) List<Long> staffIds,
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam(required = false) String studentName,
+            @RequestParam(required = false) String studentId,
+            @RequestParam(defaultValue = "CATEGORY") String rows,
+            @RequestParam(defaultValue = "STATUS") String columns,
+            @RequestParam(name = "filter", required = false) List<String> memberFilters,
+            HttpSession session,
+            Model model) {
+        if (!isBusinessAdmin(session)) {
+            return "redirect:/business-admin/login?error=access_denied";
+        }
+
+        ReportCube.Dimension rowDimension;
+        ReportCube.Dimension columnDimension;
+        Map<ReportCube.Dimension, List<String>> memberFilter;
+        try {
+            rowDimension = toDimension(rows);
+            columnDimension = toDimension(columns);
+            memberFilter = toMemberFilter(memberFilters);
+        } catch (IllegalArgumentException e) {
+            return "redirect:/admin/reports?error=invalid_cube_dimension";
+        }
+
+        // The cube only needs the two axes plus the diced dimensions
+        List<ReportCube.Dimension> dimensions = new ArrayList<>(List.of(rowDimension));
+        if (columnDimension != rowDimension) {
+            dimensions.add(columnDimension);
+        }
+        for (ReportCube.Dimension diced : memberFilter.keySet()) {
+            if (!dimensions.contains(diced)) {
+                dimensions.add(diced);
+            }
+        }
+        ReportCube cube = reportCubeService.getCube(new ReportFilterDTO(startDate, endDate, categoryIds, staffIds,
+                toStatusEnums(statuses), studentName, studentId), dimensions);
+
+        List<String> columnKeys = cube.getMemberKeys(columnDimension);
+        Map<String, long[]> matrix = new LinkedHashMap<>();
+        for (ReportCube.Cell cell : cube.query(List.of(rowDimension, columnDimension), memberFilter)) {
+            String rowLabel = cell.getLabels().get(rowDimension.name());
+            long[] counts = matrix.computeIfAbsent(rowLabel, key -> new long[columnKeys.size() + 1]);
+            counts[columnKeys.indexOf(cell.getKeys().get(columnDimension.name()))] += cell.getTicketCount();
+            counts[columnKeys.size()] += cell.getTicketCount();
+        }
+
+        model.addAttribute("rowDimension", rowDimension);
+        model.addAttribute("columnDimension", columnDimension);
+        model.addAttribute("columnLabels", cube.getMemberLabels(columnDimension));
+        model.addAttribute("matrix", matrix);
+        model.addAttribute("cubeDimensions", ReportCube.Dimension.values());
+        model.addAttribute("memberFilters", memberFilters);
+        model.addAttribute("startDate", startDate);
+        model.addAttribute("endDate", endDate);
+        return "reports/cube";
+    }
+
+    private Map<String, Object> cubeResponse(ReportCube cube, List<ReportCube.Dimension> groupBy,
+                                             Map<ReportCube.Dimension, List<String>> memberFilter) {
+        Map<String, Object> members = new LinkedHashMap<>();
+        for (ReportCube.Dimension dimension : groupBy) {
+            List<String> keys = cube.getMemberKeys(dimension);
+            List<String> labels = cube.getMemberLabels(dimension);
+            List<Map<String, String>> dimensionMembers = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                dimensionMembers.add(Map.of("key", keys.get(i), "label", labels.get(i)));
+            }
+            members.put(dimension.name(), dimensionMembers);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("dimensions", groupBy);
+        response.put("members", members);
+        response.put("cells", cube.query(groupBy, memberFilter));
+        return response;
+    }
+
+    private List<ReportCube.Dimension> toDimensions(List<String> dimensions) {
+        return dimensions.stream()
+                .map(this::toDimension)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    // @throws IllegalArgumentException for names that are not a cube dimension
+    private ReportCube.Dimension toDimension(String dimension) {
+        try {
+            return ReportCube.Dimension.valueOf(dimension.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown cube dimension '" + dimension + "' - expected one of "
+                    + Arrays.toString(ReportCube.Dimension.values()));
+        }
+    }
+
+    // DIMENSION:key1|key2 -> members to keep per dimension
+    private Map<ReportCube.Dimension, List<String>> toMemberFilter(List<String> memberFilters) {
+        Map<ReportCube.Dimension, List<String>> memberFilter = new LinkedHashMap<>();
+        if (memberFilters == null) {
+            return memberFilter;
+        }
+        for (String memberFilterParam : memberFilters) {
+            int separator = memberFilterParam.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException(
+                        "Invalid cube filter '" + memberFilterParam + "' - expected DIMENSION:key|key");
+            }
+            ReportCube.Dimension dimension = toDimension(memberFilterParam.substring(0, separator));
+            memberFilter.computeIfAbsent(dimension, key -> new ArrayList<>())
+                    .addAll(Arrays.asList(memberFilterParam.substring(separator + 1).split("\\|")));
+        }
+        return memberFilter;
+    }
+
+    // Keyset paging attributes of the preview table: a full page means there may be more rows
+    private void addPreviewPaging(Model model, List<TicketPreviewDTO> tickets, Long afterId) {
+        model.addAttribute("previewPageSize", previewPageSize);
+        model.addAttribute("afterId", afterId);
+        if (tickets.size() == previewPageSize) {
+            model.addAttribute("nextAfterId", tickets.get(tickets.size() - 1).getId());
+        }
+    }
+
+    private boolean isBusinessAdmin(HttpSession session) {
+        Boolean businessAdminLoggedIn = (Boolean) session.getAttribute("businessAdminLoggedIn");
+        return businessAdminLoggedIn != null && businessAdminLoggedIn;
+    }
+
+    private String getAdminUsername(HttpSession session) {
+        String username = (String) session.getAttribute("businessAdminUsername");
+        return username != null ? username : "admin";
+    }
+
+    private List<Ticket.Status> toStatusEnums(List<String> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        return statuses.stream()
+                .map(Ticket.Status::valueOf)
+                .collect(Collectors.toList());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,279 @@
+package com.helpdesk.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ticket cube over a set of report dimensions
+ * Every dimension member is dictionary-encoded to a small integer and a cell is addressed by the
+ * mixed-radix combination of its members. Each cell holds three measures: ticket count, resolved
+ * count and the sum of resolution hours. Cubes with few possible cells are stored densely in one
+ * long[]; larger ones only keep their non-empty cells in a map.
+ * Built once per filter (see ReportCubeService) and then only read - slice, dice and roll-up
+ * are all answered by query() without touching the database.
+ */
+public class ReportCube {
+
+    public enum Dimension {
+        CATEGORY, MONTH, STATUS, STAFF, PRIORITY
+    }
+
+    // Measures stored per cell
+    private static final int MEASURES = 3;
+    private static final int COUNT = 0;
+    private static final int RESOLVED = 1;
+    private static final int RESOLUTION_HOURS = 2;
+
+    private final List<Dimension> dimensions;
+    private final List<List<String>> memberKeys;
+    private final List<List<String>> memberLabels;
+    private final long[] strides;
+    private final long cellCount;
+
+    // Exactly one of the two is used
+    private final long[] denseCells;
+    private final Map<Long, long[]> sparseCells;
+
+    /**
+     * @param memberKeys per dimension, the stable member keys (ids, yyyy-MM, enum names) in display order
+     * @param memberLabels per dimension, the display labels in the same order
+     * @param denseMaxCells largest cell count still stored densely
+     */
+    public ReportCube(List<Dimension> dimensions, List<List<String>> memberKeys, List<List<String>> memberLabels,
+                      long denseMaxCells) {
+        this.dimensions = List.copyOf(dimensions);
+        this.memberKeys = memberKeys;
+        this.memberLabels = memberLabels;
+        this.strides = new long[dimensions.size()];
+
+        long cells = 1;
+        for (int i = dimensions.size() - 1; i >= 0; i--) {
+            strides[i] = cells;
+            cells *= Math.max(1, memberKeys.get(i).size());
+        }
+        this.cellCount = cells;
+
+        if (cellCount <= denseMaxCells && cellCount <= Integer.MAX_VALUE / MEASURES) {
+            this.denseCells = new long[(int) cellCount * MEASURES];
+            this.sparseCells = null;
+        } else {
+            this.denseCells = null;
+            this.sparseCells = new HashMap<>();
+        }
+    }
+
+    /**
+     * Empty cube with the same dimensions and dictionaries (for per-thread partial aggregation)
+     */
+    public ReportCube emptyCopy(long denseMaxCells) {
+        return new ReportCube(dimensions, memberKeys, memberLabels, denseMaxCells);
+    }
+
+    /**
+     * Cell address of a member combination (member indexes in dimension order)
+     */
+    public long cellIndex(int[] members) {
+        long cell = 0;
+        for (int i = 0; i < members.length; i++) {
+            cell += members[i] * strides[i];
+        }
+        return cell;
+    }
+
+    /**
+     * Add one ticket to a cell
+     * @param resolutionHours hours until resolution, or a negative value for unresolved tickets
+     */
+    public void add(long cell, long resolutionHours) {
+        if (denseCells != null) {
+            int offset = (int) cell * MEASURES;
+            denseCells[offset + COUNT]++;
+            if (resolutionHours >= 0) {
+                denseCells[offset + RESOLVED]++;
+                denseCells[offset + RESOLUTION_HOURS] += resolutionHours;
+            }
+        } else {
+            long[] measures = sparseCells.computeIfAbsent(cell, key -> new long[MEASURES]);
+            measures[COUNT]++;
+            if (resolutionHours >= 0) {
+                measures[RESOLVED]++;
+                measures[RESOLUTION_HOURS] += resolutionHours;
+            }
+        }
+    }
+
+    /**
+     * Fold a partial cube built with emptyCopy() into this one
+     */
+    public void merge(ReportCube other) {
+        if (denseCells != null) {
+            for (int i = 0; i < denseCells.length; i++) {
+                denseCells[i] += other.denseCells[i];
+            }
+        } else {
+            other.sparseCells.forEach((cell, measures) -> {
+                long[] target = sparseCells.computeIfAbsent(cell, key -> new long[MEASURES]);
+                for (int i = 0; i < MEASURES; i++) {
+                    target[i] += measures[i];
+                }
+            });
+        }
+    }
+
+    /**
+     * Aggregate the cube
+     * @param groupBy dimensions kept in the result - every other dimension is rolled up (summed over)
+     * @param memberFilter optional member keys to keep per dimension - one key slices, several dice
+     * @return one row per non-empty member combination of the groupBy dimensions, in member order
+     */
+    public List<Cell> query(List<Dimension> groupBy, Map<Dimension, ? extends Collection<String>> memberFilter) {
+        int[] groupPositions = new int[groupBy.size()];
+        long[] groupStrides = new long[groupBy.size()];
+        long groupCells = 1;
+        for (int i = groupBy.size() - 1; i >= 0; i--) {
+            groupPositions[i] = positionOf(groupBy.get(i));
+            groupStrides[i] = groupCells;
+            groupCells *= Math.max(1, memberKeys.get(groupPositions[i]).size());
+        }
+
+        // Allowed members per cube dimension (null = all)
+        boolean[][] allowed = new boolean[dimensions.size()][];
+        if (memberFilter != null) {
+            memberFilter.forEach((dimension, keys) -> {
+                int position = positionOf(dimension);
+                List<String> dimensionKeys = memberKeys.get(position);
+                boolean[] mask = new boolean[dimensionKeys.size()];
+                for (int m = 0; m < dimensionKeys.size(); m++) {
+                    mask[m] = keys.contains(dimensionKeys.get(m));
+                }
+                allowed[position] = mask;
+            });
+        }
+
+        TreeMap<Long, long[]> groups = new TreeMap<>();
+        int[] members = new int[dimensions.size()];
+        if (denseCells != null) {
+            for (long cell = 0; cell < cellCount; cell++) {
+                int offset = (int) cell * MEASURES;
+                if (denseCells[offset + COUNT] > 0) {
+                    accumulate(groups, cell, denseCells, offset, members, allowed, groupPositions, groupStrides);
+                }
+            }
+        } else {
+            for (Map.Entry<Long, long[]> entry : sparseCells.entrySet()) {
+                accumulate(groups, entry.getKey(), entry.getValue(), 0, members, allowed, groupPositions, groupStrides);
+            }
+        }
+
+        List<Cell> rows = new ArrayList<>(groups.size());
+        for (Map.Entry<Long, long[]> group : groups.entrySet()) {
+            Map<String, String> keys = new LinkedHashMap<>();
+            Map<String, String> labels = new LinkedHashMap<>();
+            long remainder = group.getKey();
+            for (int i = 0; i < groupBy.size(); i++) {
+                int member = (int) (remainder / groupStrides[i]);
+                remainder %= groupStrides[i];
+                keys.put(groupBy.get(i).name(), memberKeys.get(groupPositions[i]).get(member));
+                labels.put(groupBy.get(i).name(), memberLabels.get(groupPositions[i]).get(member));
+            }
+            long[] measures = group.getValue();
+            rows.add(new Cell(keys, labels, measures[COUNT], measures[RESOLVED],
+                    measures[RESOLVED] > 0 ? (double) measures[RESOLUTION_HOURS] / measures[RESOLVED] : null));
+        }
+        return rows;
+    }
+
+    private void accumulate(TreeMap<Long, long[]> groups, long cell, long[] source, int offset, int[] members,
+                            boolean[][] allowed, int[] groupPositions, long[] groupStrides) {
+        for (int i = 0; i < members.length; i++) {
+            members[i] = (int) ((cell / strides[i]) % Math.max(1, memberKeys.get(i).size()));
+            if (allowed[i] != null && !allowed[i][members[i]]) {
+                return;
+            }
+        }
+        long group = 0;
+        for (int i = 0; i < groupPositions.length; i++) {
+            group += members[groupPositions[i]] * groupStrides[i];
+        }
+        long[] target = groups.computeIfAbsent(group, key -> new long[MEASURES]);
+        for (int i = 0; i < MEASURES; i++) {
+            target[i] += source[offset + i];
+        }
+    }
+
+    private int positionOf(Dimension dimension) {
+        int position = dimensions.indexOf(dimension);
+        if (position < 0) {
+            throw new RuntimeException("Dimension " + dimension + " is not part of this cube");
+        }
+        return position;
+    }
+
+    public List<Dimension> getDimensions() {
+        return dimensions;
+    }
+
+    public List<String> getMemberKeys(Dimension dimension) {
+        return memberKeys.get(positionOf(dimension));
+    }
+
+    public List<String> getMemberLabels(Dimension dimension) {
+        return memberLabels.get(positionOf(dimension));
+    }
+
+    /**
+     * Cells held in memory (all cells when dense, the non-empty ones when sparse)
+     */
+    public long getStoredCells() {
+        return denseCells != null ? cellCount : sparseCells.size();
+    }
+
+    public boolean isDense() {
+        return denseCells != null;
+    }
+
+    /**
+     * One aggregated row of a cube query
+     */
+    public static class Cell {
+        private final Map<String, String> keys;
+        private final Map<String, String> labels;
+        private final long ticketCount;
+        private final long resolvedCount;
+        private final Double averageResolutionHours;
+
+        public Cell(Map<String, String> keys, Map<String, String> labels, long ticketCount, long resolvedCount,
+                    Double averageResolutionHours) {
+            this.keys = keys;
+            this.labels = labels;
+            this.ticketCount = ticketCount;
+            this.resolvedCount = resolvedCount;
+            this.averageResolutionHours = averageResolutionHours;
+        }
+
+        public Map<String, String> getKeys() {
+            return keys;
+        }
+
+        public Map<String, String> getLabels() {
+            return labels;
+        }
+
+        public long getTicketCount() {
+            return ticketCount;
+        }
+
+        public long getResolvedCount() {
+            return resolvedCount;
+        }
+
+        public Double getAverageResolutionHours() {
+            return averageResolutionHours;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.helpdesk.service;
+
+import com.helpdesk.dto.ReportFilterDTO;
+import com.helpdesk.entity.Category;
+import com.helpdesk.entity.Staff;
+import com.helpdesk.entity.Ticket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Builds ReportCubes for a report filter
+ * The filtered tickets are read in one streaming pass that only selects the dimension columns.
+ * The scanning thread encodes each row to a cell address and hands batches to worker threads;
+ * every worker aggregates into its own partial cube and the partials are merged at the end.
+ * Dense partials hold every cell, so fewer workers are used for large dense cubes.
+ * Built cubes are kept in the report result cache.
+ */
+@Service
+public class ReportCubeService {
+
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final String UNASSIGNED_KEY = "0";
+
+    // Marks the end of the rows for a worker
+    private static final Batch END_OF_ROWS = new Batch(0);
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private StaffService staffService;
+
+    @Autowired
+    private ReportResultCache reportResultCache;
+
+    @Value("${report.cube.dense-max-cells:1000000}")
+    private long denseMaxCells;
+
+    @Value("${report.cube.batch-size:2048}")
+    private int batchSize;
+
+    // 0 = one worker per available core
+    @Value("${report.cube.parallelism:0}")
+    private int parallelism;
+
+    // Cells all dense partial cubes of one build may hold together
+    @Value("${report.cube.partial-max-cells:2000000}")
+    private long partialMaxCells;
+
+    private ThreadPoolExecutor workerPool;
+
+    @PostConstruct
+    public void init() {
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "report-cube-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Cube of the filtered tickets over the given dimensions (cached until tickets, categories or staff change)
+     */
+    @Transactional(readOnly = true)
+    public ReportCube getCube(ReportFilterDTO filter, List<ReportCube.Dimension> dimensions) {
+        return reportResultCache.get("cube:" + dimensions, filter, () -> build(filter.normalized(), dimensions),
+                ReportCube::getStoredCells);
+    }
+
+    private ReportCube build(ReportFilterDTO filter, List<ReportCube.Dimension> dimensions) {
+        // Dictionaries: member key -> index per dimension
+        List<List<String>> keys = new ArrayList<>();
+        List<List<String>> labels = new ArrayList<>();
+        List<Map<Object, Integer>> encoders = new ArrayList<>();
+        YearMonth firstMonth = null;
+        for (ReportCube.Dimension dimension : dimensions) {
+            List<String> dimensionKeys = new ArrayList<>();
+            List<String> dimensionLabels = new ArrayList<>();
+            Map<Object, Integer> encoder = new HashMap<>();
+            switch (dimension) {
+                case CATEGORY:
+                    List<Category> categories = new ArrayList<>(categoryService.getAllCategories());
+                    categories.sort(Comparator.comparing(Category::getName, String.CASE_INSENSITIVE_ORDER));
+                    for (Category category : categories) {
+                        encoder.put(category.getId(), dimensionKeys.size());
+                        dimensionKeys.add(category.getId().toString());
+                        dimensionLabels.add(category.getName());
+                    }
+                    break;
+                case STAFF:
+                    encoder.put(UNASSIGNED_KEY, 0);
+                    dimensionKeys.add(UNASSIGNED_KEY);
+                    dimensionLabels.add("Unassigned");
+                    List<Staff> staff = new ArrayList<>(staffService.getAllStaff());
+                    staff.sort(Comparator.comparing(Staff::getName, String.CASE_INSENSITIVE_ORDER));
+                    for (Staff member : staff) {
+                        encoder.put(member.getId(), dimensionKeys.size());
+                        dimensionKeys.add(member.getId().toString());
+                        dimensionLabels.add(member.getName());
+                    }
+                    break;
+                case STATUS:
+                    for (Ticket.Status status : Ticket.Status.values()) {
+                        encoder.put(status, dimensionKeys.size());
+                        dimensionKeys.add(status.name());
+                        dimensionLabels.add(status.name().replace('_', ' '));
+                    }
+                    break;
+                case PRIORITY:
+                    for (Ticket.Priority priority : Ticket.Priority.values()) {
+                        encoder.put(priority, dimensionKeys.size());
+                        dimensionKeys.add(priority.name());
+                        dimensionLabels.add(priority.name());
+                    }
+                    break;
+                case MONTH:
+                    // Months are encoded arithmetically from the first month of the data
+                    Object[] range = ticketService.getCreatedAtRangeWithFilters(filter.getStartDate(),
+                            filter.getEndDate(), filter.getCategoryIds(), filter.getStaffIds(),
+                            filter.getStatuses(), filter.getStudentName(), filter.getStudentId());
+                    if (range[0] != null) {
+                        firstMonth = YearMonth.from((LocalDateTime) range[0]);
+                        YearMonth lastMonth = YearMonth.from((LocalDateTime) range[1]);
+                        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+                            dimensionKeys.add(month.toString());
+                            dimensionLabels.add(month.format(MONTH_LABEL));
+                        }
+                    }
+                    break;
+            }
+            keys.add(dimensionKeys);
+            labels.add(dimensionLabels);
+            encoders.add(encoder);
+        }
+
+        ReportCube cube = new ReportCube(dimensions, keys, labels, denseMaxCells);
+
+        // One partial cube per worker, fed through a bounded queue
+        int workerCount = cube.isDense()
+                ? (int) Math.max(1, Math.min(parallelism, partialMaxCells / cube.getStoredCells()))
+                : parallelism;
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(workerCount * 4);
+        List<Future<ReportCube>> workers = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(workerPool.submit(() -> {
+                ReportCube partial = cube.emptyCopy(denseMaxCells);
+                Batch batch;
+                while ((batch = queue.take()) != END_OF_ROWS) {
+                    for (int row = 0; row < batch.size; row++) {
+                        partial.add(batch.cells[row], batch.resolutionHours[row]);
+                    }
+                }
+                return partial;
+            }));
+        }
+
+        try {
+            try (Stream<Object[]> rows = ticketService.streamCubeRowsWithFilters(filter.getStartDate(),
+                    filter.getEndDate(), filter.getCategoryIds(), filter.getStaffIds(), filter.getStatuses(),
+                    filter.getStudentName(), filter.getStudentId())) {
+                int[] members = new int[dimensions.size()];
+                Batch batch = new Batch(batchSize);
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    if (!encode(row, dimensions, encoders, keys, firstMonth, members)) {
+                        continue; // member added after the dictionaries were read
+                    }
+                    LocalDateTime createdAt = (LocalDateTime) row[4];
+                    LocalDateTime resolvedAt = (LocalDateTime) row[5];
+                    batch.cells[batch.size] = cube.cellIndex(members);
+                    batch.resolutionHours[batch.size] = resolvedAt != null && createdAt != null
+                            ? Math.max(0, ChronoUnit.HOURS.between(createdAt, resolvedAt)) : -1;
+                    if (++batch.size == batchSize) {
+                        queue.put(batch);
+                        batch = new Batch(batchSize);
+                    }
+                }
+                if (batch.size > 0) {
+                    queue.put(batch);
+                }
+            }
+            for (int i = 0; i < workerCount; i++) {
+                queue.put(END_OF_ROWS);
+            }
+
+            for (Future<ReportCube> worker : workers) {
+                cube.merge(worker.get());
+            }
+            return cube;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while building report cube", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error building report cube: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            workers.forEach(worker -> worker.cancel(true));
+        }
+    }
+
+    // Row columns: categoryId, staffId, status, priority, createdAt, resolvedAt
+    private boolean encode(Object[] row, List<ReportCube.Dimension> dimensions, List<Map<Object, Integer>> encoders,
+                           List<List<String>> keys, YearMonth firstMonth, int[] members) {
+        for (int i = 0; i < dimensions.size(); i++) {
+            Integer member;
+            switch (dimensions.get(i)) {
+                case CATEGORY:
+                    member = encoders.get(i).get(row[0]);
+                    break;
+                case STAFF:
+                    member = encoders.get(i).get(row[1] != null ? row[1] : UNASSIGNED_KEY);
+                    break;
+                case STATUS:
+                    member = encoders.get(i).get(row[2]);
+                    break;
+                case PRIORITY:
+                    member = encoders.get(i).get(row[3]);
+                    break;
+                default:
+                    member = (int) firstMonth.until(YearMonth.from((LocalDateTime) row[4]), ChronoUnit.MONTHS);
+                    break;
+            }
+            if (member == null || member < 0 || member >= keys.get(i).size()) {
+                return false;
+            }
+            members[i] = member;
+        }
+        return true;
+    }
+
+    /**
+     * Encoded rows handed from the scanning thread to a worker
+     */
+    private static class Batch {
+        private final long[] cells;
+        private final long[] resolutionHours;
+        private int size;
+
+        Batch(int capacity) {
+            this.cells = new long[capacity];
+            this.resolutionHours = new long[capacity];
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.helpdesk.dto;
+
+import com.helpdesk.entity.Ticket;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Filter criteria of a ticket report (same fields as the report form and SavedReport)
+ */
+public class ReportFilterDTO {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Long> categoryIds;
+    private List<Long> staffIds;
+    private List<Ticket.Status> statuses;
+    private String studentName;
+    private String studentId;
+
+    // Constructors
+    public ReportFilterDTO() {}
+
+    public ReportFilterDTO(LocalDate startDate, LocalDate endDate, List<Long> categoryIds, List<Long> staffIds,
+                           List<Ticket.Status> statuses, String studentName, String studentId) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.categoryIds = categoryIds;
+        this.staffIds = staffIds;
+        this.statuses = statuses;
+        this.studentName = studentName;
+        this.studentId = studentId;
+    }
+
+    /**
+     * Canonical form of the filter: empty lists and blank strings become null, lists are sorted
+     * and de-duplicated and student filters are trimmed and lower-cased (the query matches
+     * them case-insensitively). Two filters selecting the same tickets compare equal.
+     */
+    public ReportFilterDTO normalized() {
+        return new ReportFilterDTO(startDate, endDate,
+                normalizeList(categoryIds), normalizeList(staffIds), normalizeList(statuses),
+                normalizeText(studentName), normalizeText(studentId));
+    }
+
+    /**
+     * In-memory equivalent of the reporting query's WHERE clause
+     * Call on a normalized() filter (student filters are expected in lower case)
+     */
+    public boolean matches(Ticket ticket) {
+        LocalDate createdDate = ticket.getCreatedAt() != null ? ticket.getCreatedAt().toLocalDate() : null;
+        if (startDate != null && (createdDate == null || createdDate.isBefore(startDate))) {
+            return false;
+        }
+        if (endDate != null && (createdDate == null || createdDate.isAfter(endDate))) {
+            return false;
+        }
+        if (categoryIds != null
+                && (ticket.getCategory() == null || !categoryIds.contains(ticket.getCategory().getId()))) {
+            return false;
+        }
+        if (staffIds != null
+                && (ticket.getAssignedStaff() == null || !staffIds.contains(ticket.getAssignedStaff().getId()))) {
+            return false;
+        }
+        if (statuses != null && !statuses.contains(ticket.getStatus())) {
+            return false;
+        }
+        if (studentName != null
+                && (ticket.getStudentName() == null || !ticket.getStudentName().toLowerCase().contains(studentName))) {
+            return false;
+        }
+        return studentId == null
+                || (ticket.getStudentId() != null && ticket.getStudentId().toLowerCase().contains(studentId));
+    }
+
+    private static <T extends Comparable<? super T>> List<T> normalizeList(List<T> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static String normalizeText(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim().toLowerCase();
+    }
+
+    // Getters and Setters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public void setCategoryIds(List<Long> categoryIds) {
+        this.categoryIds = categoryIds;
+    }
+
+    public List<Long> getStaffIds() {
+        return staffIds;
+    }
+
+    public void setStaffIds(List<Long> staffIds) {
+        this.staffIds = staffIds;
+    }
+
+    public List<Ticket.Status> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(List<Ticket.Status> statuses) {
+        this.statuses = statuses;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReportFilterDTO that = (ReportFilterDTO) o;
+        return Objects.equals(startDate, that.startDate) &&
+                Objects.equals(endDate, that.endDate) &&
+                Objects.equals(categoryIds, that.categoryIds) &&
+                Objects.equals(staffIds, that.staffIds) &&
+                Objects.equals(statuses, that.statuses) &&
+                Objects.equals(studentName, that.studentName) &&
+                Objects.equals(studentId, that.studentId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(startDate, endDate, categoryIds, staffIds, statuses, studentName, studentId);
+    }
+}
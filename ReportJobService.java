@@ -0,0 +1,294 @@
+package com.helpdesk.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.helpdesk.dto.ReportFilterDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Background report export jobs
+ * Exports run on a small bounded pool (so at most that many DB connections are held by exports),
+ * are spooled to disk and downloaded later. Finished files expire after a TTL.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Value("${report.jobs.spool-dir:uploads/report-jobs/}")
+    private String spoolDir;
+
+    @Value("${report.jobs.max-concurrent:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${report.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${report.jobs.per-user-limit:2}")
+    private int perUserLimit;
+
+    @Value("${report.jobs.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> activeJobsByUser = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        // Spooled files of a previous run are unreachable (jobs are kept in memory) - remove them
+        Path spoolPath = Paths.get(spoolDir);
+        Files.createDirectories(spoolPath);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolPath)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a report export for the given user
+     * @throws RuntimeException if the user already has too many jobs or the queue is full
+     */
+    public ReportJob submit(String owner, ReportService.ExportFormat format, ReportFilterDTO filter) {
+        AtomicInteger active = activeJobsByUser.computeIfAbsent(owner, key -> new AtomicInteger());
+        if (active.incrementAndGet() > perUserLimit) {
+            active.decrementAndGet();
+            throw new RuntimeException("You already have " + perUserLimit
+                    + " report exports running. Please wait for them to finish.");
+        }
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), owner, format);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, filter));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            active.decrementAndGet();
+            throw new RuntimeException("The report export queue is full. Please try again in a few minutes.");
+        }
+        return job;
+    }
+
+    public Optional<ReportJob> getJob(String jobId, String owner) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.getOwner().equals(owner)) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    public List<ReportJob> getJobsByOwner(String owner) {
+        return jobs.values().stream()
+                .filter(job -> job.getOwner().equals(owner))
+                .sorted(Comparator.comparing(ReportJob::getCreatedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private void run(ReportJob job, ReportFilterDTO filter) {
+        Path target = Paths.get(spoolDir, job.getId() + "." + job.getFormat().getExtension());
+        Path partial = Paths.get(spoolDir, job.getId() + ".part");
+        job.markRunning();
+        try {
+            job.setTotalRows(ticketService.countTicketsWithFilters(filter.getStartDate(), filter.getEndDate(),
+                    filter.getCategoryIds(), filter.getStaffIds(), filter.getStatuses(),
+                    filter.getStudentName(), filter.getStudentId()));
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                reportService.writeReport(job.getFormat(), filter, out, job.rowsWritten);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            job.markCompleted(target, Files.size(target));
+            logger.info("Report job {} completed: {} rows, {} bytes", job.getId(), job.getRowsWritten(),
+                    job.getSizeBytes());
+        } catch (Exception e) {
+            logger.error("Report job {} failed", job.getId(), e);
+            job.markFailed(e.getMessage());
+            deleteQuietly(partial);
+        } finally {
+            activeJobsByUser.get(job.getOwner()).decrementAndGet();
+        }
+    }
+
+    /**
+     * Remove finished jobs (and their spooled files) once they are older than the TTL
+     */
+    @Scheduled(fixedDelayString = "${report.jobs.cleanup-interval-ms:60000}")
+    public void expireFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ttlMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.getFinishedAt() == null || job.getFinishedAt().isAfter(cutoff)) {
+                return false;
+            }
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            return true;
+        });
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled report file {}", path, e);
+        }
+    }
+
+    // In-memory state of one export job
+    public static class ReportJob {
+
+        public enum Status {
+            QUEUED, RUNNING, COMPLETED, FAILED
+        }
+
+        private final String id;
+        private final String owner;
+        private final ReportService.ExportFormat format;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong rowsWritten = new AtomicLong();
+        private volatile Status status = Status.QUEUED;
+        private volatile Long totalRows;
+        private volatile Path file;
+        private volatile long sizeBytes;
+        private volatile LocalDateTime finishedAt;
+        private volatile String errorMessage;
+
+        ReportJob(String id, String owner, ReportService.ExportFormat format) {
+            this.id = id;
+            this.owner = owner;
+            this.format = format;
+        }
+
+        void markRunning() {
+            this.status = Status.RUNNING;
+        }
+
+        void markCompleted(Path file, long sizeBytes) {
+            this.file = file;
+            this.sizeBytes = sizeBytes;
+            this.finishedAt = LocalDateTime.now();
+            this.status = Status.COMPLETED;
+        }
+
+        void markFailed(String errorMessage) {
+            this.errorMessage = errorMessage;
+            this.finishedAt = LocalDateTime.now();
+            this.status = Status.FAILED;
+        }
+
+        void setTotalRows(Long totalRows) {
+            this.totalRows = totalRows;
+        }
+
+        // Getters
+        public String getId() {
+            return id;
+        }
+
+        @JsonIgnore
+        public String getOwner() {
+            return owner;
+        }
+
+        public ReportService.ExportFormat getFormat() {
+            return format;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public long getRowsWritten() {
+            return rowsWritten.get();
+        }
+
+        public Long getTotalRows() {
+            return totalRows;
+        }
+
+        public int getProgressPercent() {
+            if (status == Status.COMPLETED) {
+                return 100;
+            }
+            if (totalRows == null || totalRows == 0) {
+                return 0;
+            }
+            return (int) Math.min(99, rowsWritten.get() * 100 / totalRows);
+        }
+
+        @JsonIgnore
+        public Path getFile() {
+            return file;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        public String getFilename() {
+            return "tickets_report_" + createdAt.toLocalDate() + "." + format.getExtension();
+        }
+    }
+}
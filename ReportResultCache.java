@@ -0,0 +1,132 @@
+package com.helpdesk.service;
+
+import com.helpdesk.dto.ReportFilterDTO;
+import com.helpdesk.entity.TableChangeTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Weight-bounded LRU cache of report results keyed by the normalized filter
+ * Each entry remembers the versions of the tables it was computed from and is only served
+ * while none of those tables has changed since (see TableChangeTracker). Entries are weighed in
+ * rows (a list weighs its size) and the least recently used ones are evicted once the total
+ * exceeds max-weight. Cached values are shared between requests, so they must be immutable.
+ */
+@Component
+public class ReportResultCache {
+
+    // Tables a ticket report reads (ticket rows plus category and staff names)
+    private static final String[] SOURCE_TABLES = { "tickets", "categories", "staff" };
+
+    private final Map<List<Object>, Entry> entries;
+    private final int maxEntries;
+    private final long maxWeight;
+    private long totalWeight;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ReportResultCache(@Value("${report.cache.max-entries:50}") int maxEntries,
+                             @Value("${report.cache.max-weight:200000}") long maxWeight) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Return the cached result for (kind, filter) or compute and cache it
+     * A collection weighs its size, anything else 1.
+     * @param kind distinguishes different results computed for the same filter
+     */
+    public <T> T get(String kind, ReportFilterDTO filter, Supplier<T> loader) {
+        return get(kind, filter, loader, value -> value instanceof Collection ? ((Collection<?>) value).size() : 1);
+    }
+
+    /**
+     * Return the cached result for (kind, filter) or compute and cache it
+     * @param weigher weight of the loaded value (results heavier than max-weight are not cached)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String kind, ReportFilterDTO filter, Supplier<T> loader, ToLongFunction<T> weigher) {
+        List<Object> key = List.of(kind, filter.normalized());
+
+        // Read versions before loading so a change committed during the load marks the entry stale
+        long[] versions = currentVersions();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && Arrays.equals(entry.versions, versions)) {
+                hits.incrementAndGet();
+                return (T) entry.value;
+            }
+        }
+
+        misses.incrementAndGet();
+        T value = loader.get();
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        if (weight > maxWeight) {
+            return value;
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(key, new Entry(versions, value, weight));
+            if (previous != null) {
+                totalWeight -= previous.weight;
+            }
+            totalWeight += weight;
+            evict();
+        }
+        return value;
+    }
+
+    // Drop least recently used entries until both bounds hold (caller holds the lock)
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while ((totalWeight > maxWeight || entries.size() > maxEntries) && iterator.hasNext()) {
+            totalWeight -= iterator.next().weight;
+            iterator.remove();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            totalWeight = 0;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private long[] currentVersions() {
+        long[] versions = new long[SOURCE_TABLES.length];
+        for (int i = 0; i < SOURCE_TABLES.length; i++) {
+            versions[i] = TableChangeTracker.getVersion(SOURCE_TABLES[i]);
+        }
+        return versions;
+    }
+
+    private static class Entry {
+        private final long[] versions;
+        private final Object value;
+        private final long weight;
+
+        Entry(long[] versions, Object value, long weight) {
+            this.versions = versions;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -1,39 +1,100 @@
 package com.helpdesk.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpdesk.dto.ReportFilterDTO;
+import com.helpdesk.dto.TicketPreviewDTO;
+import com.helpdesk.entity.DeletedRecord;
+import com.helpdesk.entity.ExportWatermark;
+import com.helpdesk.entity.Reply;
 import com.helpdesk.entity.SavedReport;
 import com.helpdesk.entity.Ticket;
+import com.helpdesk.repository.DeletedRecordRepository;
+import com.helpdesk.repository.ExportWatermarkRepository;
+import com.helpdesk.repository.ReplyRepository;
 import com.helpdesk.repository.SavedReportRepository;
 import com.opencsv.CSVWriter;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Paragraph;
-import com.itextpdf.layout.element.Table;
-
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ReportService {
 
+    // Column layout shared by the streaming CSV and Excel exports
+    static final String[] EXPORT_HEADERS = {
+            "ID", "Title", "Description", "Student Name", "Student ID", "Student Email",
+            "Student Phone", "Priority", "Status", "Category", "Assigned Staff",
+            "Created At", "Updated At", "Resolved At", "Resolution Notes"
+    };
+
+    static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Rows kept in memory by the streaming Excel writer before they are flushed to disk
+    private static final int EXCEL_WINDOW_SIZE = 100;
+
+    // Delta CSV: 5 record columns + ticket columns without ID + 2 reply columns
+    private static final int DELTA_CSV_WIDTH = 5 + EXPORT_HEADERS.length - 1 + 2;
+
     @Autowired
     private SavedReportRepository savedReportRepository;
 
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private PdfReportRenderer pdfReportRenderer;
+
+    @Autowired
+    private ReportResultCache reportResultCache;
+
+    @Autowired
+    private ReplyRepository replyRepository;
+
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
+    @Autowired
+    private ExportWatermarkRepository exportWatermarkRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${report.delta.overlap-seconds:300}")
+    private long deltaOverlapSeconds;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     // Saved Report CRUD Operations
     public SavedReport createSavedReport(SavedReport savedReport) {
         if (savedReportRepository.existsByNameAndCreatedBy(savedReport.getName(), savedReport.getCreatedBy())) {
@@ -58,7 +119,26 @@ public class ReportService {
         return savedReportRepository.save(savedReport);
     }
 
+    public SavedReport updateSavedReportSchedule(Long id, SavedReport.Schedule schedule) {
+        SavedReport savedReport = savedReportRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Saved report not found with id: " + id));
+        savedReport.setSchedule(schedule);
+        if (schedule == SavedReport.Schedule.NONE) {
+            savedReport.clearMaterialization();
+        }
+        return savedReportRepository.save(savedReport);
+    }
+
     public void deleteSavedReport(Long id) {
+        savedReportRepository.findById(id).ifPresent(savedReport -> {
+            if (savedReport.getArtifactPath() != null) {
+                try {
+                    Files.deleteIfExists(Paths.get(savedReport.getArtifactPath()));
+                } catch (IOException e) {
+                    // Orphaned artifact files are harmless
+                }
+            }
+        });
         savedReportRepository.deleteById(id);
     }
 
@@ -168,71 +248,381 @@ public class ReportService {
 
     public byte[] generatePDFReport(List<Ticket> tickets) throws IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(outputStream);
-        PdfDocument pdfDoc = new PdfDocument(writer);
-        Document document = new Document(pdfDoc);
+        pdfReportRenderer.render(tickets.stream(), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    // Stream the filtered tickets straight into the output as PDF, without loading them all first
+    public long writePDFReport(LocalDate startDate, LocalDate endDate,
+                               List<Long> categoryIds, List<Long> staffIds,
+                               List<Ticket.Status> statuses, String studentName,
+                               String studentId, OutputStream outputStream) throws IOException {
+        ReportFilterDTO filter = new ReportFilterDTO(startDate, endDate, categoryIds, staffIds,
+                statuses, studentName, studentId);
+        return writeReport(ExportFormat.PDF, filter, outputStream, null);
+    }
 
-        // Add title
-        document.add(new Paragraph("Tickets Report")
-                .setFontSize(18));
+    /**
+     * Stream the filtered tickets into the output in the requested format
+     * Rows are read one at a time from the database and detached once written
+     * @param progress optional counter incremented for every row written
+     * @return number of ticket rows written
+     */
+    @Transactional(readOnly = true)
+    public long writeReport(ExportFormat format, ReportFilterDTO filter, OutputStream outputStream,
+                            AtomicLong progress) throws IOException {
+        try (Stream<Ticket> rows = ticketService.streamTicketsWithFilters(filter.getStartDate(),
+                filter.getEndDate(), filter.getCategoryIds(), filter.getStaffIds(), filter.getStatuses(),
+                filter.getStudentName(), filter.getStudentId())) {
+            Stream<Ticket> tickets = rows.peek(ticket -> {
+                entityManager.detach(ticket);
+                if (progress != null) {
+                    progress.incrementAndGet();
+                }
+            });
+
+            switch (format) {
+                case CSV:
+                    return writeCSVReport(tickets, outputStream);
+                case EXCEL:
+                    return writeExcelReport(tickets, outputStream);
+                default:
+                    return pdfReportRenderer.render(tickets, outputStream);
+            }
+        }
+    }
 
-        document.add(new Paragraph("Generated on: " +
-                java.time.LocalDateTime.now()
-                        .format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
-                .setFontSize(10));
+    // Streaming CSV writer - flushes the output but leaves closing it to the caller
+    public long writeCSVReport(Stream<Ticket> tickets, OutputStream outputStream) throws IOException {
+        CSVWriter csvWriter = new CSVWriter(new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+        csvWriter.writeNext(EXPORT_HEADERS);
+
+        long rowCount = 0;
+        Iterator<Ticket> iterator = tickets.iterator();
+        while (iterator.hasNext()) {
+            csvWriter.writeNext(toExportRow(iterator.next()));
+            rowCount++;
+        }
 
-        document.add(new Paragraph("\n"));
+        csvWriter.flush();
+        return rowCount;
+    }
 
-        // Create simple table with 8 columns
-        Table table = new Table(8);
+    // Streaming Excel writer - only a small window of rows is kept in memory (SXSSF)
+    public long writeExcelReport(Stream<Ticket> tickets, OutputStream outputStream) throws IOException {
+        return writeExcelRows(tickets.map(this::toExportRow).iterator(), outputStream);
+    }
 
-        // Add headers
-        String[] headers = { "ID", "Title", "Student", "Category", "Priority", "Status", "Staff", "Created" };
-        for (String header : headers) {
-            table.addHeaderCell(new com.itextpdf.layout.element.Cell()
-                    .add(new Paragraph(header)));
+    // Excel writer for export rows already loaded (e.g. from the result cache)
+    public long writeExcelReport(List<List<String>> rows, OutputStream outputStream) throws IOException {
+        return writeExcelRows(rows.stream().map(row -> row.toArray(new String[0])).iterator(), outputStream);
+    }
+
+    private long writeExcelRows(Iterator<String[]> rows, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Tickets Report");
+
+            // Create header style
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+            headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+            // Create header row (fixed widths: auto-sizing is not possible once rows are flushed)
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < EXPORT_HEADERS.length; i++) {
+                org.apache.poi.ss.usermodel.Cell cell = headerRow.createCell(i);
+                cell.setCellValue(EXPORT_HEADERS[i]);
+                cell.setCellStyle(headerStyle);
+                sheet.setColumnWidth(i, (i == 2 || i == 14 ? 50 : 20) * 256);
+            }
+
+            // Create data rows
+            int rowNum = 1;
+            while (rows.hasNext()) {
+                String[] values = rows.next();
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(Long.parseLong(values[0]));
+                for (int i = 1; i < values.length; i++) {
+                    row.createCell(i).setCellValue(values[i]);
+                }
+            }
+
+            workbook.write(outputStream);
+            outputStream.flush();
+            return rowNum - 1L;
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
+    }
 
-        // Add data rows
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        for (Ticket ticket : tickets) {
-            table.addCell(new com.itextpdf.layout.element.Cell().add(new Paragraph(ticket.getId().toString())));
-            table.addCell(new com.itextpdf.layout.element.Cell().add(new Paragraph(ticket.getTitle())));
-            table.addCell(new com.itextpdf.layout.element.Cell()
-                    .add(new Paragraph(ticket.getStudentName() + " (" + ticket.getStudentId() + ")")));
-            table.addCell(new com.itextpdf.layout.element.Cell().add(new Paragraph(ticket.getCategory().getName())));
-            table.addCell(new com.itextpdf.layout.element.Cell().add(new Paragraph(ticket.getPriority().toString())));
-            table.addCell(new com.itextpdf.layout.element.Cell().add(new Paragraph(ticket.getStatus().toString())));
-            table.addCell(new com.itextpdf.layout.element.Cell().add(new Paragraph(
-                    ticket.getAssignedStaff() != null ? ticket.getAssignedStaff().getName() : "Unassigned")));
-            table.addCell(
-                    new com.itextpdf.layout.element.Cell().add(new Paragraph(ticket.getCreatedAt().format(formatter))));
-        }
-
-        document.add(table);
-        document.close();
+    // One export row in EXPORT_HEADERS order
+    String[] toExportRow(Ticket ticket) {
+        return new String[] {
+                ticket.getId().toString(),
+                ticket.getTitle(),
+                ticket.getDescription(),
+                ticket.getStudentName(),
+                ticket.getStudentId(),
+                ticket.getStudentEmail(),
+                ticket.getStudentPhone() != null ? ticket.getStudentPhone() : "",
+                ticket.getPriority().toString(),
+                ticket.getStatus().toString(),
+                ticket.getCategory().getName(),
+                ticket.getAssignedStaff() != null ? ticket.getAssignedStaff().getName() : "",
+                ticket.getCreatedAt().format(EXPORT_DATE_FORMAT),
+                ticket.getUpdatedAt() != null ? ticket.getUpdatedAt().format(EXPORT_DATE_FORMAT) : "",
+                ticket.getResolvedAt() != null ? ticket.getResolvedAt().format(EXPORT_DATE_FORMAT) : "",
+                ticket.getResolutionNotes() != null ? ticket.getResolutionNotes() : ""
+        };
+    }
 
-        return outputStream.toByteArray();
+    // Export rows (EXPORT_HEADERS order) of the tickets matching the filter - served from the result
+    // cache while the source tables are unchanged; rows are immutable copies, never entities
+    @Transactional(readOnly = true)
+    public List<List<String>> getReportRows(ReportFilterDTO filter) {
+        return reportResultCache.get("rows", filter, () -> {
+            ReportFilterDTO f = filter.normalized();
+            return ticketService.getTicketsWithFilters(f.getStartDate(), f.getEndDate(), f.getCategoryIds(),
+                            f.getStaffIds(), f.getStatuses(), f.getStudentName(), f.getStudentId()).stream()
+                    .map(ticket -> Collections.unmodifiableList(Arrays.asList(toExportRow(ticket))))
+                    .toList();
+        });
+    }
+
+    // One keyset page of lightweight preview rows (cached per page like the ticket list)
+    @Transactional(readOnly = true)
+    public List<TicketPreviewDTO> getPreviewRows(ReportFilterDTO filter, Long afterId, int pageSize) {
+        return reportResultCache.get("preview:" + afterId + ":" + pageSize, filter, () -> {
+            ReportFilterDTO f = filter.normalized();
+            return List.copyOf(ticketService.getPreviewRowsWithFilters(afterId, pageSize, f.getStartDate(),
+                    f.getEndDate(), f.getCategoryIds(), f.getStaffIds(), f.getStatuses(), f.getStudentName(),
+                    f.getStudentId()));
+        });
     }
 
-    // Report aggregation summary
+    // Report aggregation summary - every metric comes from a single conditional-aggregation query
+    @Transactional(readOnly = true)
     public ReportSummaryDTO generateReportSummary(LocalDate startDate, LocalDate endDate,
                                                   List<Long> categoryIds, List<Long> staffIds,
                                                   List<Ticket.Status> statuses, String studentName,
                                                   String studentId) {
-        Long totalCount = ticketService.countTicketsWithFilters(startDate, endDate, categoryIds,
-                staffIds, statuses, studentName, studentId);
-        Double avgResolutionTime = ticketService.getAverageResolutionTimeWithFilters(startDate, endDate,
-                categoryIds, staffIds,
+        ReportFilterDTO filter = new ReportFilterDTO(startDate, endDate, categoryIds, staffIds,
                 statuses, studentName, studentId);
+        return reportResultCache.get("summary", filter, () -> {
+            ReportFilterDTO f = filter.normalized();
+            Object[] row = ticketService.getReportSummaryWithFilters(f.getStartDate(), f.getEndDate(),
+                    f.getCategoryIds(), f.getStaffIds(), f.getStatuses(), f.getStudentName(), f.getStudentId());
+            ReportSummaryDTO summary = new ReportSummaryDTO(toLong(row[0]),
+                    row[1] != null ? ((Number) row[1]).doubleValue() : null);
+            summary.setOpenTickets(toLong(row[2]));
+            summary.setInProgressTickets(toLong(row[3]));
+            summary.setResolvedTickets(toLong(row[4]));
+            summary.setClosedTickets(toLong(row[5]));
+            summary.setUnassignedTickets(toLong(row[6]));
+            return summary;
+        });
+    }
 
-        return new ReportSummaryDTO(totalCount, avgResolutionTime);
+    // SUM() over no rows is NULL
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * Stream everything that changed in [since, until): tickets and replies created or modified in
+     * the window as UPSERT records, then tombstones of deleted ones as DELETE records
+     * The window is widened by report.delta.overlap-seconds at the start so rows from transactions
+     * that committed after the previous export are not missed (consumers upsert by id)
+     * @return number of records written
+     */
+    @Transactional(readOnly = true)
+    public long writeDeltaExport(DeltaFormat format, LocalDateTime since, LocalDateTime until,
+                                 OutputStream outputStream) throws IOException {
+        LocalDateTime from = since.minusSeconds(deltaOverlapSeconds);
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        CSVWriter csvWriter = null;
+        if (format == DeltaFormat.CSV) {
+            csvWriter = new CSVWriter(writer);
+            csvWriter.writeNext(deltaCsvHeaders());
+        }
+
+        long recordCount = 0;
+        // One result set at a time - MySQL allows a single open streaming result per connection
+        try (Stream<Ticket> tickets = ticketService.streamTicketsChangedBetween(from, until)) {
+            Iterator<Ticket> iterator = tickets.iterator();
+            while (iterator.hasNext()) {
+                Ticket ticket = iterator.next();
+                writeDeltaRecord(format, writer, csvWriter, "TICKET", "UPSERT", ticket.getId(), ticket.getId(),
+                        ticket.getUpdatedAt(), toExportRow(ticket), null);
+                entityManager.detach(ticket);
+                recordCount++;
+            }
+        }
+        try (Stream<Reply> replies = replyRepository.streamRepliesChangedBetween(from, until)) {
+            Iterator<Reply> iterator = replies.iterator();
+            while (iterator.hasNext()) {
+                Reply reply = iterator.next();
+                LocalDateTime changedAt = reply.getUpdatedAt() != null ? reply.getUpdatedAt() : reply.getCreatedAt();
+                writeDeltaRecord(format, writer, csvWriter, "REPLY", "UPSERT", reply.getId(), reply.getTicket().getId(),
+                        changedAt, null, reply);
+                entityManager.detach(reply);
+                recordCount++;
+            }
+        }
+        for (DeletedRecord tombstone : deletedRecordRepository
+                .findByDeletedAtGreaterThanEqualAndDeletedAtLessThanOrderByDeletedAt(from, until)) {
+            writeDeltaRecord(format, writer, csvWriter, tombstone.getRecordType().name(), "DELETE",
+                    tombstone.getRecordId(), tombstone.getTicketId(), tombstone.getDeletedAt(), null, null);
+            recordCount++;
+        }
+
+        if (csvWriter != null) {
+            csvWriter.flush();
+        } else {
+            writer.flush();
+        }
+        return recordCount;
+    }
+
+    // Watermark stored for a delta export consumer (null before its first export)
+    @Transactional(readOnly = true)
+    public LocalDateTime getDeltaWatermark(String consumer) {
+        return exportWatermarkRepository.findById(consumer).map(ExportWatermark::getWatermark).orElse(null);
+    }
+
+    // Advance a consumer's watermark after its delta export was written completely
+    public void saveDeltaWatermark(String consumer, LocalDateTime watermark) {
+        ExportWatermark exportWatermark = exportWatermarkRepository.findById(consumer)
+                .orElseGet(() -> new ExportWatermark(consumer));
+        exportWatermark.setWatermark(watermark);
+        exportWatermark.setLastExportAt(LocalDateTime.now());
+        exportWatermarkRepository.save(exportWatermark);
+    }
+
+    // Delta CSV columns: record header, ticket columns (without ID), reply columns
+    private String[] deltaCsvHeaders() {
+        String[] headers = new String[DELTA_CSV_WIDTH];
+        headers[0] = "Record Type";
+        headers[1] = "Operation";
+        headers[2] = "Record ID";
+        headers[3] = "Ticket ID";
+        headers[4] = "Changed At";
+        System.arraycopy(EXPORT_HEADERS, 1, headers, 5, EXPORT_HEADERS.length - 1);
+        headers[DELTA_CSV_WIDTH - 2] = "Reply Author";
+        headers[DELTA_CSV_WIDTH - 1] = "Reply Content";
+        return headers;
+    }
+
+    private void writeDeltaRecord(DeltaFormat format, Writer writer, CSVWriter csvWriter, String recordType,
+                                  String operation, Long recordId, Long ticketId, LocalDateTime changedAt,
+                                  String[] ticketRow, Reply reply) throws IOException {
+        String changed = changedAt != null ? changedAt.format(EXPORT_DATE_FORMAT) : "";
+
+        if (format == DeltaFormat.CSV) {
+            String[] row = new String[DELTA_CSV_WIDTH];
+            Arrays.fill(row, "");
+            row[0] = recordType;
+            row[1] = operation;
+            row[2] = recordId.toString();
+            row[3] = ticketId != null ? ticketId.toString() : "";
+            row[4] = changed;
+            if (ticketRow != null) {
+                System.arraycopy(ticketRow, 1, row, 5, ticketRow.length - 1);
+            }
+            if (reply != null) {
+                row[DELTA_CSV_WIDTH - 2] = reply.getUser().getFullName();
+                row[DELTA_CSV_WIDTH - 1] = reply.getContent();
+            }
+            csvWriter.writeNext(row);
+            return;
+        }
+
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("type", recordType);
+        record.put("op", operation);
+        record.put("id", recordId);
+        record.put("ticketId", ticketId);
+        record.put("changedAt", changed);
+        if (ticketRow != null) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            for (int i = 1; i < EXPORT_HEADERS.length; i++) {
+                data.put(EXPORT_HEADERS[i], ticketRow[i]);
+            }
+            record.put("data", data);
+        }
+        if (reply != null) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("author", reply.getUser().getFullName());
+            data.put("content", reply.getContent());
+            data.put("createdAt", reply.getCreatedAt() != null ? reply.getCreatedAt().format(EXPORT_DATE_FORMAT) : "");
+            record.put("data", data);
+        }
+        writer.write(objectMapper.writeValueAsString(record));
+        writer.write('\n');
+    }
+
+    // Delta export formats
+    public enum DeltaFormat {
+        CSV("csv", "text/csv"),
+        NDJSON("ndjson", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        DeltaFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    // Supported export formats
+    public enum ExportFormat {
+        CSV("csv", "text/csv"),
+        EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        PDF("pdf", "application/pdf");
+
+        private final String extension;
+        private final String contentType;
+
+        ExportFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
     }
 
     // DTO for report summary
     public static class ReportSummaryDTO {
         private Long totalTickets;
         private Double averageResolutionTimeHours;
+        // Status breakdown - null for summaries that only carry the totals (materialized reports)
+        private Long openTickets;
+        private Long inProgressTickets;
+        private Long resolvedTickets;
+        private Long closedTickets;
+        private Long unassignedTickets;
 
         public ReportSummaryDTO(Long totalTickets, Double averageResolutionTimeHours) {
             this.totalTickets = totalTickets;
@@ -255,5 +645,45 @@ public class ReportService {
         public void setAverageResolutionTimeHours(Double averageResolutionTimeHours) {
             this.averageResolutionTimeHours = averageResolutionTimeHours;
         }
+
+        public Long getOpenTickets() {
+            return openTickets;
+        }
+
+        public void setOpenTickets(Long openTickets) {
+            this.openTickets = openTickets;
+        }
+
+        public Long getInProgressTickets() {
+            return inProgressTickets;
+        }
+
+        public void setInProgressTickets(Long inProgressTickets) {
+            this.inProgressTickets = inProgressTickets;
+        }
+
+        public Long getResolvedTickets() {
+            return resolvedTickets;
+        }
+
+        public void setResolvedTickets(Long resolvedTickets) {
+            this.resolvedTickets = resolvedTickets;
+        }
+
+        public Long getClosedTickets() {
+            return closedTickets;
+        }
+
+        public void setClosedTickets(Long closedTickets) {
+            this.closedTickets = closedTickets;
+        }
+
+        public Long getUnassignedTickets() {
+            return unassignedTickets;
+        }
+
+        public void setUnassignedTickets(Long unassignedTickets) {
+            this.unassignedTickets = unassignedTickets;
+        }
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -51,6 +52,30 @@ public class SavedReport extends BaseEntity {
     @Column(name = "created_by")
     private String createdBy;
 
+    // Pre-materialization (filled in by the background scheduler)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "schedule", length = 20)
+    private Schedule schedule = Schedule.NONE;
+
+    @Column(name = "materialized_at")
+    private LocalDateTime materializedAt;
+
+    @Column(name = "materialized_watermark")
+    private LocalDateTime materializedWatermark;
+
+    @Column(name = "materialized_ticket_count")
+    private Long materializedTicketCount;
+
+    @Column(name = "materialized_avg_resolution_hours")
+    private Double materializedAvgResolutionHours;
+
+    @Column(name = "artifact_path")
+    private String artifactPath;
+
+    public enum Schedule {
+        NONE, HOURLY, NIGHTLY
+    }
+
     // Constructors
     public SavedReport() {}
 
@@ -140,4 +165,65 @@ public class SavedReport extends BaseEntity {
     public void setCreatedBy(String createdBy) {
         this.createdBy = createdBy;
     }
+
+    public Schedule getSchedule() {
+        return schedule != null ? schedule : Schedule.NONE;
+    }
+
+    public void setSchedule(Schedule schedule) {
+        this.schedule = schedule;
+    }
+
+    public LocalDateTime getMaterializedAt() {
+        return materializedAt;
+    }
+
+    public void setMaterializedAt(LocalDateTime materializedAt) {
+        this.materializedAt = materializedAt;
+    }
+
+    public LocalDateTime getMaterializedWatermark() {
+        return materializedWatermark;
+    }
+
+    public void setMaterializedWatermark(LocalDateTime materializedWatermark) {
+        this.materializedWatermark = materializedWatermark;
+    }
+
+    public Long getMaterializedTicketCount() {
+        return materializedTicketCount;
+    }
+
+    public void setMaterializedTicketCount(Long materializedTicketCount) {
+        this.materializedTicketCount = materializedTicketCount;
+    }
+
+    public Double getMaterializedAvgResolutionHours() {
+        return materializedAvgResolutionHours;
+    }
+
+    public void setMaterializedAvgResolutionHours(Double materializedAvgResolutionHours) {
+        this.materializedAvgResolutionHours = materializedAvgResolutionHours;
+    }
+
+    public String getArtifactPath() {
+        return artifactPath;
+    }
+
+    public void setArtifactPath(String artifactPath) {
+        this.artifactPath = artifactPath;
+    }
+
+    // Helper method - true when a materialized summary can be served instead of querying
+    public boolean isMaterialized() {
+        return materializedAt != null && materializedTicketCount != null;
+    }
+
+    // Clear the materialized state (e.g. after the filter or schedule changes)
+    public void clearMaterialization() {
+        this.materializedAt = null;
+        this.materializedWatermark = null;
+        this.materializedTicketCount = null;
+        this.materializedAvgResolutionHours = null;
+    }
 }
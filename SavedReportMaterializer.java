@@ -0,0 +1,192 @@
+package com.helpdesk.service;
+
+import com.helpdesk.dto.ReportFilterDTO;
+import com.helpdesk.entity.SavedReport;
+import com.helpdesk.entity.Ticket;
+import com.helpdesk.repository.SavedReportRepository;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Pre-materializes saved reports: keeps a CSV artifact of the report rows plus the summary
+ * numbers on the SavedReport, so opening the report is a lookup.
+ * Refreshes are incremental - only tickets whose updatedAt passed the stored watermark are
+ * re-evaluated against the filter. A full rebuild happens on the first run, when the artifact
+ * is missing, or when the row count no longer matches the database (deleted tickets).
+ */
+@Service
+@Transactional
+public class SavedReportMaterializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedReportMaterializer.class);
+
+    // Column positions in the export row (see ReportService.EXPORT_HEADERS)
+    private static final int COL_ID = 0;
+    private static final int COL_CREATED_AT = 11;
+    private static final int COL_RESOLVED_AT = 13;
+
+    @Autowired
+    private SavedReportRepository savedReportRepository;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${report.materialize.dir:uploads/saved-reports/}")
+    private String artifactDir;
+
+    // Re-read this much before the watermark to pick up transactions that committed late
+    @Value("${report.materialize.watermark-overlap-minutes:5}")
+    private long watermarkOverlapMinutes;
+
+    /**
+     * Materialize (or refresh) one saved report
+     */
+    public SavedReport materialize(Long savedReportId) throws IOException {
+        SavedReport savedReport = savedReportRepository.findById(savedReportId)
+                .orElseThrow(() -> new RuntimeException("Saved report not found with id: " + savedReportId));
+
+        ReportFilterDTO filter = new ReportFilterDTO(savedReport.getStartDate(), savedReport.getEndDate(),
+                savedReport.getCategoryIds(), savedReport.getStaffIds(), savedReport.getStatuses(),
+                savedReport.getStudentName(), savedReport.getStudentId()).normalized();
+
+        Path artifact = Paths.get(artifactDir, "saved-report-" + savedReport.getId() + ".csv");
+        LocalDateTime runStartedAt = LocalDateTime.now();
+
+        Map<Long, String[]> rows;
+        LocalDateTime watermark;
+        if (savedReport.isMaterialized() && savedReport.getMaterializedWatermark() != null && Files.exists(artifact)) {
+            rows = readArtifact(artifact);
+            watermark = applyChanges(rows, filter, savedReport.getMaterializedWatermark());
+
+            // Deleted tickets leave no updatedAt trace - a count mismatch forces a rebuild
+            Long expectedCount = ticketService.countTicketsWithFilters(filter.getStartDate(), filter.getEndDate(),
+                    filter.getCategoryIds(), filter.getStaffIds(), filter.getStatuses(),
+                    filter.getStudentName(), filter.getStudentId());
+            if (expectedCount == null || expectedCount != rows.size()) {
+                logger.info("Saved report {} drifted ({} rows materialized, {} expected) - rebuilding",
+                        savedReport.getId(), rows.size(), expectedCount);
+                rows = buildAll(filter);
+                watermark = runStartedAt;
+            }
+        } else {
+            rows = buildAll(filter);
+            watermark = runStartedAt;
+        }
+
+        writeArtifact(artifact, rows);
+
+        savedReport.setMaterializedTicketCount((long) rows.size());
+        savedReport.setMaterializedAvgResolutionHours(averageResolutionHours(rows));
+        savedReport.setMaterializedWatermark(watermark);
+        savedReport.setMaterializedAt(LocalDateTime.now());
+        savedReport.setArtifactPath(artifact.toString());
+        return savedReportRepository.save(savedReport);
+    }
+
+    // Full build - streams every matching ticket once
+    private Map<Long, String[]> buildAll(ReportFilterDTO filter) {
+        Map<Long, String[]> rows = new LinkedHashMap<>();
+        try (Stream<Ticket> tickets = ticketService.streamTicketsWithFilters(filter.getStartDate(),
+                filter.getEndDate(), filter.getCategoryIds(), filter.getStaffIds(), filter.getStatuses(),
+                filter.getStudentName(), filter.getStudentId())) {
+            Iterator<Ticket> iterator = tickets.iterator();
+            while (iterator.hasNext()) {
+                Ticket ticket = iterator.next();
+                rows.put(ticket.getId(), reportService.toExportRow(ticket));
+                entityManager.detach(ticket);
+            }
+        }
+        return rows;
+    }
+
+    // Incremental refresh - upsert tickets that now match, drop the ones that no longer do
+    private LocalDateTime applyChanges(Map<Long, String[]> rows, ReportFilterDTO filter, LocalDateTime watermark) {
+        LocalDateTime newWatermark = watermark;
+        List<Ticket> changed = ticketService.getTicketsUpdatedSince(watermark.minusMinutes(watermarkOverlapMinutes));
+        for (Ticket ticket : changed) {
+            if (filter.matches(ticket)) {
+                rows.put(ticket.getId(), reportService.toExportRow(ticket));
+            } else {
+                rows.remove(ticket.getId());
+            }
+            if (ticket.getUpdatedAt() != null && ticket.getUpdatedAt().isAfter(newWatermark)) {
+                newWatermark = ticket.getUpdatedAt();
+            }
+        }
+        return newWatermark;
+    }
+
+    private Double averageResolutionHours(Map<Long, String[]> rows) {
+        long resolvedCount = 0;
+        long totalHours = 0;
+        for (String[] row : rows.values()) {
+            if (row[COL_RESOLVED_AT] == null || row[COL_RESOLVED_AT].isEmpty()) {
+                continue;
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(row[COL_CREATED_AT], ReportService.EXPORT_DATE_FORMAT);
+            LocalDateTime resolvedAt = LocalDateTime.parse(row[COL_RESOLVED_AT], ReportService.EXPORT_DATE_FORMAT);
+            totalHours += ChronoUnit.HOURS.between(createdAt, resolvedAt);
+            resolvedCount++;
+        }
+        return resolvedCount > 0 ? (double) totalHours / resolvedCount : null;
+    }
+
+    private Map<Long, String[]> readArtifact(Path artifact) throws IOException {
+        Map<Long, String[]> rows = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(artifact, StandardCharsets.UTF_8);
+             CSVReader csvReader = new CSVReader(reader)) {
+            csvReader.readNext(); // header
+            String[] row;
+            while ((row = csvReader.readNext()) != null) {
+                rows.put(Long.valueOf(row[COL_ID]), row);
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException("Corrupt report artifact " + artifact, e);
+        }
+        return rows;
+    }
+
+    private void writeArtifact(Path artifact, Map<Long, String[]> rows) throws IOException {
+        Files.createDirectories(artifact.getParent());
+        Path partial = artifact.resolveSibling(artifact.getFileName() + ".part");
+        try (BufferedWriter writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8);
+             CSVWriter csvWriter = new CSVWriter(writer)) {
+            csvWriter.writeNext(ReportService.EXPORT_HEADERS);
+            for (String[] row : rows.values()) {
+                csvWriter.writeNext(row);
+            }
+        }
+        Files.move(partial, artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -15,6 +15,9 @@ public interface SavedReportRepository extends JpaRepository<SavedReport, Long>
     // Find all ordered by creation date
     List<SavedReport> findAllByOrderByCreatedAtDesc();
 
+    // Reports with a materialization schedule
+    List<SavedReport> findByScheduleNot(SavedReport.Schedule schedule);
+
     // Check if name exists for a user
     boolean existsByNameAndCreatedBy(String name, String createdBy);
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.helpdesk.service;
+
+import com.helpdesk.entity.SavedReport;
+import com.helpdesk.repository.SavedReportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Runs scheduled saved reports in the background
+ * HOURLY reports refresh once an hour; NIGHTLY reports refresh once a day inside the
+ * off-peak hour (report.materialize.nightly-hour)
+ */
+@Component
+public class SavedReportScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedReportScheduler.class);
+
+    @Autowired
+    private SavedReportRepository savedReportRepository;
+
+    @Autowired
+    private SavedReportMaterializer savedReportMaterializer;
+
+    @Value("${report.materialize.nightly-hour:2}")
+    private int nightlyHour;
+
+    @Scheduled(cron = "${report.materialize.cron:0 */10 * * * *}")
+    public void runDueReports() {
+        LocalDateTime now = LocalDateTime.now();
+        for (SavedReport savedReport : savedReportRepository.findByScheduleNot(SavedReport.Schedule.NONE)) {
+            if (!isDue(savedReport, now)) {
+                continue;
+            }
+            try {
+                savedReportMaterializer.materialize(savedReport.getId());
+            } catch (Exception e) {
+                // One failing report must not stop the others
+                logger.error("Materializing saved report {} failed", savedReport.getId(), e);
+            }
+        }
+    }
+
+    private boolean isDue(SavedReport savedReport, LocalDateTime now) {
+        LocalDateTime lastRun = savedReport.getMaterializedAt();
+        switch (savedReport.getSchedule()) {
+            case HOURLY:
+                return lastRun == null || lastRun.isBefore(now.minusHours(1));
+            case NIGHTLY:
+                LocalDateTime windowStart = LocalDate.now().atTime(nightlyHour, 0);
+                boolean inWindow = !now.isBefore(windowStart) && now.isBefore(windowStart.plusHours(1));
+                return inWindow && (lastRun == null || lastRun.isBefore(windowStart));
+            default:
+                return false;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "staff")
+@EntityListeners(TableChangeTracker.class)
 public class Staff extends BaseEntity {
 
     @NotBlank(message = "Staff name is required")
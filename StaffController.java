@@ -18,6 +18,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.Optional;
+
 @Controller
 @RequestMapping("/staff")
 @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
@@ -59,6 +61,7 @@ public class StaffController {
         model.addAttribute("inProgressTickets", inProgressTickets);
         model.addAttribute("resolvedTickets", resolvedTickets);
         model.addAttribute("assignedTicketsCount", assignedTickets.getTotalElements());
+        model.addAttribute("queuedTicketsCount", ticketService.getQueuedTicketsCount());
 
         return "staff/dashboard";
     }
@@ -149,6 +152,27 @@ public class StaffController {
         return "redirect:/staff/tickets/" + id;
     }
 
+    // Pull-based queue: assign the next ticket (highest aged priority, oldest first) to the caller
+    @PostMapping("/tickets/claim-next")
+    public String claimNextTicket(RedirectAttributes redirectAttributes) {
+        User currentUser = userService.getCurrentUser();
+        if (currentUser == null) {
+            return "redirect:/login";
+        }
+
+        try {
+            Optional<Ticket> claimed = ticketService.claimNextTicket(currentUser);
+            if (claimed.isPresent()) {
+                redirectAttributes.addFlashAttribute("success", "Ticket assigned to you: " + claimed.get().getTitle());
+                return "redirect:/staff/tickets/" + claimed.get().getId();
+            }
+            redirectAttributes.addFlashAttribute("success", "No open tickets waiting in the queue.");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error claiming ticket: " + e.getMessage());
+        }
+        return "redirect:/staff/dashboard";
+    }
+
     @PostMapping("/tickets/{id}/assign-to-me")
     public String assignTicketToMe(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         User currentUser = userService.getCurrentUser();
@@ -0,0 +1,145 @@
+package com.helpdesk.strategy;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit stream of strategy decisions
+ * Strategies publish into a fixed-size lock-free ring buffer (one atomic increment and one slot
+ * write per decision), so auditing never blocks a payment. A background appender thread drains
+ * the ring into the "payment.audit" log; the latest decisions can be read straight from the ring.
+ * When the appender falls a full ring behind, the overwritten events are counted as dropped.
+ */
+@Component
+public class StrategyAuditLog {
+
+    private static final Logger auditLogger = LoggerFactory.getLogger("payment.audit");
+    private static final Logger logger = LoggerFactory.getLogger(StrategyAuditLog.class);
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Slot> ring;
+    // Next sequence to claim - every published event has a sequence below this
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread appender;
+
+    public StrategyAuditLog(@Value("${payment.audit.buffer-size:1024}") int requestedCapacity) {
+        // Power of two so the slot is a mask instead of a modulo
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.ring = new AtomicReferenceArray<>(size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        appender = new Thread(this::drain, "strategy-audit-appender");
+        appender.setDaemon(true);
+        appender.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(appender);
+        appender.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    /**
+     * Publish a decision - never blocks
+     */
+    public void record(StrategyDecisionEvent event) {
+        long sequence = nextSequence.getAndIncrement();
+        ring.set((int) (sequence & mask), new Slot(sequence, event));
+    }
+
+    /**
+     * Convenience for strategies: build and publish the event
+     * @param startNanos System.nanoTime() taken when the decision started
+     */
+    public void record(String strategy, String input, String outcome, String reason, long startNanos) {
+        record(new StrategyDecisionEvent(strategy, input, outcome, reason, System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Most recent decisions, newest first
+     */
+    public List<StrategyDecisionEvent> getRecentDecisions(int limit) {
+        long newest = nextSequence.get() - 1;
+        List<StrategyDecisionEvent> recent = new ArrayList<>(Math.min(limit, capacity));
+        for (long sequence = newest; sequence >= 0 && sequence > newest - capacity && recent.size() < limit; sequence--) {
+            Slot slot = ring.get((int) (sequence & mask));
+            // Skip slots claimed but not written yet, or already reused by a newer event
+            if (slot != null && slot.sequence == sequence) {
+                recent.add(slot.event);
+            }
+        }
+        return recent;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    // Appender loop: writes every published event to the audit log in sequence order
+    private void drain() {
+        long cursor = 0;
+        while (running || cursor < nextSequence.get()) {
+            long published = nextSequence.get();
+            if (cursor >= published) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                continue;
+            }
+
+            Slot slot = ring.get((int) (cursor & mask));
+            if (slot == null || slot.sequence < cursor) {
+                // Claimed but not written yet
+                if (!running) {
+                    cursor++;
+                } else {
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+            if (slot.sequence > cursor) {
+                // The ring wrapped past us - skip to the oldest event still in it
+                long oldest = Math.max(cursor + 1, published - capacity);
+                droppedEvents.addAndGet(oldest - cursor);
+                cursor = oldest;
+                continue;
+            }
+
+            try {
+                auditLogger.info("{}", slot.event);
+            } catch (RuntimeException e) {
+                logger.warn("Could not write strategy audit event", e);
+            }
+            cursor++;
+        }
+    }
+
+    private static final class Slot {
+        private final long sequence;
+        private final StrategyDecisionEvent event;
+
+        Slot(long sequence, StrategyDecisionEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
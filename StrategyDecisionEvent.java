@@ -0,0 +1,63 @@
+package com.helpdesk.strategy;
+
+import java.time.LocalDateTime;
+
+/**
+ * One decision taken by a payment or category strategy
+ * Immutable - published to the StrategyAuditLog and read by the audit appender and the settings page
+ */
+public class StrategyDecisionEvent {
+
+    private final LocalDateTime timestamp;
+    private final String strategy;
+    private final String input;
+    private final String outcome;
+    private final String reason;
+    private final long latencyNanos;
+
+    public StrategyDecisionEvent(String strategy, String input, String outcome, String reason, long latencyNanos) {
+        this.timestamp = LocalDateTime.now();
+        this.strategy = strategy;
+        this.input = input;
+        this.outcome = outcome;
+        this.reason = reason;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Strategy that decided, e.g. "Automated payment" or "Strict category"
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public double getLatencyMicros() {
+        return latencyNanos / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "strategy=\"" + strategy + "\" input=\"" + input + "\" outcome=" + outcome
+                + " reason=\"" + reason + "\" latencyUs=" + String.format("%.1f", getLatencyMicros());
+    }
+}
@@ -1,5 +1,6 @@
 package com.helpdesk.strategy;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -13,29 +14,24 @@ public class StrictCategoryStrategy implements CategoryStrategy {
     
     private static final int MAX_LENGTH = 50;
     
+    @Autowired
+    private StrategyAuditLog auditLog;
+    
     @Override
     public String validateCategory(String categoryName) {
-        System.out.println("  ┌" + "─".repeat(76) + "┐");
-        System.out.println("  │ 🔒 STRICT CATEGORY STRATEGY - Validation Process" + " ".repeat(26) + "│");
-        System.out.println("  ├" + "─".repeat(76) + "┤");
-        System.out.println("  │ Category: " + String.format("%-64s", categoryName != null ? categoryName : "NULL") + "│");
+        long start = System.nanoTime();
         
         if (categoryName == null || categoryName.trim().isEmpty()) {
-            System.out.println("  │ ❌ Validation: FAILED" + " ".repeat(53) + "│");
-            System.out.println("  │ 📝 Reason: Category name cannot be empty" + " ".repeat(34) + "│");
-            System.out.println("  └" + "─".repeat(76) + "┘");
+            auditLog.record("Strict category", "name=" + categoryName, "FAILED", "Empty name", start);
             return "Category name cannot be empty";
         }
         if (categoryName.length() > MAX_LENGTH) {
-            System.out.println("  │ ❌ Validation: FAILED" + " ".repeat(53) + "│");
-            System.out.println("  │ 📝 Reason: Name too long (max " + MAX_LENGTH + " chars, got " + categoryName.length() + ")" + " ".repeat(24) + "│");
-            System.out.println("  └" + "─".repeat(76) + "┘");
+            auditLog.record("Strict category", "name=" + categoryName, "FAILED",
+                    "Name longer than " + MAX_LENGTH + " characters", start);
             return "Category name too long (maximum " + MAX_LENGTH + " characters)";
         }
         
-        System.out.println("  │ ✅ Validation: PASSED" + " ".repeat(53) + "│");
-        System.out.println("  │ 📝 Note: Strict mode - No duplicate categories allowed" + " ".repeat(21) + "│");
-        System.out.println("  └" + "─".repeat(76) + "┘");
+        auditLog.record("Strict category", "name=" + categoryName, "PASSED", null, start);
         return null; // Valid
     }
     
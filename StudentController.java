@@ -4,8 +4,11 @@ import com.helpdesk.entity.Category;
 import com.helpdesk.entity.Ticket;
 import com.helpdesk.entity.User;
 import com.helpdesk.service.CategoryService;
+import com.helpdesk.service.IdempotencyKeyRegistry;
 import com.helpdesk.service.TicketService;
 import com.helpdesk.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -25,6 +28,8 @@ import java.util.Optional;
 @PreAuthorize("hasRole('STUDENT')")
 public class StudentController {
 
+    private static final Logger logger = LoggerFactory.getLogger(StudentController.class);
+
     @Autowired
     private UserService userService;
 
@@ -34,6 +39,9 @@ public class StudentController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private IdempotencyKeyRegistry idempotencyKeyRegistry;
+
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
         User currentUser = userService.getCurrentUser();
@@ -116,6 +124,7 @@ public class StudentController {
         model.addAttribute("ticket", new Ticket());
         model.addAttribute("categories", categoryService.getActiveCategories());
         model.addAttribute("priorities", Ticket.Priority.values());
+        model.addAttribute("idempotencyKey", idempotencyKeyRegistry.newKey());
         return "student/create-ticket";
     }
 
@@ -123,6 +132,7 @@ public class StudentController {
     public String createTicket(@ModelAttribute("ticket") Ticket ticket,
             BindingResult result,
             @RequestParam(name = "categoryId", required = false) Long categoryId,
+            @RequestParam(name = "idempotencyKey", required = false) String idempotencyKey,
             Model model,
             RedirectAttributes redirectAttributes) {
 
@@ -167,6 +177,7 @@ public class StudentController {
         if (result.hasErrors()) {
             model.addAttribute("categories", categoryService.getActiveCategories());
             model.addAttribute("priorities", Ticket.Priority.values());
+            model.addAttribute("idempotencyKey", idempotencyKey);
             return "student/create-ticket";
         }
 
@@ -180,9 +191,21 @@ public class StudentController {
             ticket.setStudentId(currentUser.getUsername());
             ticket.setStudentPhone(currentUser.getPhoneNumber());
 
-            Ticket createdTicket = ticketService.createTicket(ticket);
-            System.out.println("Ticket created successfully with ID: " + createdTicket.getId());
-            redirectAttributes.addFlashAttribute("success", "Ticket created successfully!");
+            // A repeated submission of the same form (double click, re-post) returns the first ticket
+            IdempotencyKeyRegistry.Outcome outcome = idempotencyKeyRegistry.execute(
+                    "ticket:" + currentUser.getUsername(), idempotencyKey,
+                    () -> ticketService.findIdByIdempotencyKey(idempotencyKey),
+                    key -> {
+                        ticket.setIdempotencyKey(key);
+                        return ticketService.createTicket(ticket).getId();
+                    });
+            if (outcome.isReplayed()) {
+                logger.debug("Duplicate submission of ticket ID: {}", outcome.getId());
+                redirectAttributes.addFlashAttribute("success", "Ticket was already submitted.");
+            } else {
+                System.out.println("Ticket created successfully with ID: " + outcome.getId());
+                redirectAttributes.addFlashAttribute("success", "Ticket created successfully!");
+            }
             return "redirect:/student/tickets";
         } catch (Exception e) {
             System.out.println("Error creating ticket: " + e.getMessage());
@@ -190,6 +213,7 @@ public class StudentController {
             model.addAttribute("error", "Error creating ticket: " + e.getMessage());
             model.addAttribute("categories", categoryService.getActiveCategories());
             model.addAttribute("priorities", Ticket.Priority.values());
+            model.addAttribute("idempotencyKey", idempotencyKey);
             return "student/create-ticket";
         }
     }
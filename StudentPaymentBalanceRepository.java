@@ -0,0 +1,33 @@
+package com.helpdesk.repository;
+
+import com.helpdesk.entity.StudentPaymentBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface StudentPaymentBalanceRepository extends JpaRepository<StudentPaymentBalance, String> {
+
+    // Atomic upsert (MySQL): adds the deltas in place, so concurrent writers never lose an update
+    @Modifying
+    @Query(value = "INSERT INTO student_payment_balances " +
+                   "(student_id, transaction_count, total_amount, paid_amount, pending_amount, updated_at) " +
+                   "VALUES (:studentId, :countDelta, :amountDelta, :paidDelta, :pendingDelta, :now) " +
+                   "ON DUPLICATE KEY UPDATE transaction_count = transaction_count + VALUES(transaction_count), " +
+                   "total_amount = total_amount + VALUES(total_amount), " +
+                   "paid_amount = paid_amount + VALUES(paid_amount), " +
+                   "pending_amount = pending_amount + VALUES(pending_amount), " +
+                   "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int addToBalance(@Param("studentId") String studentId,
+                     @Param("countDelta") long countDelta,
+                     @Param("amountDelta") BigDecimal amountDelta,
+                     @Param("paidDelta") BigDecimal paidDelta,
+                     @Param("pendingDelta") BigDecimal pendingDelta,
+                     @Param("now") LocalDateTime now);
+}
@@ -32,13 +32,14 @@ public class SupportArticle {
     @Column(name = "status", nullable = false)
     private String status = "Draft"; // Draft, Published, Archived
 
-    @Column(name = "view_count")
+    // Counters are only incremented in the database (ArticleCounterBuffer) - saving the entity never overwrites them
+    @Column(name = "view_count", updatable = false)
     private Integer viewCount = 0;
 
-    @Column(name = "helpful_count")
+    @Column(name = "helpful_count", updatable = false)
     private Integer helpfulCount = 0;
 
-    @Column(name = "not_helpful_count")
+    @Column(name = "not_helpful_count", updatable = false)
     private Integer notHelpfulCount = 0;
 
     @Column(name = "created_at")
@@ -1,5 +1,6 @@
 package com.helpdesk.controller;
 
+import com.helpdesk.dto.ArticleSearchResultDTO;
 import com.helpdesk.entity.SupportArticle;
 import com.helpdesk.service.SupportArticleService;
 import com.helpdesk.service.ArticleCategoryService;
@@ -14,6 +15,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/support/articles")
@@ -209,10 +211,19 @@ public class SupportArticleController {
 
     // Public endpoints for knowledge base (NO SESSION CHECK - accessible to everyone)
     @GetMapping("/public")
-    public String publicKnowledgeBase(@RequestParam(required = false) String search, Model model) {
+    public String publicKnowledgeBase(@RequestParam(required = false) String search,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "10") int size,
+                                      Model model) {
         List<SupportArticle> articles;
         if (search != null && !search.trim().isEmpty()) {
-            articles = supportArticleService.searchArticles(search);
+            // Ranked search results, one page at a time
+            ArticleSearchResultDTO searchResult = supportArticleService.searchArticles(search.trim(),
+                    Math.max(page, 0), Math.max(1, Math.min(size, 50)));
+            articles = searchResult.getHits().stream()
+                    .map(ArticleSearchResultDTO.Hit::getArticle)
+                    .collect(Collectors.toList());
+            model.addAttribute("searchResult", searchResult);
         } else {
             articles = supportArticleService.getPublishedArticles();
         }
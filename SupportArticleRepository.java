@@ -3,7 +3,6 @@ package com.helpdesk.repository;
 import com.helpdesk.entity.SupportArticle;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -27,13 +26,6 @@ public interface SupportArticleRepository extends JpaRepository<SupportArticle,
     @Query("SELECT COALESCE(SUM(a.viewCount), 0) FROM SupportArticle a")
     Long getTotalViews();
 
-    @Query("SELECT a FROM SupportArticle a WHERE " +
-            "(LOWER(a.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(a.content) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(a.keywords) LIKE LOWER(CONCAT('%', :query, '%'))) " +
-            "AND a.status = 'Published'")
-    List<SupportArticle> searchPublishedArticles(@Param("query") String query);
-
     List<SupportArticle> findByCategoryId(Long categoryId);
 }
 
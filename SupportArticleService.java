@@ -1,5 +1,6 @@
 package com.helpdesk.service;
 
+import com.helpdesk.dto.ArticleSearchResultDTO;
 import com.helpdesk.entity.SupportArticle;
 import com.helpdesk.repository.SupportArticleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -17,17 +21,23 @@ public class SupportArticleService {
     @Autowired
     private SupportArticleRepository supportArticleRepository;
 
+    @Autowired
+    private ArticleCounterBuffer articleCounterBuffer;
+
+    @Autowired
+    private ArticleSearchIndex articleSearchIndex;
+
     public SupportArticle createArticle(SupportArticle article) {
-        return supportArticleRepository.save(article);
+        SupportArticle saved = supportArticleRepository.save(article);
+        articleSearchIndex.update(saved);
+        return saved;
     }
 
     public Optional<SupportArticle> getArticleById(Long id) {
         Optional<SupportArticle> article = supportArticleRepository.findById(id);
         if (article.isPresent()) {
-            // Increment view count when article is retrieved (for public views)
-            SupportArticle existingArticle = article.get();
-            existingArticle.setViewCount(existingArticle.getViewCount() + 1);
-            supportArticleRepository.save(existingArticle);
+            // Increment view count when article is retrieved (for public views) - written behind in batches
+            articleCounterBuffer.recordView(id);
         }
         return article;
     }
@@ -44,17 +54,36 @@ public class SupportArticleService {
         return supportArticleRepository.findByStatus("Published");
     }
 
-    public List<SupportArticle> searchArticles(String query) {
-        return supportArticleRepository.searchPublishedArticles(query);
+    // Ranked full-text search over the published articles (in-memory BM25 index), one page at a time
+    @Transactional(readOnly = true)
+    public ArticleSearchResultDTO searchArticles(String query, int page, int size) {
+        ArticleSearchIndex.SearchPage searchPage = articleSearchIndex.search(query, page, size);
+        ArticleSearchResultDTO result = new ArticleSearchResultDTO(query, page, size, searchPage.getTotalHits());
+
+        List<Long> ids = searchPage.getHits().stream().map(ArticleSearchIndex.Hit::getArticleId).collect(Collectors.toList());
+        Map<Long, SupportArticle> articles = supportArticleRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(SupportArticle::getId, Function.identity()));
+        for (ArticleSearchIndex.Hit hit : searchPage.getHits()) {
+            SupportArticle article = articles.get(hit.getArticleId());
+            if (article != null) {
+                result.getHits().add(new ArticleSearchResultDTO.Hit(article, hit.getScore(),
+                        hit.getTitleHtml(), hit.getSnippetHtml()));
+            }
+        }
+        return result;
     }
 
     public SupportArticle updateArticle(SupportArticle article) {
         article.setUpdatedAt(LocalDateTime.now());
-        return supportArticleRepository.save(article);
+        SupportArticle saved = supportArticleRepository.save(article);
+        articleSearchIndex.update(saved);
+        return saved;
     }
 
     public void deleteArticle(Long id) {
         supportArticleRepository.deleteById(id);
+        articleCounterBuffer.forget(id);
+        articleSearchIndex.remove(id);
     }
 
     public SupportArticle updateArticleStatus(Long articleId, String status, String modifiedBy) {
@@ -63,21 +92,16 @@ public class SupportArticleService {
             SupportArticle article = articleOpt.get();
             article.setStatus(status);
             article.setLastModifiedBy(modifiedBy);
-            return supportArticleRepository.save(article);
+            SupportArticle saved = supportArticleRepository.save(article);
+            articleSearchIndex.update(saved);
+            return saved;
         }
         throw new RuntimeException("Article not found with id: " + articleId);
     }
 
     public void recordFeedback(Long articleId, boolean isHelpful) {
-        Optional<SupportArticle> articleOpt = supportArticleRepository.findById(articleId);
-        if (articleOpt.isPresent()) {
-            SupportArticle article = articleOpt.get();
-            if (isHelpful) {
-                article.setHelpfulCount(article.getHelpfulCount() + 1);
-            } else {
-                article.setNotHelpfulCount(article.getNotHelpfulCount() + 1);
-            }
-            supportArticleRepository.save(article);
+        if (supportArticleRepository.existsById(articleId)) {
+            articleCounterBuffer.recordFeedback(articleId, isHelpful);
         }
     }
 
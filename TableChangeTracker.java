@@ -0,0 +1,67 @@
+package com.helpdesk.entity;
+
+import com.helpdesk.service.TransactionChangeBuffer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.Table;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-table change versions
+ * Registered as an entity listener; every insert, update or delete bumps the version of the
+ * entity's table once the surrounding transaction commits. Caches compare versions to detect
+ * stale results. Bulk/native updates must call markChanged() themselves.
+ */
+public class TableChangeTracker {
+
+    private static final String PENDING_TABLES_KEY = TableChangeTracker.class.getName() + ".pendingTables";
+
+    private static final Map<String, AtomicLong> VERSIONS = new ConcurrentHashMap<>();
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        String table = tableOf(entity.getClass());
+        if (table != null) {
+            markChanged(table);
+        }
+    }
+
+    /**
+     * Current version of a table (0 until the first change after startup)
+     */
+    public static long getVersion(String table) {
+        AtomicLong version = VERSIONS.get(table);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * Record a change to the table - applied after commit when called inside a transaction
+     */
+    public static void markChanged(String table) {
+        // Only one bump per table and transaction
+        TransactionChangeBuffer.afterCommit(PENDING_TABLES_KEY, Collections.singletonList(table),
+                tables -> new LinkedHashSet<>(tables).forEach(TableChangeTracker::bump));
+    }
+
+    private static void bump(String table) {
+        VERSIONS.computeIfAbsent(table, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static String tableOf(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            Table table = current.getAnnotation(Table.class);
+            if (table != null) {
+                return table.name();
+            }
+        }
+        return null;
+    }
+}
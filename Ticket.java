@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+        @Index(name = "idx_tickets_updated_at", columnList = "updated_at")
+})
+@EntityListeners(TableChangeTracker.class)
 public class Ticket extends BaseEntity {
 
     @NotBlank(message = "Title is required")
@@ -104,6 +107,10 @@ public class Ticket extends BaseEntity {
     @Column(name = "subcategory")
     private String subcategory;
 
+    // Key of the create form submission (unique) - repeated submissions return this ticket
+    @Column(name = "idempotency_key", unique = true, updatable = false, length = 64)
+    private String idempotencyKey;
+
     // Enums
     public enum Priority {
         LOW, MEDIUM, HIGH, URGENT
@@ -317,6 +324,14 @@ public class Ticket extends BaseEntity {
         this.subcategory = subcategory;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     // Helper method to check if ticket can be edited by user
     public boolean canBeEditedByUser() {
         return this.status == Status.OPEN;
@@ -0,0 +1,123 @@
+package com.helpdesk.dto;
+
+import com.helpdesk.entity.Ticket;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight row of the report preview table
+ * Built by a JPQL constructor expression, so no Ticket entities (or their lazy associations)
+ * are loaded for the preview
+ */
+public class TicketPreviewDTO {
+
+    private Long id;
+    private String title;
+    private String studentName;
+    private String studentId;
+    private String categoryName;
+    private String assignedStaffName;
+    private Ticket.Priority priority;
+    private Ticket.Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime resolvedAt;
+
+    // Constructors
+    public TicketPreviewDTO() {}
+
+    public TicketPreviewDTO(Long id, String title, String studentName, String studentId, String categoryName,
+                            String assignedStaffName, Ticket.Priority priority, Ticket.Status status,
+                            LocalDateTime createdAt, LocalDateTime resolvedAt) {
+        this.id = id;
+        this.title = title;
+        this.studentName = studentName;
+        this.studentId = studentId;
+        this.categoryName = categoryName;
+        this.assignedStaffName = assignedStaffName;
+        this.priority = priority;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.resolvedAt = resolvedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public String getAssignedStaffName() {
+        return assignedStaffName;
+    }
+
+    public void setAssignedStaffName(String assignedStaffName) {
+        this.assignedStaffName = assignedStaffName;
+    }
+
+    public Ticket.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Ticket.Priority priority) {
+        this.priority = priority;
+    }
+
+    public Ticket.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Ticket.Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+}
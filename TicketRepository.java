@@ -1,21 +1,30 @@
 package com.helpdesk.repository;
 
+import com.helpdesk.dto.TicketPreviewDTO;
 import com.helpdesk.entity.Ticket;
 import com.helpdesk.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    // Id of the ticket created by a form submission (idempotency key)
+    @Query("SELECT t.id FROM Ticket t WHERE t.idempotencyKey = :key")
+    Optional<Long> findIdByIdempotencyKey(@Param("key") String key);
+
     // Search functionality
     @Query("SELECT t FROM Ticket t WHERE " +
             "(:searchTerm IS NULL OR " +
@@ -81,7 +90,8 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Object[]> getTopStudentsByTicketCount(Pageable pageable);
 
     // Complex reporting query with filters
-    @Query("SELECT t FROM Ticket t WHERE " +
+    // Category and staff are fetched with the tickets so the (cached) results need no lazy loading
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.category LEFT JOIN FETCH t.assignedStaff WHERE " +
             "(:startDate IS NULL OR DATE(t.createdAt) >= :startDate) AND " +
             "(:endDate IS NULL OR DATE(t.createdAt) <= :endDate) AND " +
             "(:categoryIds IS NULL OR t.category.id IN :categoryIds) AND " +
@@ -99,6 +109,47 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
             @Param("studentId") String studentId
     );
 
+    // Streaming variant of the reporting query for large exports
+    // Category and staff are fetched in the same row because MySQL cannot run lazy-load
+    // queries on a connection while a streaming result set is still open
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.category LEFT JOIN FETCH t.assignedStaff WHERE " +
+            "(:startDate IS NULL OR DATE(t.createdAt) >= :startDate) AND " +
+            "(:endDate IS NULL OR DATE(t.createdAt) <= :endDate) AND " +
+            "(:categoryIds IS NULL OR t.category.id IN :categoryIds) AND " +
+            "(:staffIds IS NULL OR t.assignedStaff.id IN :staffIds) AND " +
+            "(:statuses IS NULL OR t.status IN :statuses) AND " +
+            "(:studentName IS NULL OR LOWER(t.studentName) LIKE LOWER(CONCAT('%', :studentName, '%'))) AND " +
+            "(:studentId IS NULL OR LOWER(t.studentId) LIKE LOWER(CONCAT('%', :studentId, '%'))) " +
+            "ORDER BY t.id")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<Ticket> streamTicketsWithFilters(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryIds") List<Long> categoryIds,
+            @Param("staffIds") List<Long> staffIds,
+            @Param("statuses") List<Ticket.Status> statuses,
+            @Param("studentName") String studentName,
+            @Param("studentId") String studentId
+    );
+
+    // Tickets changed since a watermark (incremental refresh of materialized reports)
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.category LEFT JOIN FETCH t.assignedStaff " +
+            "WHERE t.updatedAt >= :since ORDER BY t.updatedAt")
+    List<Ticket> findTicketsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Tickets created or modified inside a delta export window, streamed in change order
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.category LEFT JOIN FETCH t.assignedStaff " +
+            "WHERE t.updatedAt >= :since AND t.updatedAt < :until ORDER BY t.updatedAt, t.id")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<Ticket> streamTicketsChangedBetween(@Param("since") LocalDateTime since,
+                                               @Param("until") LocalDateTime until);
+
     // Count tickets with filters for reporting
     @Query("SELECT COUNT(t) FROM Ticket t WHERE " +
             "(:startDate IS NULL OR DATE(t.createdAt) >= :startDate) AND " +
@@ -118,6 +169,103 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
             @Param("studentId") String studentId
     );
 
+    // Keyset page of the report preview - newest first, continuing below :afterId
+    // Projected straight into DTOs so the preview never materializes Ticket entities
+    @Query("SELECT new com.helpdesk.dto.TicketPreviewDTO(t.id, t.title, t.studentName, t.studentId, " +
+            "c.name, s.name, t.priority, t.status, t.createdAt, t.resolvedAt) " +
+            "FROM Ticket t JOIN t.category c LEFT JOIN t.assignedStaff s WHERE " +
+            "(:afterId IS NULL OR t.id < :afterId) AND " +
+            "(:startDate IS NULL OR DATE(t.createdAt) >= :startDate) AND " +
+            "(:endDate IS NULL OR DATE(t.createdAt) <= :endDate) AND " +
+            "(:categoryIds IS NULL OR c.id IN :categoryIds) AND " +
+            "(:staffIds IS NULL OR s.id IN :staffIds) AND " +
+            "(:statuses IS NULL OR t.status IN :statuses) AND " +
+            "(:studentName IS NULL OR LOWER(t.studentName) LIKE LOWER(CONCAT('%', :studentName, '%'))) AND " +
+            "(:studentId IS NULL OR LOWER(t.studentId) LIKE LOWER(CONCAT('%', :studentId, '%'))) " +
+            "ORDER BY t.id DESC")
+    List<TicketPreviewDTO> findPreviewRowsWithFilters(
+            @Param("afterId") Long afterId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryIds") List<Long> categoryIds,
+            @Param("staffIds") List<Long> staffIds,
+            @Param("statuses") List<Ticket.Status> statuses,
+            @Param("studentName") String studentName,
+            @Param("studentId") String studentId,
+            Pageable pageable
+    );
+
+    // All summary metrics of a filtered report in one pass (conditional aggregation)
+    // Returns one row: total, avg resolution hours, open, in progress, resolved, closed, unassigned
+    @Query("SELECT COUNT(t), " +
+            "AVG(CASE WHEN t.resolvedAt IS NOT NULL THEN TIMESTAMPDIFF(HOUR, t.createdAt, t.resolvedAt) END), " +
+            "SUM(CASE WHEN t.status = 'OPEN' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.status = 'RESOLVED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.status = 'CLOSED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.assignedStaff IS NULL THEN 1 ELSE 0 END) " +
+            "FROM Ticket t WHERE " +
+            "(:startDate IS NULL OR DATE(t.createdAt) >= :startDate) AND " +
+            "(:endDate IS NULL OR DATE(t.createdAt) <= :endDate) AND " +
+            "(:categoryIds IS NULL OR t.category.id IN :categoryIds) AND " +
+            "(:staffIds IS NULL OR t.assignedStaff.id IN :staffIds) AND " +
+            "(:statuses IS NULL OR t.status IN :statuses) AND " +
+            "(:studentName IS NULL OR LOWER(t.studentName) LIKE LOWER(CONCAT('%', :studentName, '%'))) AND " +
+            "(:studentId IS NULL OR LOWER(t.studentId) LIKE LOWER(CONCAT('%', :studentId, '%')))")
+    List<Object[]> getReportSummaryWithFilters(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryIds") List<Long> categoryIds,
+            @Param("staffIds") List<Long> staffIds,
+            @Param("statuses") List<Ticket.Status> statuses,
+            @Param("studentName") String studentName,
+            @Param("studentId") String studentId
+    );
+
+    // Cube source rows: only the dimension and measure columns, streamed
+    // Returns categoryId, staffId (null = unassigned), status, priority, createdAt, resolvedAt
+    @Query("SELECT t.category.id, s.id, t.status, t.priority, t.createdAt, t.resolvedAt " +
+            "FROM Ticket t LEFT JOIN t.assignedStaff s WHERE " +
+            "(:startDate IS NULL OR DATE(t.createdAt) >= :startDate) AND " +
+            "(:endDate IS NULL OR DATE(t.createdAt) <= :endDate) AND " +
+            "(:categoryIds IS NULL OR t.category.id IN :categoryIds) AND " +
+            "(:staffIds IS NULL OR s.id IN :staffIds) AND " +
+            "(:statuses IS NULL OR t.status IN :statuses) AND " +
+            "(:studentName IS NULL OR LOWER(t.studentName) LIKE LOWER(CONCAT('%', :studentName, '%'))) AND " +
+            "(:studentId IS NULL OR LOWER(t.studentId) LIKE LOWER(CONCAT('%', :studentId, '%')))")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<Object[]> streamCubeRowsWithFilters(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryIds") List<Long> categoryIds,
+            @Param("staffIds") List<Long> staffIds,
+            @Param("statuses") List<Ticket.Status> statuses,
+            @Param("studentName") String studentName,
+            @Param("studentId") String studentId
+    );
+
+    // First and last creation time of the filtered tickets (month axis of the cube)
+    @Query("SELECT MIN(t.createdAt), MAX(t.createdAt) FROM Ticket t LEFT JOIN t.assignedStaff s WHERE " +
+            "(:startDate IS NULL OR DATE(t.createdAt) >= :startDate) AND " +
+            "(:endDate IS NULL OR DATE(t.createdAt) <= :endDate) AND " +
+            "(:categoryIds IS NULL OR t.category.id IN :categoryIds) AND " +
+            "(:staffIds IS NULL OR s.id IN :staffIds) AND " +
+            "(:statuses IS NULL OR t.status IN :statuses) AND " +
+            "(:studentName IS NULL OR LOWER(t.studentName) LIKE LOWER(CONCAT('%', :studentName, '%'))) AND " +
+            "(:studentId IS NULL OR LOWER(t.studentId) LIKE LOWER(CONCAT('%', :studentId, '%')))")
+    List<Object[]> getCreatedAtRangeWithFilters(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryIds") List<Long> categoryIds,
+            @Param("staffIds") List<Long> staffIds,
+            @Param("statuses") List<Ticket.Status> statuses,
+            @Param("studentName") String studentName,
+            @Param("studentId") String studentId
+    );
+
     // Average resolution time with filters
     @Query("SELECT AVG(TIMESTAMPDIFF(HOUR, t.createdAt, t.resolvedAt)) FROM Ticket t WHERE " +
             "t.resolvedAt IS NOT NULL AND " +
@@ -200,4 +348,23 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
     // Count tickets assigned to a staff member
     long countByAssignedTo(User assignedTo);
+
+    // Claim queue candidates: unassigned OPEN tickets by aged priority (plain read, no locks).
+    // Every agingHours of waiting adds one priority level, so LOW tickets do not starve.
+    @Query(value = "SELECT id FROM tickets WHERE status = 'OPEN' AND assigned_to_user_id IS NULL " +
+            "ORDER BY (CASE priority WHEN 'URGENT' THEN 3 WHEN 'HIGH' THEN 2 WHEN 'MEDIUM' THEN 1 ELSE 0 END) " +
+            "+ TIMESTAMPDIFF(MINUTE, created_at, :now) / (60 * :agingHours) DESC, id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> findClaimCandidates(@Param("now") LocalDateTime now,
+            @Param("agingHours") int agingHours,
+            @Param("limit") int limit);
+
+    // Lock the still-unassigned candidates (MySQL 8: rows locked by another claimer are skipped)
+    @Query(value = "SELECT id FROM tickets WHERE id IN (:ids) AND status = 'OPEN' AND assigned_to_user_id IS NULL " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimable(@Param("ids") List<Long> ids);
+
+    // Unassigned OPEN tickets waiting in the claim queue
+    @Query("SELECT COUNT(t) FROM Ticket t WHERE t.status = :status AND t.assignedTo IS NULL")
+    long countUnassignedByStatus(@Param("status") Ticket.Status status);
 }
\ No newline at end of file
@@ -1,10 +1,15 @@
 package com.helpdesk.service;
 
 import com.helpdesk.dto.DashboardStatsDTO;
+import com.helpdesk.dto.TicketPreviewDTO;
+import com.helpdesk.entity.DeletedRecord;
+import com.helpdesk.entity.Reply;
 import com.helpdesk.entity.Ticket;
 import com.helpdesk.entity.User;
+import com.helpdesk.repository.DeletedRecordRepository;
 import com.helpdesk.repository.TicketRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,9 +19,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -25,6 +34,17 @@ public class TicketService {
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private DeletedRecordRepository deletedRecordRepository;
+
+    // Claim queue: hours of waiting that add one priority level (LOW -> MEDIUM -> HIGH -> URGENT)
+    @Value("${ticket.queue.aging-hours:24}")
+    private int queueAgingHours;
+
+    // Candidates ranked per claim attempt - enough to get past rows taken by concurrent claimers
+    @Value("${ticket.queue.claim-candidates:32}")
+    private int queueClaimCandidates;
+
     // CRUD Operations
     public Ticket createTicket(Ticket ticket) {
         ticket.setStatus(Ticket.Status.OPEN);
@@ -35,6 +55,11 @@ public class TicketService {
         return ticketRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public Long findIdByIdempotencyKey(String idempotencyKey) {
+        return ticketRepository.findIdByIdempotencyKey(idempotencyKey).orElse(null);
+    }
+
     public Page<Ticket> getAllTickets(int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() :
@@ -48,6 +73,15 @@ public class TicketService {
     }
 
     public void deleteTicket(Long id) {
+        // Leave tombstones for delta exports - the replies are removed with the ticket (cascade)
+        ticketRepository.findById(id).ifPresent(ticket -> {
+            if (ticket.getReplies() != null) {
+                for (Reply reply : ticket.getReplies()) {
+                    deletedRecordRepository.save(new DeletedRecord(DeletedRecord.RecordType.REPLY, reply.getId(), id));
+                }
+            }
+            deletedRecordRepository.save(new DeletedRecord(DeletedRecord.RecordType.TICKET, id, id));
+        });
         ticketRepository.deleteById(id);
     }
 
@@ -135,6 +169,29 @@ public class TicketService {
                 staffIds, statuses, studentName, studentId);
     }
 
+    /**
+     * Stream filtered tickets row by row for large exports
+     * Must be consumed (and closed) inside the caller's transaction
+     */
+    @Transactional(readOnly = true)
+    public Stream<Ticket> streamTicketsWithFilters(LocalDate startDate, LocalDate endDate,
+                                                   List<Long> categoryIds, List<Long> staffIds,
+                                                   List<Ticket.Status> statuses, String studentName,
+                                                   String studentId) {
+        return ticketRepository.streamTicketsWithFilters(startDate, endDate, categoryIds,
+                staffIds, statuses, studentName, studentId);
+    }
+
+    // Stream tickets changed in [since, until) - must be consumed inside the caller's transaction
+    @Transactional(readOnly = true)
+    public Stream<Ticket> streamTicketsChangedBetween(LocalDateTime since, LocalDateTime until) {
+        return ticketRepository.streamTicketsChangedBetween(since, until);
+    }
+
+    public List<Ticket> getTicketsUpdatedSince(LocalDateTime since) {
+        return ticketRepository.findTicketsUpdatedSince(since);
+    }
+
     public Long countTicketsWithFilters(LocalDate startDate, LocalDate endDate,
                                         List<Long> categoryIds, List<Long> staffIds,
                                         List<Ticket.Status> statuses, String studentName,
@@ -143,6 +200,43 @@ public class TicketService {
                 staffIds, statuses, studentName, studentId);
     }
 
+    // Keyset-paged preview rows (newest first); pass the last id of the previous page as afterId
+    public List<TicketPreviewDTO> getPreviewRowsWithFilters(Long afterId, int pageSize, LocalDate startDate,
+                                                            LocalDate endDate, List<Long> categoryIds,
+                                                            List<Long> staffIds, List<Ticket.Status> statuses,
+                                                            String studentName, String studentId) {
+        return ticketRepository.findPreviewRowsWithFilters(afterId, startDate, endDate, categoryIds,
+                staffIds, statuses, studentName, studentId, PageRequest.of(0, pageSize));
+    }
+
+    public Object[] getReportSummaryWithFilters(LocalDate startDate, LocalDate endDate,
+                                                List<Long> categoryIds, List<Long> staffIds,
+                                                List<Ticket.Status> statuses, String studentName,
+                                                String studentId) {
+        List<Object[]> rows = ticketRepository.getReportSummaryWithFilters(startDate, endDate, categoryIds,
+                staffIds, statuses, studentName, studentId);
+        return rows.isEmpty() ? new Object[7] : rows.get(0);
+    }
+
+    // Stream the cube columns of the filtered tickets - must be consumed inside the caller's transaction
+    @Transactional(readOnly = true)
+    public Stream<Object[]> streamCubeRowsWithFilters(LocalDate startDate, LocalDate endDate,
+                                                      List<Long> categoryIds, List<Long> staffIds,
+                                                      List<Ticket.Status> statuses, String studentName,
+                                                      String studentId) {
+        return ticketRepository.streamCubeRowsWithFilters(startDate, endDate, categoryIds,
+                staffIds, statuses, studentName, studentId);
+    }
+
+    public Object[] getCreatedAtRangeWithFilters(LocalDate startDate, LocalDate endDate,
+                                                 List<Long> categoryIds, List<Long> staffIds,
+                                                 List<Ticket.Status> statuses, String studentName,
+                                                 String studentId) {
+        List<Object[]> rows = ticketRepository.getCreatedAtRangeWithFilters(startDate, endDate, categoryIds,
+                staffIds, statuses, studentName, studentId);
+        return rows.isEmpty() ? new Object[2] : rows.get(0);
+    }
+
     public Double getAverageResolutionTimeWithFilters(LocalDate startDate, LocalDate endDate,
                                                       List<Long> categoryIds, List<Long> staffIds,
                                                       List<Ticket.Status> statuses, String studentName,
@@ -166,6 +260,42 @@ public class TicketService {
         throw new RuntimeException("Ticket not found with id: " + ticketId);
     }
 
+    /**
+     * Claim the next ticket from the queue: the unassigned OPEN ticket with the highest aged priority
+     * Candidates are ranked without locks, then locked one at a time with SKIP LOCKED, so concurrent
+     * staff skip each other's rows instead of waiting and never get the same ticket.
+     */
+    public Optional<Ticket> claimNextTicket(User staffUser) {
+        Set<Long> skipped = new HashSet<>();
+        for (int round = 0; round < 3; round++) {
+            List<Long> candidates = new ArrayList<>(ticketRepository.findClaimCandidates(LocalDateTime.now(),
+                    queueAgingHours, queueClaimCandidates + skipped.size()));
+            candidates.removeAll(skipped);
+            if (candidates.isEmpty()) {
+                return Optional.empty();
+            }
+
+            for (Long id : candidates) {
+                // One row at a time, so a claim never holds locks on tickets it does not take
+                if (ticketRepository.lockClaimable(List.of(id)).isEmpty()) {
+                    skipped.add(id);
+                    continue;
+                }
+                Ticket ticket = ticketRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
+                ticket.setAssignedTo(staffUser);
+                ticket.setStatus(Ticket.Status.IN_PROGRESS);
+                return Optional.of(ticketRepository.save(ticket));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Transactional(readOnly = true)
+    public long getQueuedTicketsCount() {
+        return ticketRepository.countUnassignedByStatus(Ticket.Status.OPEN);
+    }
+
     public Ticket resolveTicket(Long ticketId, String resolutionNotes) {
         Optional<Ticket> ticketOpt = ticketRepository.findById(ticketId);
         if (ticketOpt.isPresent()) {
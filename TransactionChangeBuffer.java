@@ -0,0 +1,70 @@
+package com.helpdesk.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects the changes a transaction makes for one in-memory index or derived table
+ * All changes recorded under the same key while a transaction is active are handed to the
+ * handler together, either after commit (dropped on rollback) or just before commit (inside the
+ * transaction). Outside a transaction the changes are handed over immediately.
+ */
+public final class TransactionChangeBuffer {
+
+    private TransactionChangeBuffer() {
+    }
+
+    /**
+     * Hand the changes to the handler once the current transaction commits
+     */
+    public static <T> void afterCommit(String key, List<T> changes, Consumer<List<T>> handler) {
+        collect(key, changes, handler, false);
+    }
+
+    /**
+     * Hand the changes to the handler just before the current transaction commits
+     */
+    public static <T> void beforeCommit(String key, List<T> changes, Consumer<List<T>> handler) {
+        collect(key, changes, handler, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void collect(String key, List<T> changes, Consumer<List<T>> handler, boolean beforeCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            handler.accept(changes);
+            return;
+        }
+
+        List<T> pending = (List<T>) TransactionSynchronizationManager.getResource(key);
+        if (pending == null) {
+            List<T> collected = new ArrayList<>();
+            pending = collected;
+            TransactionSynchronizationManager.bindResource(key, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (beforeCommit) {
+                        handler.accept(collected);
+                    }
+                }
+
+                @Override
+                public void afterCommit() {
+                    if (!beforeCommit) {
+                        handler.accept(collected);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+            });
+        }
+        pending.addAll(changes);
+    }
+}
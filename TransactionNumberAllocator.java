@@ -0,0 +1,128 @@
+package com.helpdesk.service;
+
+import com.helpdesk.entity.TransactionNumberSequence;
+import com.helpdesk.repository.PaymentTransactionRepository;
+import com.helpdesk.repository.TransactionNumberSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates payment transaction numbers (TXN-YYYY-NNNN)
+ * Each node reserves a block of numbers from the per-year row in transaction_number_sequences
+ * (SELECT ... FOR UPDATE in its own transaction) and then hands them out from an AtomicLong, so
+ * creating a transaction costs no query and concurrent creates never see the same number.
+ * Numbers restart at 1 every year. Unused numbers of a block are lost on restart, so the
+ * sequence may have gaps but never duplicates.
+ */
+@Component
+public class TransactionNumberAllocator {
+
+    @Autowired
+    private TransactionNumberSequenceRepository sequenceRepository;
+
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    @Value("${payment.transaction-number.block-size:20}")
+    private int blockSize;
+
+    private final TransactionTemplate reservationTransaction;
+
+    private volatile Block currentBlock = new Block(0, 0, 0);
+
+    public TransactionNumberAllocator(PlatformTransactionManager transactionManager) {
+        // Reservations commit on their own - the row lock must not be held for the caller's whole transaction
+        this.reservationTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next unique transaction number for the current year
+     */
+    public String nextTransactionNumber() {
+        int year = Year.now().getValue();
+        while (true) {
+            Block block = currentBlock;
+            if (block.year == year) {
+                long number = block.next.getAndIncrement();
+                if (number < block.end) {
+                    return format(year, number);
+                }
+            }
+            refill(block, year);
+        }
+    }
+
+    // Only one thread reserves the next block; the others retry on the new one
+    private synchronized void refill(Block exhausted, int year) {
+        if (currentBlock != exhausted) {
+            return;
+        }
+        long start = reserveBlock(year);
+        currentBlock = new Block(year, start, start + blockSize);
+    }
+
+    private long reserveBlock(int year) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Long start = reservationTransaction.execute(status -> {
+                    TransactionNumberSequence sequence = sequenceRepository.findByYearForUpdate(year)
+                            .orElseGet(() -> sequenceRepository.saveAndFlush(
+                                    new TransactionNumberSequence(year, seedFromExistingNumbers(year))));
+                    long first = sequence.getNextValue();
+                    sequence.setNextValue(first + blockSize);
+                    return first;
+                });
+                return start;
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                // Another node created the year's row at the same moment - lock the existing row instead.
+                // Both FOR UPDATE reads of the missing row take gap locks, so the losing insert usually
+                // fails as a deadlock rather than as a duplicate key.
+                if (attempt >= 2) {
+                    throw new RuntimeException("Could not reserve transaction numbers for " + year, e);
+                }
+            }
+        }
+    }
+
+    // First number of a year's sequence - continues after numbers issued before the sequence existed
+    private long seedFromExistingNumbers(int year) {
+        String prefix = "TXN-" + year + "-";
+        List<String> highest = paymentTransactionRepository.findHighestTransactionNumber(prefix, PageRequest.of(0, 1));
+        if (!highest.isEmpty() && highest.get(0) != null) {
+            try {
+                return Long.parseLong(highest.get(0).substring(prefix.length())) + 1;
+            } catch (NumberFormatException e) {
+                // Not one of ours - start from 1
+            }
+        }
+        return 1;
+    }
+
+    private String format(int year, long number) {
+        return "TXN-" + year + "-" + String.format("%04d", number);
+    }
+
+    private static class Block {
+        private final int year;
+        private final AtomicLong next;
+        private final long end;
+
+        Block(int year, long start, long end) {
+            this.year = year;
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
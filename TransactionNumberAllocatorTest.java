@@ -0,0 +1,200 @@
+package com.helpdesk.service;
+
+import com.helpdesk.entity.TransactionNumberSequence;
+import com.helpdesk.repository.PaymentTransactionRepository;
+import com.helpdesk.repository.TransactionNumberSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrency tests of TransactionNumberAllocator
+ * Every allocator instance stands for one app node; all of them share one in-memory sequence
+ * table that behaves like the MySQL row (FOR UPDATE lock held until commit, unique year).
+ */
+class TransactionNumberAllocatorTest {
+
+    private static final int NODES = 4;
+    private static final int THREADS_PER_NODE = 8;
+    private static final int NUMBERS_PER_THREAD = 500;
+    private static final int BLOCK_SIZE = 20;
+
+    private SequenceTable sequenceTable;
+
+    @BeforeEach
+    void setUp() {
+        sequenceTable = new SequenceTable();
+    }
+
+    @Test
+    void numbersAreUniqueAcrossThreadsAndNodes() throws Exception {
+        List<TransactionNumberAllocator> nodes = new ArrayList<>();
+        for (int node = 0; node < NODES; node++) {
+            nodes.add(newAllocator());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try {
+            for (TransactionNumberAllocator allocator : nodes) {
+                for (int thread = 0; thread < THREADS_PER_NODE; thread++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        List<String> numbers = new ArrayList<>(NUMBERS_PER_THREAD);
+                        for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                            numbers.add(allocator.nextTransactionNumber());
+                        }
+                        return numbers;
+                    }));
+                }
+            }
+            start.countDown();
+
+            Set<String> unique = ConcurrentHashMap.newKeySet();
+            int total = 0;
+            for (Future<List<String>> result : results) {
+                for (String number : result.get(60, TimeUnit.SECONDS)) {
+                    assertThat(number).startsWith("TXN-" + Year.now().getValue() + "-");
+                    assertThat(unique.add(number)).as("duplicate %s", number).isTrue();
+                    total++;
+                }
+            }
+            assertThat(total).isEqualTo(NODES * THREADS_PER_NODE * NUMBERS_PER_THREAD);
+            // Blocks are handed out without overlap, so the row only moves forward by whole blocks
+            assertThat(sequenceTable.committedNextValue(Year.now().getValue()) - 1).isGreaterThanOrEqualTo(total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retriesWhenTheYearRowInsertLosesADeadlock() {
+        sequenceTable.failNextInsertWith(new CannotAcquireLockException("Deadlock found when trying to get lock"));
+        TransactionNumberAllocator allocator = newAllocator();
+
+        assertThat(allocator.nextTransactionNumber()).isEqualTo("TXN-" + Year.now().getValue() + "-0001");
+    }
+
+    @Test
+    void retriesWhenTheYearRowInsertIsADuplicate() {
+        sequenceTable.failNextInsertWith(new DataIntegrityViolationException("Duplicate entry for key PRIMARY"));
+        TransactionNumberAllocator allocator = newAllocator();
+
+        assertThat(allocator.nextTransactionNumber()).isEqualTo("TXN-" + Year.now().getValue() + "-0001");
+    }
+
+    private TransactionNumberAllocator newAllocator() {
+        TransactionNumberAllocator allocator = new TransactionNumberAllocator(sequenceTable);
+        ReflectionTestUtils.setField(allocator, "sequenceRepository", sequenceTable.repository());
+        ReflectionTestUtils.setField(allocator, "paymentTransactionRepository", mock(PaymentTransactionRepository.class));
+        ReflectionTestUtils.setField(allocator, "blockSize", BLOCK_SIZE);
+        return allocator;
+    }
+
+    /**
+     * In-memory transaction_number_sequences table and its transaction manager
+     * findByYearForUpdate locks the year until the transaction ends; changes to the returned
+     * entity are written back on commit.
+     */
+    private static class SequenceTable implements PlatformTransactionManager {
+
+        private final Map<Integer, Long> committed = new ConcurrentHashMap<>();
+        private final Map<Integer, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+        private final ThreadLocal<List<TransactionNumberSequence>> managed = ThreadLocal.withInitial(ArrayList::new);
+        private final ThreadLocal<List<ReentrantLock>> heldLocks = ThreadLocal.withInitial(ArrayList::new);
+        private final AtomicBoolean failNextInsert = new AtomicBoolean();
+        private volatile RuntimeException insertFailure;
+
+        void failNextInsertWith(RuntimeException failure) {
+            insertFailure = failure;
+            failNextInsert.set(true);
+        }
+
+        long committedNextValue(int year) {
+            return committed.get(year);
+        }
+
+        TransactionNumberSequenceRepository repository() {
+            TransactionNumberSequenceRepository repository = mock(TransactionNumberSequenceRepository.class);
+            when(repository.findByYearForUpdate(anyInt())).thenAnswer(invocation -> {
+                Integer year = invocation.getArgument(0);
+                ReentrantLock lock = rowLocks.computeIfAbsent(year, key -> new ReentrantLock());
+                lock.lock();
+                heldLocks.get().add(lock);
+                Long nextValue = committed.get(year);
+                if (nextValue == null) {
+                    return Optional.empty();
+                }
+                TransactionNumberSequence sequence = new TransactionNumberSequence(year, nextValue);
+                managed.get().add(sequence);
+                return Optional.of(sequence);
+            });
+            when(repository.saveAndFlush(any(TransactionNumberSequence.class))).thenAnswer(invocation -> {
+                TransactionNumberSequence sequence = invocation.getArgument(0);
+                if (failNextInsert.compareAndSet(true, false)) {
+                    throw insertFailure;
+                }
+                if (committed.containsKey(sequence.getYear())) {
+                    throw new DataIntegrityViolationException("Duplicate entry for key PRIMARY");
+                }
+                managed.get().add(sequence);
+                return sequence;
+            });
+            return repository;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            for (TransactionNumberSequence sequence : managed.get()) {
+                committed.put(sequence.getYear(), sequence.getNextValue());
+            }
+            end();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            end();
+        }
+
+        private void end() {
+            managed.get().clear();
+            for (ReentrantLock lock : heldLocks.get()) {
+                lock.unlock();
+            }
+            heldLocks.get().clear();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.helpdesk.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Per-year counter behind payment transaction numbers (TXN-YYYY-NNNN)
+ * App nodes reserve blocks of numbers from this row instead of reading the latest transaction,
+ * so the row is only touched once per block
+ */
+@Entity
+@Table(name = "transaction_number_sequences")
+public class TransactionNumberSequence {
+
+    @Id
+    @Column(name = "sequence_year")
+    private Integer year;
+
+    // First number not yet handed out to any node
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    // Constructors
+    public TransactionNumberSequence() {}
+
+    public TransactionNumberSequence(Integer year, Long nextValue) {
+        this.year = year;
+        this.nextValue = nextValue;
+    }
+
+    // Getters and Setters
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
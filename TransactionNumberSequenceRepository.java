@@ -0,0 +1,20 @@
+package com.helpdesk.repository;
+
+import com.helpdesk.entity.TransactionNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TransactionNumberSequenceRepository extends JpaRepository<TransactionNumberSequence, Integer> {
+
+    // SELECT ... FOR UPDATE - serializes block reservations across app nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TransactionNumberSequence s WHERE s.year = :year")
+    Optional<TransactionNumberSequence> findByYearForUpdate(@Param("year") Integer year);
+}